@@ -0,0 +1,133 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Sample table of the benchmarks, with a column of each common type. The rows are generated from their
+ * index, so every benchmark sees the same data.
+ */
+final class EventsTable {
+
+    static final List<String> COLUMN_NAMES = List.of("id", "tenant_id", "name", "amount", "score", "active",
+            "created", "payload");
+    static final int[] COLUMN_TYPES = { Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.NUMERIC, Types.DOUBLE,
+            Types.BOOLEAN, Types.TIMESTAMP, Types.VARCHAR };
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long CREATED_EPOCH_MILLIS = 1_640_995_200_000L;
+
+    private EventsTable() {
+    }
+
+    static TableMetadata metadata() {
+        return TableMetadata.of("events", COLUMN_NAMES, COLUMN_TYPES);
+    }
+
+    /**
+     * @return values of the row, as read from a {@code COPY} object.
+     */
+    static Object[] row(final int index) {
+        return new Object[] {
+                (long)index,
+                "tenant-" + index % 16,
+                index % 10 == 0 ? null : "event " + index,
+                BigDecimal.valueOf(index * 25L, 2),
+                index / 7.0,
+                index % 2 == 0,
+                new Timestamp(CREATED_EPOCH_MILLIS + index * 1000L),
+                "{\"source\":\"benchmark\",\"sequence\":" + index + "}"
+        };
+    }
+
+    /**
+     * @return in-memory result set of the rows, positioned before the first row.
+     */
+    static CachedRowSet resultSet(final int rowCount) throws SQLException {
+        final RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(COLUMN_TYPES.length);
+        for (int i = 0; i < COLUMN_TYPES.length; i++) {
+            metaData.setColumnName(i + 1, COLUMN_NAMES.get(i));
+            metaData.setColumnType(i + 1, COLUMN_TYPES[i]);
+            metaData.setNullable(i + 1, ResultSetMetaData.columnNullable);
+        }
+        final CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+        rowSet.moveToInsertRow();
+        for (int index = 0; index < rowCount; index++) {
+            final Object[] row = row(index);
+            for (int i = 0; i < row.length; i++) {
+                if (row[i] == null) {
+                    rowSet.updateNull(i + 1);
+                } else {
+                    rowSet.updateObject(i + 1, row[i]);
+                }
+            }
+            rowSet.insertRow();
+        }
+        rowSet.moveToCurrentRow();
+        rowSet.beforeFirst();
+        return rowSet;
+    }
+
+    /**
+     * Builds the Avro schema of the {@code UNLOAD} output of the result set, as {@link UnloadCommand} does.
+     */
+    static Schema schema(final ResultSetMetaData metaData) throws SQLException {
+        final SchemaBuilder.FieldAssembler<Schema> schemaFieldAssembler = SchemaBuilder
+                .record("GenericObject").fields();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            SqlTransformer.extractSchema(metaData.getColumnType(i), metaData.getColumnName(i), schemaFieldAssembler);
+        }
+        return schemaFieldAssembler.endRecord();
+    }
+
+    /**
+     * @return the rows as a sequence of JSON objects, the input of {@code COPY ... FORMAT AS JSON}.
+     */
+    static byte[] json(final int rowCount) throws IOException {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(content)) {
+            for (int index = 0; index < rowCount; index++) {
+                final Object[] row = row(index);
+                generator.writeStartObject();
+                for (int i = 0; i < row.length; i++) {
+                    generator.writeFieldName(COLUMN_NAMES.get(i));
+                    if (row[i] instanceof Timestamp) {
+                        generator.writeString(row[i].toString());
+                    } else {
+                        generator.writeObject(row[i]);
+                    }
+                }
+                // attributes which are not loaded are skipped by the reader
+                generator.writeObjectFieldStart("context");
+                generator.writeStringField("host", "host-" + index % 4);
+                generator.writeNumberField("attempt", 1);
+                generator.writeEndObject();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+        return content.toByteArray();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link ExecutionCommandParser#parse(String, ExecutionCommandParser.ExecutionCommandContext)},
+ * which every statement executed or prepared through the driver passes through.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExecutionCommandParserBenchmark {
+
+    /**
+     * Statements as executed by the applications under test.
+     */
+    public enum SqlMix {
+        PASS_THROUGH(
+                "SELECT id, name, created FROM events WHERE tenant_id = ? AND created > ? ORDER BY created",
+                "INSERT INTO events (id, tenant_id, name, payload, created) VALUES (?, ?, ?, ?, ?)",
+                "UPDATE events SET name = ? WHERE id = ?",
+                "DELETE FROM events WHERE tenant_id = ?"),
+        REWRITE(
+                "CREATE TABLE IF NOT EXISTS events (id BIGINT NOT NULL, tenant_id VARCHAR(64), "
+                        + "payload VARCHAR(MAX), created TIMESTAMP) DISTSTYLE KEY DISTKEY (tenant_id)",
+                "CREATE TEMP TABLE events_stage (id BIGINT, payload VARCHAR(MAX)) DISTSTYLE EVEN"),
+        COPY(
+                "COPY events FROM 's3://bucket/events/2022-01-01/' IAM_ROLE 'arn:aws:iam::123456789012:role/load' "
+                        + "FORMAT AS JSON 'auto' GZIP",
+                "COPY events_stage FROM 's3://bucket/stage/manifest' IAM_ROLE 'arn:aws:iam::123456789012:role/load' "
+                        + "CSV DELIMITER AS ';' IGNOREHEADER 1 MANIFEST"),
+        UNLOAD(
+                "UNLOAD ('SELECT id, name FROM events WHERE tenant_id = ''t1''') TO 's3://bucket/unload/events_' "
+                        + "IAM_ROLE 'arn:aws:iam::123456789012:role/unload' FORMAT AS PARQUET"),
+        /**
+         * Mostly pass-through statements, with the occasional DDL, {@code COPY} and {@code UNLOAD}.
+         */
+        MIXED(
+                PASS_THROUGH.statements[0],
+                PASS_THROUGH.statements[1],
+                PASS_THROUGH.statements[0],
+                PASS_THROUGH.statements[2],
+                PASS_THROUGH.statements[0],
+                PASS_THROUGH.statements[1],
+                PASS_THROUGH.statements[3],
+                REWRITE.statements[0],
+                COPY.statements[0],
+                UNLOAD.statements[0]);
+
+        private final String[] statements;
+
+        SqlMix(final String... statements) {
+            this.statements = statements;
+        }
+
+        String[] getStatements() {
+            return this.statements.clone();
+        }
+    }
+
+    /**
+     * Parser context of a connection with the default properties.
+     */
+    @State(Scope.Benchmark)
+    public static class ParserState {
+
+        private ExecutionCommandParser.ExecutionCommandContext context;
+        private long counter;
+
+        @Setup
+        public void setUp() {
+            this.context = ExecutionCommandParser.ExecutionCommandContext.builder()
+                    .info(new Properties())
+                    .connection(StubJdbc.connection())
+                    .s3ClientRegistry(new S3ClientRegistry())
+                    .tableMetadataCache(new TableMetadataCache())
+                    .build();
+        }
+
+        ExecutionCommandParser.ExecutionCommandContext getContext() {
+            return this.context;
+        }
+    }
+
+    /**
+     * Statements of a {@link SqlMix}.
+     */
+    @State(Scope.Benchmark)
+    public static class MixState {
+
+        @Param
+        private SqlMix mix;
+
+        private String[] statements;
+
+        @Setup
+        public void setUp() {
+            this.statements = this.mix.getStatements();
+        }
+
+        String[] getStatements() {
+            return this.statements;
+        }
+    }
+
+    /**
+     * Parses each statement of the mix, the pass-through statements are remembered after the first parse.
+     */
+    @Benchmark
+    public void parse(final ParserState parser, final MixState mix, final Blackhole blackhole) {
+        for (String sql : mix.getStatements()) {
+            blackhole.consume(ExecutionCommandParser.parse(sql, parser.getContext()));
+        }
+    }
+
+    /**
+     * Parses a statement with an inlined value, which is not seen again and so not remembered.
+     */
+    @Benchmark
+    public Optional<ExecutionCommand<?>> parseInlinedValue(final ParserState parser) {
+        return ExecutionCommandParser.parse("SELECT id, name, created FROM events WHERE id = " + parser.counter++,
+                parser.getContext());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link S3Client} that keeps the objects in memory, so that the benchmarks measure the driver rather
+ * than the network. Supports the requests made by {@code COPY} and {@code UNLOAD}: whole and ranged
+ * object reads, head requests, and single or multipart uploads.
+ */
+final class InMemoryS3Client implements S3Client {
+
+    private static final String RANGE_PREFIX = "bytes=";
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+
+    void putObject(final String bucket, final String key, final byte[] content) {
+        this.objects.put(path(bucket, key), content);
+    }
+
+    byte[] getObject(final String bucket, final String key) {
+        final byte[] content = this.objects.get(path(bucket, key));
+        if (content == null) {
+            throw NoSuchKeyException.builder().message("No object [" + path(bucket, key) + "]").build();
+        }
+        return content;
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        this.objects.clear();
+        this.uploads.clear();
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> getObject(final GetObjectRequest request) {
+        final byte[] content = getObject(request.bucket(), request.key());
+        int start = 0;
+        int end = content.length - 1;
+        if (request.range() != null) {
+            final String[] range = request.range().substring(RANGE_PREFIX.length()).split("-");
+            start = Integer.parseInt(range[0]);
+            end = Math.min(end, Integer.parseInt(range[1]));
+        }
+        final int length = end - start + 1;
+        return new ResponseInputStream<>(GetObjectResponse.builder().contentLength((long)length).build(),
+                AbortableInputStream.create(new ByteArrayInputStream(content, start, length)));
+    }
+
+    @Override
+    public ResponseBytes<GetObjectResponse> getObjectAsBytes(final GetObjectRequest request) {
+        final byte[] content = getObject(request.bucket(), request.key());
+        return ResponseBytes.fromByteArray(GetObjectResponse.builder().contentLength((long)content.length).build(),
+                content);
+    }
+
+    @Override
+    public HeadObjectResponse headObject(final HeadObjectRequest request) {
+        return HeadObjectResponse.builder()
+                .contentLength((long)getObject(request.bucket(), request.key()).length)
+                .build();
+    }
+
+    @Override
+    public PutObjectResponse putObject(final PutObjectRequest request, final RequestBody body) {
+        putObject(request.bucket(), request.key(), readBody(body));
+        return PutObjectResponse.builder().build();
+    }
+
+    @Override
+    public CreateMultipartUploadResponse createMultipartUpload(final CreateMultipartUploadRequest request) {
+        final String uploadId = UUID.randomUUID().toString();
+        this.uploads.put(uploadId, new ConcurrentHashMap<>());
+        return CreateMultipartUploadResponse.builder()
+                .bucket(request.bucket())
+                .key(request.key())
+                .uploadId(uploadId)
+                .build();
+    }
+
+    @Override
+    public UploadPartResponse uploadPart(final UploadPartRequest request, final RequestBody body) {
+        this.uploads.get(request.uploadId()).put(request.partNumber(), readBody(body));
+        return UploadPartResponse.builder().eTag(request.uploadId() + "-" + request.partNumber()).build();
+    }
+
+    @Override
+    public CompleteMultipartUploadResponse completeMultipartUpload(final CompleteMultipartUploadRequest request) {
+        final Map<Integer, byte[]> parts = this.uploads.remove(request.uploadId());
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (CompletedPart part : request.multipartUpload().parts()) {
+            content.writeBytes(parts.get(part.partNumber()));
+        }
+        putObject(request.bucket(), request.key(), content.toByteArray());
+        return CompleteMultipartUploadResponse.builder().bucket(request.bucket()).key(request.key()).build();
+    }
+
+    @Override
+    public AbortMultipartUploadResponse abortMultipartUpload(final AbortMultipartUploadRequest request) {
+        this.uploads.remove(request.uploadId());
+        return AbortMultipartUploadResponse.builder().build();
+    }
+
+    private static String path(final String bucket, final String key) {
+        return bucket + "/" + key;
+    }
+
+    private static byte[] readBody(final RequestBody body) {
+        try (InputStream in = body.contentStreamProvider().newStream()) {
+            return in.readAllBytes();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
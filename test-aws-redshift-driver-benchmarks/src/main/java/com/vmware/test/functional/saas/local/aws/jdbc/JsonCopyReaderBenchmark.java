@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the shredding of a {@code COPY ... FORMAT AS JSON} object into rows by {@link JsonCopyReader},
+ * with the {@code 'auto'} option and with a {@code JSONPaths} file. The object is read from memory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonCopyReaderBenchmark {
+
+    private static final String BUCKET = "bucket";
+    private static final String OBJECT_KEY = "events/events.json";
+    private static final String JSONPATHS_KEY = "events/jsonpaths.json";
+    private static final String JSONPATHS = "{\"jsonpaths\": [\"$.id\", \"$.tenant_id\", \"$.name\", \"$.amount\", "
+            + "\"$.score\", \"$.active\", \"$.created\", \"$['context']['host']\"]}";
+
+    @Param({ "1000" })
+    private int rowCount;
+
+    /**
+     * {@code auto}, {@code auto ignorecase} or {@code jsonpaths}.
+     */
+    @Param({ "auto", "auto ignorecase", "jsonpaths" })
+    private String option;
+
+    private InMemoryS3Client client;
+    private TableMetadata table;
+    private CopyFormatReader reader;
+    private GetObjectRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.client = new InMemoryS3Client();
+        this.client.putObject(BUCKET, OBJECT_KEY, EventsTable.json(this.rowCount));
+        this.client.putObject(BUCKET, JSONPATHS_KEY, JSONPATHS.getBytes(StandardCharsets.UTF_8));
+        this.table = EventsTable.metadata();
+        final String readerOption = "jsonpaths".equals(this.option)
+                ? "s3://" + BUCKET + "/" + JSONPATHS_KEY
+                : this.option;
+        this.reader = new JsonCopyReader(readerOption).resolve(this.client, this.table);
+        this.request = GetObjectRequest.builder().bucket(BUCKET).key(OBJECT_KEY).build();
+    }
+
+    @Benchmark
+    public void read(final Blackhole blackhole) throws IOException {
+        this.reader.read(new S3InputFile(this.client, this.request, false), this.table, blackhole::consume);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import javax.sql.rowset.CachedRowSet;
+
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the encoding of an {@code UNLOAD ... FORMAT AS PARQUET} output file by
+ * {@link ParquetUnloadFileWriter}, including the upload of the file to an in-memory S3 client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ParquetUnloadBenchmark {
+
+    private static final String BUCKET = "bucket";
+    private static final String KEY = "unload/events_0000_part_00.parquet";
+    private static final int PART_SIZE = 8 * 1024 * 1024;
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    @Param({ "10000" })
+    private int rowCount;
+
+    private InMemoryS3Client client;
+    private Schema schema;
+    private List<Object[]> rows;
+
+    @Setup
+    public void setUp() throws SQLException {
+        this.client = new InMemoryS3Client();
+        try (CachedRowSet resultSet = EventsTable.resultSet(this.rowCount)) {
+            this.schema = EventsTable.schema(resultSet.getMetaData());
+            final SqlTransformer.ColumnExtractor[] extractors = SqlTransformer.extractors(resultSet.getMetaData(),
+                    UnloadFormat.PARQUET);
+            this.rows = new ArrayList<>(this.rowCount);
+            while (resultSet.next()) {
+                final Object[] row = new Object[extractors.length];
+                for (int i = 0; i < extractors.length; i++) {
+                    row[i] = extractors[i].extract(resultSet, i + 1);
+                }
+                this.rows.add(row);
+            }
+        }
+    }
+
+    /**
+     * Writes the rows to a new file.
+     *
+     * @return size of the uploaded file.
+     */
+    @Benchmark
+    public int write() throws IOException {
+        try (ParquetUnloadFileWriter writer = new ParquetUnloadFileWriter(new S3OutputFile("s3://" + BUCKET + "/" + KEY,
+                () -> new S3MultipartOutputStream(this.client, BUCKET, KEY, PART_SIZE, 1, DIRECT_EXECUTOR)),
+                this.schema)) {
+            for (Object[] row : this.rows) {
+                writer.write(row);
+            }
+        }
+        return this.client.getObject(BUCKET, KEY).length;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the per-statement overhead of the driver: statements executed through a
+ * {@link TestRedshiftDriver.RedshiftConnection} which wraps a {@link StubJdbc stub connection}, compared to
+ * the same statements executed on the stub connection directly.
+ * <p>
+ * Only the statements which are sent to the database are measured, {@code COPY} and {@code UNLOAD} are
+ * measured by {@link JsonCopyReaderBenchmark} and {@link ParquetUnloadBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RedshiftStatementBenchmark {
+
+    private static final int BATCH_SIZE = 10;
+
+    @Param({ "PASS_THROUGH", "REWRITE" })
+    private ExecutionCommandParserBenchmark.SqlMix mix;
+
+    private String[] statements;
+    private Connection stubConnection;
+    private Connection driverConnection;
+    private Statement stubStatement;
+    private Statement driverStatement;
+
+    @Setup
+    public void setUp() throws SQLException {
+        this.statements = this.mix.getStatements();
+        this.stubConnection = StubJdbc.connection();
+        this.driverConnection = new TestRedshiftDriver.RedshiftConnection(StubJdbc.connection(), new Properties(),
+                new S3ClientRegistry(), new TableMetadataCache());
+        this.stubStatement = this.stubConnection.createStatement();
+        this.driverStatement = this.driverConnection.createStatement();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        this.driverStatement.close();
+        this.driverConnection.close();
+    }
+
+    @Benchmark
+    public void executeBaseline(final Blackhole blackhole) throws SQLException {
+        for (String sql : this.statements) {
+            blackhole.consume(this.stubStatement.execute(sql));
+        }
+    }
+
+    @Benchmark
+    public void execute(final Blackhole blackhole) throws SQLException {
+        for (String sql : this.statements) {
+            blackhole.consume(this.driverStatement.execute(sql));
+        }
+    }
+
+    @Benchmark
+    public void prepareAndExecuteBaseline(final Blackhole blackhole) throws SQLException {
+        prepareAndExecute(this.stubConnection, blackhole);
+    }
+
+    @Benchmark
+    public void prepareAndExecute(final Blackhole blackhole) throws SQLException {
+        prepareAndExecute(this.driverConnection, blackhole);
+    }
+
+    @Benchmark
+    public int[] executeBatchBaseline() throws SQLException {
+        return executeBatch(this.stubStatement);
+    }
+
+    @Benchmark
+    public int[] executeBatch() throws SQLException {
+        return executeBatch(this.driverStatement);
+    }
+
+    private void prepareAndExecute(final Connection connection, final Blackhole blackhole) throws SQLException {
+        for (String sql : this.statements) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                blackhole.consume(preparedStatement.executeUpdate());
+            }
+        }
+    }
+
+    private int[] executeBatch(final Statement statement) throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            statement.addBatch(this.statements[i % this.statements.length]);
+        }
+        return statement.executeBatch();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the translation of Redshift statements by {@link GenericCommand#translate(String)}, which
+ * applies to the statements which are not {@code COPY} or {@code UNLOAD}, and of DDL scripts which are
+ * too long to be cached.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SqlDialectTranslatorBenchmark {
+
+    private static final int SCRIPT_TABLES = 200;
+
+    /**
+     * Statements which match none, one or several of the rules.
+     */
+    @Param({
+            "SELECT e.id, e.name, t.name FROM events e JOIN tenants t ON t.id = e.tenant_id WHERE e.created > ?",
+            "CREATE TABLE events (id BIGINT, payload VARCHAR(MAX))",
+            "CREATE TABLE IF NOT EXISTS events (id BIGINT IDENTITY(1, 1), tenant_id VARCHAR(64) ENCODE zstd, "
+                    + "payload VARCHAR(MAX), created TIMESTAMP DEFAULT GETDATE()) "
+                    + "DISTSTYLE KEY DISTKEY (tenant_id) COMPOUND SORTKEY (created)"
+    })
+    private String sql;
+
+    private SqlDialectTranslator translator;
+    private String script;
+
+    @Setup
+    public void setUp() {
+        this.translator = new SqlDialectTranslator(List.of(RedshiftRewriteRule.values()), 1);
+        final StringBuilder ddl = new StringBuilder();
+        for (int i = 0; i < SCRIPT_TABLES; i++) {
+            ddl.append(this.sql.replace("events", "events_" + i)).append(";\n");
+        }
+        this.script = ddl.toString();
+    }
+
+    /**
+     * Translates a statement, which is cached after the first translation.
+     */
+    @Benchmark
+    public Optional<GenericCommand> translate() {
+        return GenericCommand.translate(this.sql);
+    }
+
+    /**
+     * Translates a script of {@value #SCRIPT_TABLES} statements, which is not cached.
+     */
+    @Benchmark
+    public String translateScript() {
+        return this.translator.translate(this.script);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import javax.sql.rowset.CachedRowSet;
+
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link SqlTransformer} conversions of {@code UNLOAD}: the Avro schema of the result set
+ * and the extraction of the column values of each row, from an in-memory result set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SqlTransformerBenchmark {
+
+    @Param({ "1000" })
+    private int rowCount;
+
+    /**
+     * {@link UnloadFormat}, which determines the extractors.
+     */
+    @Param({ "PARQUET", "JSON", "CSV" })
+    private String format;
+
+    private CachedRowSet resultSet;
+    private ResultSetMetaData metaData;
+    private UnloadFormat unloadFormat;
+
+    @Setup
+    public void setUp() throws SQLException {
+        this.resultSet = EventsTable.resultSet(this.rowCount);
+        this.metaData = this.resultSet.getMetaData();
+        this.unloadFormat = UnloadFormat.valueOf(this.format);
+    }
+
+    @Benchmark
+    public Schema extractSchema() throws SQLException {
+        return EventsTable.schema(this.metaData);
+    }
+
+    /**
+     * Creates the extractors of the result set and extracts all rows, as an {@code UNLOAD} slice does.
+     */
+    @Benchmark
+    public void extractRows(final Blackhole blackhole) throws SQLException {
+        this.resultSet.beforeFirst();
+        final SqlTransformer.ColumnExtractor[] extractors = SqlTransformer.extractors(this.metaData,
+                this.unloadFormat);
+        while (this.resultSet.next()) {
+            for (int i = 0; i < extractors.length; i++) {
+                blackhole.consume(extractors[i].extract(this.resultSet, i + 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Stub JDBC objects that do no work, so that a benchmark of a driver call measures the overhead of the
+ * driver. Statements execute successfully without results: {@code execute} returns {@code false}, update
+ * counts are {@code 0} and batches return an update count of {@code 0} per statement.
+ * <p>
+ * The stubs are dynamic proxies; the same stubs are called directly by the baseline benchmarks, so the
+ * cost of the proxies is not attributed to the driver.
+ */
+final class StubJdbc {
+
+    private StubJdbc() {
+    }
+
+    static Connection connection() {
+        return (Connection)Proxy.newProxyInstance(StubJdbc.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "createStatement":
+                        return statement(Statement.class);
+                    case "prepareStatement":
+                        return statement(PreparedStatement.class);
+                    default:
+                        return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    private static <T extends Statement> T statement(final Class<T> type) {
+        final int[] batchSize = new int[1];
+        return type.cast(Proxy.newProxyInstance(StubJdbc.class.getClassLoader(),
+                new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "addBatch":
+                        batchSize[0]++;
+                        return null;
+                    case "clearBatch":
+                        batchSize[0] = 0;
+                        return null;
+                    case "executeBatch":
+                        final int[] updateCounts = new int[batchSize[0]];
+                        batchSize[0] = 0;
+                        return updateCounts;
+                    case "getUpdateCount":
+                        return -1;
+                    default:
+                        return defaultValue(method.getReturnType());
+                    }
+                }));
+    }
+
+    private static Object defaultValue(final Class<?> type) {
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
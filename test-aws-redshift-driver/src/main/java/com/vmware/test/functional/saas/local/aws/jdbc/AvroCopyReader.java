@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+
+import lombok.EqualsAndHashCode;
+
+/**
+ * Reads {@code COPY} objects in {@code AVRO 'auto'} format: Avro object container files whose fields are
+ * mapped to the columns of the same name. The file is read as a stream and the same record instance is
+ * reused for all rows.
+ */
+@EqualsAndHashCode
+class AvroCopyReader implements CopyFormatReader {
+
+    @Override
+    public void read(final S3InputFile file, final TableMetadata table,
+            final CopyObjectPipeline.RowConsumer rowConsumer) throws IOException {
+        try (DataFileStream<GenericRecord> records = new DataFileStream<>(file.openStream(),
+                new GenericDatumReader<>())) {
+            final AvroRowMapper mapper = AvroRowMapper.of(records.getSchema(), table);
+            GenericRecord record = null;
+            while (records.hasNext()) {
+                record = records.next(record);
+                rowConsumer.accept(mapper.toRow(record));
+            }
+        }
+    }
+}
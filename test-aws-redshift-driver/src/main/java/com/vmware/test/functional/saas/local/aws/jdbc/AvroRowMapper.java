@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+
+/**
+ * Maps the fields of Avro records to the columns of the same name of the {@code COPY} target table.
+ * The mapping is resolved once per object schema, fields without a column are not read.
+ */
+final class AvroRowMapper {
+
+    private final int columnCount;
+    private final int[] fieldPositions;
+    private final int[] columnIndexes;
+    private final AvroValueConverter[] converters;
+
+    private AvroRowMapper(final int columnCount, final int[] fieldPositions, final int[] columnIndexes,
+            final AvroValueConverter[] converters) {
+        this.columnCount = columnCount;
+        this.fieldPositions = fieldPositions;
+        this.columnIndexes = columnIndexes;
+        this.converters = converters;
+    }
+
+    /**
+     * @param recordSchema schema of the records.
+     * @param table target table.
+     * @return {@link AvroRowMapper}.
+     */
+    static AvroRowMapper of(final Schema recordSchema, final TableMetadata table) {
+        final List<Schema.Field> mapped = new ArrayList<>();
+        final List<Integer> columns = new ArrayList<>();
+        for (Schema.Field field : recordSchema.getFields()) {
+            final int index = columnIndex(table, field.name());
+            if (index >= 0) {
+                mapped.add(field);
+                columns.add(index);
+            }
+        }
+        final int[] fieldPositions = new int[mapped.size()];
+        final int[] columnIndexes = new int[mapped.size()];
+        final AvroValueConverter[] converters = new AvroValueConverter[mapped.size()];
+        for (int i = 0; i < fieldPositions.length; i++) {
+            fieldPositions[i] = mapped.get(i).pos();
+            columnIndexes[i] = columns.get(i);
+            converters[i] = AvroValueConverter.forField(mapped.get(i).schema(), table.getColumnTypes()[columnIndexes[i]]);
+        }
+        return new AvroRowMapper(table.getColumnCount(), fieldPositions, columnIndexes, converters);
+    }
+
+    /**
+     * @param table target table.
+     * @param fieldName field name.
+     * @return index of the column of the field, or {@code -1} if the table does not have such column.
+     */
+    static int columnIndex(final TableMetadata table, final String fieldName) {
+        final int index = table.indexOf(fieldName);
+        // unquoted identifiers are folded to lower case
+        return index >= 0 ? index : table.indexOf(fieldName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Converts a record to a row. The record may be reused once this method returns.
+     *
+     * @param record record.
+     * @return column values.
+     */
+    Object[] toRow(final GenericRecord record) {
+        final Object[] row = new Object[this.columnCount];
+        for (int i = 0; i < this.fieldPositions.length; i++) {
+            row[this.columnIndexes[i]] = AvroValueConverter.convertNullable(this.converters[i],
+                    record.get(this.fieldPositions[i]));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericFixed;
+
+/**
+ * Converts the values of an Avro field, as read from Avro or Parquet {@code COPY} objects, to values that
+ * the {@link CopyRowWriter row writers} can load into the target column. The converter is chosen once per
+ * field from its schema and the type of the column.
+ * <p>
+ * Strings are converted to {@link String}, bytes to {@code byte[]}, Avro date, time and timestamp logical
+ * types to their {@code java.sql} types and decimals to {@link java.math.BigDecimal}. Plain {@code long}
+ * values of date, time and timestamp columns are taken as epoch milliseconds, as written by {@code UNLOAD}.
+ * Records, arrays and maps are loaded as their JSON representation.
+ */
+@FunctionalInterface
+interface AvroValueConverter {
+
+    /**
+     * @param value non-null field value.
+     * @return column value.
+     */
+    Object convert(Object value);
+
+    /**
+     * Converts a nullable value.
+     *
+     * @param converter converter of non-null values.
+     * @param value field value.
+     * @return column value.
+     */
+    static Object convertNullable(final AvroValueConverter converter, final Object value) {
+        return value == null ? null : converter.convert(value);
+    }
+
+    /**
+     * Creates the converter of a field.
+     *
+     * @param fieldSchema schema of the field, optional fields are unions with {@code null}.
+     * @param sqlType JDBC type of the target column, see {@link Types}.
+     * @return {@link AvroValueConverter}.
+     */
+    // cyclomatic complexity
+    // CHECKSTYLE:OFF
+    static AvroValueConverter forField(final Schema fieldSchema, final int sqlType) {
+        final Schema schema = nonNullType(fieldSchema);
+        final LogicalType logicalType = schema.getLogicalType();
+        if (logicalType instanceof LogicalTypes.Decimal) {
+            final Conversions.DecimalConversion conversion = new Conversions.DecimalConversion();
+            return schema.getType() == Schema.Type.FIXED
+                    ? v -> conversion.fromFixed((GenericFixed)v, schema, logicalType)
+                    : v -> conversion.fromBytes(((ByteBuffer)v).duplicate(), schema, logicalType);
+        }
+        if (logicalType instanceof LogicalTypes.Date) {
+            return v -> Date.valueOf(LocalDate.ofEpochDay(((Number)v).longValue()));
+        }
+        if (logicalType instanceof LogicalTypes.TimeMillis) {
+            return v -> new Time(((Number)v).longValue());
+        }
+        if (logicalType instanceof LogicalTypes.TimeMicros) {
+            return v -> new Time(TimeUnit.MICROSECONDS.toMillis(((Number)v).longValue()));
+        }
+        if (logicalType instanceof LogicalTypes.TimestampMillis) {
+            return v -> new Timestamp(((Number)v).longValue());
+        }
+        if (logicalType instanceof LogicalTypes.TimestampMicros) {
+            return v -> {
+                final long micros = ((Number)v).longValue();
+                final Timestamp timestamp = new Timestamp(Math.floorDiv(micros, 1000L));
+                timestamp.setNanos((int)Math.floorMod(micros, 1_000_000L) * 1000);
+                return timestamp;
+            };
+        }
+        switch (schema.getType()) {
+        case STRING:
+        case ENUM:
+            return Object::toString;
+        case BYTES:
+            return v -> {
+                final ByteBuffer buffer = ((ByteBuffer)v).duplicate();
+                final byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                return bytes;
+            };
+        case FIXED:
+            return v -> ((GenericFixed)v).bytes().clone();
+        case INT:
+        case LONG:
+            return epochMillisConverter(sqlType);
+        case RECORD:
+        case ARRAY:
+        case MAP:
+        case UNION:
+            return v -> GenericData.get().toString(v);
+        default:
+            // booleans, floats and doubles
+            return v -> v;
+        }
+    }
+    // CHECKSTYLE:ON
+
+    private static AvroValueConverter epochMillisConverter(final int sqlType) {
+        switch (sqlType) {
+        case Types.DATE:
+            return v -> new Date(((Number)v).longValue());
+        case Types.TIME:
+        case Types.TIME_WITH_TIMEZONE:
+            return v -> new Time(((Number)v).longValue());
+        case Types.TIMESTAMP:
+        case Types.TIMESTAMP_WITH_TIMEZONE:
+            return v -> new Timestamp(((Number)v).longValue());
+        default:
+            return v -> v;
+        }
+    }
+
+    private static Schema nonNullType(final Schema schema) {
+        if (schema.getType() != Schema.Type.UNION) {
+            return schema;
+        }
+        Schema nonNull = null;
+        for (Schema type : schema.getTypes()) {
+            if (type.getType() != Schema.Type.NULL) {
+                if (nonNull != null) {
+                    // a union of several types
+                    return schema;
+                }
+                nonNull = type;
+            }
+        }
+        return nonNull == null ? schema : nonNull;
+    }
+}
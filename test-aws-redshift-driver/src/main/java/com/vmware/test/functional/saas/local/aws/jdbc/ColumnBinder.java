@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Locale;
+
+/**
+ * Binds a column value to a {@link PreparedStatement} parameter with a setter specific for the JDBC type
+ * of the column, so that the JDBC driver does not have to infer the parameter type from the value.
+ */
+@FunctionalInterface
+interface ColumnBinder {
+
+    /**
+     * SQL states of the errors of the server.
+     */
+    String INVALID_TEXT_REPRESENTATION = "22P02";
+    String NUMERIC_VALUE_OUT_OF_RANGE = "22003";
+
+    /**
+     * Binds a non-null value.
+     *
+     * @param preparedStatement statement.
+     * @param parameterIndex parameter index, starting from 1.
+     * @param value value.
+     * @throws SQLException on binding failure.
+     */
+    void bindValue(PreparedStatement preparedStatement, int parameterIndex, Object value) throws SQLException;
+
+    /**
+     * Creates a binder for a column of the given JDBC type.
+     *
+     * @param sqlType JDBC type, see {@link Types}.
+     * @return {@link ColumnBinder}.
+     */
+    // cyclomatic complexity
+    // CHECKSTYLE:OFF
+    static ColumnBinder forType(final int sqlType) {
+        final ColumnBinder binder;
+        switch (sqlType) {
+        case Types.BIT:
+        case Types.BOOLEAN:
+            binder = (ps, i, v) -> ps.setBoolean(i, toBoolean(v));
+            break;
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+            binder = (ps, i, v) -> ps.setInt(i, toInt(v));
+            break;
+        case Types.BIGINT:
+            binder = (ps, i, v) -> ps.setLong(i, toLong(v));
+            break;
+        case Types.REAL:
+            binder = (ps, i, v) -> ps.setFloat(i, v instanceof Number ? ((Number)v).floatValue() : Float.parseFloat(v.toString()));
+            break;
+        case Types.FLOAT:
+        case Types.DOUBLE:
+            binder = (ps, i, v) -> ps.setDouble(i, v instanceof Number ? ((Number)v).doubleValue() : Double.parseDouble(v.toString()));
+            break;
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+            binder = (ps, i, v) -> ps.setBigDecimal(i, v instanceof BigDecimal ? (BigDecimal)v : new BigDecimal(v.toString()));
+            break;
+        case Types.CHAR:
+        case Types.VARCHAR:
+        case Types.LONGVARCHAR:
+        case Types.NCHAR:
+        case Types.NVARCHAR:
+        case Types.LONGNVARCHAR:
+            binder = (ps, i, v) -> ps.setString(i, v.toString());
+            break;
+        case Types.BINARY:
+        case Types.VARBINARY:
+        case Types.LONGVARBINARY:
+            binder = (ps, i, v) -> {
+                if (v instanceof byte[]) {
+                    ps.setBytes(i, (byte[])v);
+                } else {
+                    ps.setObject(i, v, sqlType);
+                }
+            };
+            break;
+        default:
+            // dates, times, json, uuid etc. are converted by the driver from their textual representation
+            binder = (ps, i, v) -> ps.setObject(i, v instanceof CharSequence || v instanceof Number || v instanceof Boolean
+                    ? v.toString()
+                    : v, sqlType);
+        }
+        return (ps, i, v) -> {
+            if (v == null) {
+                ps.setNull(i, sqlType);
+            } else {
+                binder.bindValue(ps, i, v);
+            }
+        };
+    }
+    // CHECKSTYLE:ON
+
+    /**
+     * Converts a value the way the server parses a boolean: {@code t}, {@code true}, {@code y}, {@code yes},
+     * {@code on} and {@code 1}, or {@code f}, {@code false}, {@code n}, {@code no}, {@code off} and {@code 0},
+     * ignoring case and surrounding blanks.
+     */
+    private static boolean toBoolean(final Object value) throws SQLException {
+        if (value instanceof Boolean) {
+            return (Boolean)value;
+        }
+        switch (value.toString().trim().toLowerCase(Locale.ROOT)) {
+        case "t":
+        case "true":
+        case "y":
+        case "yes":
+        case "on":
+        case "1":
+            return true;
+        case "f":
+        case "false":
+        case "n":
+        case "no":
+        case "off":
+        case "0":
+            return false;
+        default:
+            throw new SQLException("invalid input syntax for type boolean: \"" + value + "\"",
+                    INVALID_TEXT_REPRESENTATION);
+        }
+    }
+
+    /**
+     * Converts a value without dropping its fractional part or wrapping it around, so that such a value is
+     * rejected as it was when the server converted it.
+     */
+    private static int toInt(final Object value) throws SQLException {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number)value).intValue();
+        }
+        try {
+            return value instanceof Number
+                    ? toBigDecimal((Number)value).intValueExact()
+                    : Integer.parseInt(value.toString());
+        } catch (final ArithmeticException e) {
+            throw new SQLException("value \"" + value + "\" is not a whole number within the range of type integer",
+                    NUMERIC_VALUE_OUT_OF_RANGE, e);
+        }
+    }
+
+    private static long toLong(final Object value) throws SQLException {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number)value).longValue();
+        }
+        try {
+            return value instanceof Number
+                    ? toBigDecimal((Number)value).longValueExact()
+                    : Long.parseLong(value.toString());
+        } catch (final ArithmeticException e) {
+            throw new SQLException("value \"" + value + "\" is not a whole number within the range of type bigint",
+                    NUMERIC_VALUE_OUT_OF_RANGE, e);
+        }
+    }
+
+    private static BigDecimal toBigDecimal(final Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal)value;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger)value);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(value.doubleValue());
+        }
+        return BigDecimal.valueOf(value.longValue());
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Options of the {@code COPY} and {@code UNLOAD} commands. The keywords are matched on the options with the
+ * content of the quoted literals blanked out, so that e.g. {@code IAM_ROLE 'arn:aws:iam::1:role/json-loader'}
+ * is not taken for the {@code JSON} format. The values of the options are read from the original options.
+ */
+final class CommandOptions {
+
+    private static final Pattern LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private CommandOptions() {
+    }
+
+    /**
+     * Replaces the content of the quoted literals with blanks, so the positions in the options are kept.
+     *
+     * @param options options of the command.
+     * @return the options to match the keywords on.
+     */
+    static String blankLiterals(final String options) {
+        final StringBuilder keywords = new StringBuilder(options);
+        final Matcher matcher = LITERAL.matcher(options);
+        while (matcher.find()) {
+            for (int i = matcher.start() + 1; i < matcher.end() - 1; i++) {
+                keywords.setCharAt(i, ' ');
+            }
+        }
+        return keywords.toString();
+    }
+
+    /**
+     * Reads the literal which follows the first match of the option in the keywords.
+     *
+     * @param option pattern of the option, which ends where its literal starts.
+     * @param options options of the command.
+     * @param keywords options with blanked literals, see {@link #blankLiterals(String)}.
+     * @return content of the literal, without its quotes.
+     */
+    static Optional<String> literalAfter(final Pattern option, final String options, final String keywords) {
+        final Matcher matcher = option.matcher(keywords);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        final Matcher literal = LITERAL.matcher(options).region(matcher.end(), options.length());
+        return literal.lookingAt()
+                ? Optional.of(options.substring(literal.start() + 1, literal.end() - 1))
+                : Optional.empty();
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+/**
+ * Type of the statements reported to a {@link StatementMetricsListener}.
+ */
+public enum CommandType {
+    /**
+     * {@code COPY} command emulated by the driver.
+     */
+    COPY,
+    /**
+     * {@code UNLOAD} command emulated by the driver.
+     */
+    UNLOAD,
+    /**
+     * Statement rewritten by the driver, or replaced by the configured query map.
+     */
+    GENERIC,
+    /**
+     * Statement sent to PostgreSQL as it is.
+     */
+    PASSTHROUGH
+}
@@ -5,48 +5,39 @@
 
 package com.vmware.test.functional.saas.local.aws.jdbc;
 
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.sync.ResponseTransformer;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.io.SequenceInputStream;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.zip.GZIPInputStream;
 
-import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.SneakyThrows;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Implements {@code COPY} commands.
+ * The objects are read in delimited text (the default), {@code CSV}, {@code JSON 'auto'}, {@code AVRO 'auto'}
+ * or {@code PARQUET} format by the {@link CopyFormatReader} chosen when the command is parsed.
  */
 @Data
 @AllArgsConstructor
@@ -55,21 +46,36 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 class CopyCommand implements ExecutionCommand<Boolean> {
 
-    private static final String GET_COLUMNS_QUERY_COLUMN_LABEL = "COLUMN_NAME";
-    private static final String JSON_FORMAT_OPTION_AUTO = "auto";
     private static final String INSERT_INTO_FORMAT = "INSERT INTO %s (%s) VALUES (%s)";
 
     private static Pattern pattern = Pattern.compile("COPY\\s+(?<tableName>.+?)\\s+FROM\\s+'(?<datasource>.+?)'(?<options>.*)", Pattern.CASE_INSENSITIVE);
-    private static Pattern patternOptionsFormat = Pattern.compile("(.+?)JSON\\s+(AS\\s)?'(?<jsonOption>.+?)'", Pattern.CASE_INSENSITIVE);
-    private static Pattern patternOptionsCompression = Pattern.compile("(.+?)(?<compression>GZIP)", Pattern.CASE_INSENSITIVE);
-    private static Pattern patternOptionsManifest = Pattern.compile("(.+?)(?<manifest>MANIFEST)", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsFormat = Pattern.compile(
+            "\\b(FORMAT\\s+(AS\\s+)?)?(?<format>JSON|CSV|AVRO|PARQUET)\\b", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsJson = Pattern.compile(
+            "\\bJSON\\s+(AS\\s+)?(?=')", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsDelimiter = Pattern.compile(
+            "\\bDELIMITER\\s+(AS\\s+)?(?=')", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsQuote = Pattern.compile(
+            "\\bQUOTE\\s+(AS\\s+)?(?=')", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsNullAs = Pattern.compile(
+            "\\bNULL\\s+(AS\\s+)?(?=')", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsIgnoreHeader = Pattern.compile(
+            "\\bIGNOREHEADER\\s+(AS\\s+)?(?<ignoreHeader>\\d+)", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsEmptyAsNull = Pattern.compile("\\bEMPTYASNULL\\b", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsBlanksAsNull = Pattern.compile("\\bBLANKSASNULL\\b", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsCompression = Pattern.compile("\\bGZIP\\b", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsManifest = Pattern.compile("\\bMANIFEST\\b", Pattern.CASE_INSENSITIVE);
 
     private final ExecutionCommandParser.ExecutionCommandContext context;
     private final String tableName;
     private final String dataSource;
-    private final boolean jsonFormatRequired;
+    private final CopyFormatReader formatReader;
     private final boolean gzipCompressionRequired;
     private final boolean manifestRequired;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final TransferCounters transferCounters = new TransferCounters();
 
     static Optional<CopyCommand> parse(final String sql, final ExecutionCommandParser.ExecutionCommandContext context) {
         final Matcher matcher = pattern.matcher(sql);
@@ -77,20 +83,92 @@ class CopyCommand implements ExecutionCommand<Boolean> {
             return Optional.empty();
         }
         final String options = matcher.group("options");
+        // the keywords are only matched outside of literals such as IAM_ROLE 'arn:aws:iam::1:role/csv-loader'
+        final String keywords = CommandOptions.blankLiterals(options);
 
         final String tableName = matcher.group("tableName");
         final String dataSource = matcher.group("datasource");
+        final CopyFormatReader formatReader = parseFormatReader(options, keywords);
+        final boolean gzipCompressionRequired = patternOptionsCompression.matcher(keywords).find();
+        if (formatReader instanceof ParquetCopyReader && gzipCompressionRequired) {
+            throw new IllegalArgumentException("COPY from PARQUET files does not support GZIP compression");
+        }
 
         return Optional.of(new CopyCommand(
                 context,
                 tableName,
                 dataSource,
-                patternOptionsFormat.matcher(options).find(),
-                patternOptionsCompression.matcher(options).find(),
-                patternOptionsManifest.matcher(options).find()
+                formatReader,
+                gzipCompressionRequired,
+                patternOptionsManifest.matcher(keywords).find()
         ));
     }
 
+    private static CopyFormatReader parseFormatReader(final String options, final String keywords) {
+        final Matcher matcher = patternOptionsFormat.matcher(keywords);
+        final String format = matcher.find() ? matcher.group("format").toUpperCase(Locale.ROOT) : "";
+        switch (format) {
+        case "JSON":
+            return new JsonCopyReader(parseJsonOption(options, keywords));
+        case "AVRO":
+            return new AvroCopyReader();
+        case "PARQUET":
+            return new ParquetCopyReader();
+        default:
+            final boolean csv = "CSV".equals(format);
+            return new DelimitedCopyReader(
+                    csv,
+                    parseDelimiter(options, keywords, csv ? ',' : '|'),
+                    parseQuote(options, keywords),
+                    CommandOptions.literalAfter(patternOptionsNullAs, options, keywords).orElse("\\N"),
+                    parseIgnoreHeader(keywords),
+                    patternOptionsEmptyAsNull.matcher(keywords).find(),
+                    patternOptionsBlanksAsNull.matcher(keywords).find());
+        }
+    }
+
+    private static String parseJsonOption(final String options, final String keywords) {
+        final String jsonOption = CommandOptions.literalAfter(patternOptionsJson, options, keywords)
+                .filter(option -> !option.isEmpty())
+                .orElse(JsonCopyReader.AUTO);
+        if (JsonCopyReader.AUTO.equalsIgnoreCase(jsonOption)) {
+            return JsonCopyReader.AUTO;
+        }
+        if (JsonCopyReader.AUTO_IGNORECASE.equalsIgnoreCase(jsonOption.replaceAll("\\s+", " "))) {
+            return JsonCopyReader.AUTO_IGNORECASE;
+        }
+        // JSONPaths file
+        return jsonOption;
+    }
+
+    private static char parseDelimiter(final String options, final String keywords, final char defaultDelimiter) {
+        final String delimiter = CommandOptions.literalAfter(patternOptionsDelimiter, options, keywords).orElse(null);
+        if (delimiter == null) {
+            return defaultDelimiter;
+        }
+        if ("\\t".equals(delimiter)) {
+            return '\t';
+        }
+        if (delimiter.length() != 1) {
+            throw new IllegalArgumentException("COPY delimiter should be a single character: [" + delimiter + "]");
+        }
+        return delimiter.charAt(0);
+    }
+
+    private static char parseQuote(final String options, final String keywords) {
+        final String quote = CommandOptions.literalAfter(patternOptionsQuote, options, keywords).orElse("\"");
+        if (quote.isEmpty() || quote.length() > 1 && !"''".equals(quote)) {
+            throw new IllegalArgumentException("COPY quote should be a single character: [" + quote + "]");
+        }
+        // a quote character that is a single quote is doubled in the SQL literal
+        return quote.charAt(0);
+    }
+
+    private static int parseIgnoreHeader(final String keywords) {
+        final Matcher matcher = patternOptionsIgnoreHeader.matcher(keywords);
+        return matcher.find() ? Integer.parseInt(matcher.group("ignoreHeader")) : 0;
+    }
+
     @Override
     public PreparedStatement prepareStatement(final Connection connection) {
         throw new UnsupportedOperationException();
@@ -101,83 +179,86 @@ class CopyCommand implements ExecutionCommand<Boolean> {
         throw new UnsupportedOperationException();
     }
 
-    @SneakyThrows
     @Override
     public Boolean execute(final Statement statementUnused) {
-        final List<String> columns = new LinkedList<>();
-        try (ResultSet rs = this.context.getConnection().getMetaData().getColumns(null, null, this.tableName, "%")) {
-            while (rs.next()) {
-                columns.add(rs.getString(GET_COLUMNS_QUERY_COLUMN_LABEL));
-            }
-        }
-        final PreparedStatement insertTestDataPrepStmt = this.context.getConnection().prepareStatement(String.format(
-                INSERT_INTO_FORMAT,
-                this.tableName,
-                String.join(",", columns),
-                columns.stream()
-                        .map(v -> "?")
-                        .collect(Collectors.joining(","))));
-        try (insertTestDataPrepStmt) {
-            // S3 data binding
-            final S3Client client = S3Client.builder().credentialsProvider(
-                    StaticCredentialsProvider.create(AwsBasicCredentials
-                            .create(this.context.getDefaultAwsAccessKey(), this.context.getDefaultAwsSecretAccessKey())))
-                    .endpointOverride(URI.create(this.context.getS3EndpointUrl()))
-                    .region(Region.of(this.context.getDefaultRegion()))
-                    .build();
-            if (this.manifestRequired) {
-                final String manifestStr = client.getObjectAsBytes(buildGetS3ManifestRequest()).asUtf8String();
-                final ObjectMapper mapper = new ObjectMapper();
-                final Manifest manifest = mapper.readValue(manifestStr, new TypeReference<Manifest>() { });
-                manifest.getEntries().stream()
-                        .map(ManifestEntry::getUrl)
-                        .map(URI::create)
-                        .map(this::buildGetS3ManifestEntryRequest)
-                        .map(request -> getS3ObjectInputStream(client, request))
-                        .forEach(is -> bindDataValuesToColumns(insertTestDataPrepStmt, columns, is));
-            } else {
-                final URI dataSourceUri = URI.create(this.dataSource);
-                final InputStream objectIs = new SequenceInputStream(Collections.enumeration(
-                        buildGetS3ObjectRequestsByPrefix(client, dataSourceUri.getHost(), getS3FileNamePart(dataSourceUri))
-                                .stream()
-                                .map(request -> getS3ObjectInputStream(client, request))
-                                .collect(Collectors.toList())));
-                bindDataValuesToColumns(insertTestDataPrepStmt, columns, objectIs);
-            }
-            insertTestDataPrepStmt.executeBatch();
-        }
+        load();
         return false;
     }
 
+    @Override
+    public int executeUpdate(final Statement statementUnused) {
+        return (int)Math.min(load(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Loads the objects into the table.
+     *
+     * @return number of rows loaded.
+     */
     @SneakyThrows
-    private void bindDataValuesToColumns(final PreparedStatement insertTestDataPrepStmt, final List<String> columns, final InputStream dataValuesInputStream) {
-        if (this.jsonFormatRequired) {
+    private long load() {
+        this.transferCounters.reset();
+        final TableMetadata table = this.context.getTableMetadataCache()
+                .getTable(this.context.getConnection(), this.tableName);
+        // S3 data binding
+        final S3Client client = this.context.getS3Client();
+        final List<GetObjectRequest> objectRequests;
+        if (this.manifestRequired) {
+            final String manifestStr = client.getObjectAsBytes(buildGetS3ManifestRequest()).asUtf8String();
             final ObjectMapper mapper = new ObjectMapper();
-            try (Reader src = new InputStreamReader(dataValuesInputStream, StandardCharsets.UTF_8);
-                    JsonParser parser = mapper.createParser(src)) {
-                final MappingIterator<Map<String, Object>> rows = mapper
-                        .readValues(parser, new TypeReference<Map<String, Object>>() { });
-                while (rows.hasNext()) {
-                    final Map<String, Object> row = rows.nextValue();
-                    // shred the json attributes to columns
-                    IntStream.range(0, columns.size())
-                            .forEach(i -> shredJsonAttributesToColumns(
-                                    insertTestDataPrepStmt, i + 1, columns.get(i), row));
-                    insertTestDataPrepStmt.addBatch();
-                }
-            }
+            final Manifest manifest = mapper.readValue(manifestStr, new TypeReference<Manifest>() { });
+            objectRequests = manifest.getEntries().stream()
+                    .map(ManifestEntry::getUrl)
+                    .map(URI::create)
+                    .map(this::buildGetS3ManifestEntryRequest)
+                    .collect(Collectors.toList());
         } else {
-            throw new UnsupportedOperationException("only queries that define explicitly json format are supported");
+            final URI dataSourceUri = URI.create(this.dataSource);
+            objectRequests = buildGetS3ObjectRequestsByPrefix(client, dataSourceUri.getHost(), getS3FileNamePart(dataSourceUri));
+        }
+        final CopyFormatReader objectReader = this.formatReader.resolve(client, table);
+        try (CopyRowWriter rowWriter = createRowWriter(table);
+                CopyObjectPipeline pipeline = new CopyObjectPipeline(this.context.getCopyFetchParallelism())) {
+            pipeline.run(objectRequests,
+                    (request, rowConsumer) -> objectReader.read(
+                            new S3InputFile(client, request, this.gzipCompressionRequired, this.transferCounters),
+                            table, rowConsumer),
+                    rowWriter);
+            rowWriter.finish();
+            log.info("COPY into [{}] loaded [{}] rows ([{}] bytes) from [{}] objects",
+                    this.tableName, rowWriter.getRowsLoaded(), rowWriter.getBytesLoaded(), objectRequests.size());
+            this.transferCounters.addRowsRead(rowWriter.getRowsLoaded());
+            this.transferCounters.addRowsWritten(rowWriter.getRowsLoaded());
+            return rowWriter.getRowsLoaded();
         }
     }
 
-    @SneakyThrows
-    private void shredJsonAttributesToColumns(
-            final PreparedStatement copyRowPrepStmt,
-            final int columnIndex,
-            final String columnName,
-            final Map<String, Object> row) {
-        copyRowPrepStmt.setObject(columnIndex, row.get(columnName));
+    @Override
+    public CommandType getCommandType() {
+        return CommandType.COPY;
+    }
+
+    @Override
+    public void recordTransfers(final StatementMetrics.StatementMetricsBuilder metrics) {
+        this.transferCounters.copyTo(metrics);
+    }
+
+    private CopyRowWriter createRowWriter(final TableMetadata table) throws SQLException {
+        final Connection connection = this.context.getConnection();
+        final List<String> columns = table.getColumnNames();
+        if (this.context.getCopyLoadMode() == CopyLoadMode.COPY) {
+            return new CopyManagerRowWriter(connection, this.tableName, columns,
+                    this.context.getCopyBatchMaxRows(), this.context.getCopyBatchMaxBytes());
+        }
+        final PreparedStatement insertTestDataPrepStmt = connection.prepareStatement(String.format(
+                INSERT_INTO_FORMAT,
+                this.tableName,
+                String.join(",", columns),
+                columns.stream()
+                        .map(v -> "?")
+                        .collect(Collectors.joining(","))));
+        return new InsertBatchRowWriter(insertTestDataPrepStmt, table.getColumnBinders(),
+                this.context.getCopyBatchMaxRows(), this.context.getCopyBatchMaxBytes());
     }
 
     private GetObjectRequest buildGetS3ManifestRequest() {
@@ -212,15 +293,6 @@ class CopyCommand implements ExecutionCommand<Boolean> {
                 .collect(Collectors.toList());
     }
 
-    @SneakyThrows
-    private InputStream getS3ObjectInputStream(final S3Client client, final GetObjectRequest request) {
-        InputStream objectIs = client.getObject(request, ResponseTransformer.toInputStream());
-        if (this.gzipCompressionRequired) {
-            objectIs = new GZIPInputStream(objectIs);
-        }
-        return objectIs;
-    }
-
     private String getS3FileNamePart(final URI uri) {
         // remove leading slash
         return uri.getPath().substring(1);
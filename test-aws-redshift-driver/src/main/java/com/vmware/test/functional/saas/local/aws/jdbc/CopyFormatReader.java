@@ -0,0 +1,41 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.IOException;
+
+/**
+ * Parses the objects of a {@code COPY} command in one of the supported data formats into rows of the target table.
+ * The readers are created when the command is parsed and they are shared by the threads which read the objects,
+ * so they should not keep any state between the objects.
+ */
+@FunctionalInterface
+interface CopyFormatReader {
+
+    /**
+     * Reads all rows of an object.
+     *
+     * @param file object to read.
+     * @param table target table, the values of each row are ordered like its columns.
+     * @param rowConsumer accepts the rows, a new array is passed for every row.
+     * @throws IOException if the object could not be read or parsed.
+     */
+    void read(S3InputFile file, TableMetadata table, CopyObjectPipeline.RowConsumer rowConsumer) throws IOException;
+
+    /**
+     * Loads any auxiliary files of the format, like a {@code JSONPaths} file, before the objects are read.
+     *
+     * @param client S3 client.
+     * @param table target table.
+     * @return reader of the objects.
+     * @throws IOException if an auxiliary file could not be read.
+     */
+    default CopyFormatReader resolve(final S3Client client, final TableMetadata table) throws IOException {
+        return this;
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+/**
+ * Defines how the rows of a {@code COPY} command are loaded into the target table.
+ */
+enum CopyLoadMode {
+
+    /**
+     * Batched {@code INSERT} statements, see {@link InsertBatchRowWriter}.
+     */
+    INSERT,
+
+    /**
+     * PostgreSQL {@code COPY FROM STDIN} protocol, see {@link CopyManagerRowWriter}.
+     */
+    COPY
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes {@code COPY} rows to the PostgreSQL {@code COPY ... FROM STDIN} protocol using the
+ * {@link org.postgresql.copy.CopyManager} of the wrapped connection.
+ * Rows are encoded in the PostgreSQL text format and sent to the server every time the
+ * configured number of rows or bytes is buffered, so the whole load costs a single statement
+ * and the values are converted to the column types by the server.
+ */
+@Slf4j
+class CopyManagerRowWriter implements CopyRowWriter {
+
+    private static final String COPY_FROM_STDIN_FORMAT = "COPY %s (%s) FROM STDIN";
+    private static final String NULL_VALUE = "\\N";
+    private static final char COLUMN_DELIMITER = '\t';
+    private static final char ROW_DELIMITER = '\n';
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final CopyIn copyIn;
+    private final int maxBatchRows;
+    private final long maxBatchBytes;
+    private final CopyBuffer buffer = new CopyBuffer();
+    private final StringBuilder rowBuilder = new StringBuilder();
+
+    private int batchRows;
+    @Getter
+    private long rowsLoaded;
+    @Getter
+    private long bytesLoaded;
+
+    CopyManagerRowWriter(final Connection connection,
+            final String tableName,
+            final List<String> columns,
+            final int maxBatchRows,
+            final long maxBatchBytes) throws SQLException {
+        if (maxBatchRows <= 0 || maxBatchBytes <= 0) {
+            throw new IllegalArgumentException("COPY batch limits should be positive numbers");
+        }
+        this.maxBatchRows = maxBatchRows;
+        this.maxBatchBytes = maxBatchBytes;
+        this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn(String.format(COPY_FROM_STDIN_FORMAT, tableName, String.join(",", columns)));
+    }
+
+    @Override
+    public void write(final Object[] row) throws SQLException {
+        this.rowBuilder.setLength(0);
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                this.rowBuilder.append(COLUMN_DELIMITER);
+            }
+            appendValue(this.rowBuilder, row[i]);
+        }
+        this.rowBuilder.append(ROW_DELIMITER);
+        this.buffer.writeBytes(this.rowBuilder.toString().getBytes(StandardCharsets.UTF_8));
+        this.batchRows++;
+        if (this.batchRows >= this.maxBatchRows || this.buffer.size() >= this.maxBatchBytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Sends the buffered rows to the server.
+     *
+     * @throws SQLException on failure.
+     */
+    void flush() throws SQLException {
+        if (this.batchRows == 0) {
+            return;
+        }
+        final int batchBytes = this.buffer.size();
+        this.buffer.writeTo(this.copyIn);
+        this.copyIn.flushCopy();
+        this.bytesLoaded += batchBytes;
+        log.debug("Flushed COPY batch of [{}] rows ([{}] bytes)", this.batchRows, batchBytes);
+        this.batchRows = 0;
+    }
+
+    @Override
+    public void finish() throws SQLException {
+        flush();
+        this.rowsLoaded = this.copyIn.endCopy();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (this.copyIn.isActive()) {
+            this.copyIn.cancelCopy();
+        }
+    }
+
+    static void appendValue(final StringBuilder sb, final Object value) {
+        if (value == null) {
+            sb.append(NULL_VALUE);
+            return;
+        }
+        final String text;
+        if (value instanceof Map || value instanceof Collection) {
+            text = toJson(value);
+        } else if (value instanceof byte[]) {
+            // bytea hex format, the backslash is escaped below
+            text = "\\x" + HEX.formatHex((byte[])value);
+        } else {
+            text = value.toString();
+        }
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                sb.append(c);
+            }
+        }
+    }
+
+    private static String toJson(final Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (final JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to convert nested COPY value to json", e);
+        }
+    }
+
+    /**
+     * Exposes the internal buffer so that it can be sent without copying.
+     */
+    private static final class CopyBuffer extends ByteArrayOutputStream {
+
+        void writeTo(final CopyIn copyIn) throws SQLException {
+            copyIn.writeToCopy(this.buf, 0, this.count);
+            reset();
+        }
+    }
+}
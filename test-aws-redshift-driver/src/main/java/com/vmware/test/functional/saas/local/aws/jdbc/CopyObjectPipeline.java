@@ -0,0 +1,169 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the objects of a {@code COPY} command on a bounded pool of threads and hands their rows
+ * to a single {@link CopyRowWriter}.
+ * Up to {@code parallelism} objects are fetched, decompressed and parsed while the rows of the
+ * preceding objects are written. Each object is parsed into row batches that are queued in a
+ * bounded queue, and the writer drains the queues in the order of the objects, so the rows are
+ * written in the same order as a sequential read would produce them and the number of rows
+ * held in memory is bounded.
+ */
+@Slf4j
+class CopyObjectPipeline implements AutoCloseable {
+
+    private static final int BATCH_ROWS = 1024;
+    private static final int QUEUE_CAPACITY = 4;
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+    private final ExecutorService executor;
+
+    CopyObjectPipeline(final int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("COPY fetch parallelism should be a positive number");
+        }
+        this.executor = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory("copy-fetch-" + POOL_COUNTER.incrementAndGet()));
+    }
+
+    /**
+     * Reads all sources and writes their rows.
+     *
+     * @param sources objects to read, in the order their rows should be written.
+     * @param reader parses a single object into rows.
+     * @param rowWriter destination of the rows.
+     * @param <S> type of the objects.
+     * @throws IOException if reading any of the objects failed.
+     * @throws SQLException if writing the rows failed.
+     * @throws InterruptedException if the calling thread was interrupted.
+     */
+    <S> void run(final List<S> sources, final ObjectReader<S> reader, final CopyRowWriter rowWriter)
+            throws IOException, SQLException, InterruptedException {
+        final List<BlockingQueue<RowBatch>> queues = new ArrayList<>(sources.size());
+        for (S source : sources) {
+            final BlockingQueue<RowBatch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+            queues.add(queue);
+            this.executor.execute(() -> fetch(source, reader, queue));
+        }
+        for (BlockingQueue<RowBatch> queue : queues) {
+            RowBatch batch;
+            do {
+                batch = queue.take();
+                if (batch.failure != null) {
+                    throw rethrow(batch.failure);
+                }
+                for (Object[] row : batch.rows) {
+                    rowWriter.write(row);
+                }
+            } while (!batch.last);
+        }
+    }
+
+    @Override
+    public void close() {
+        // interrupts the fetches which are still running if the rows were not fully consumed
+        this.executor.shutdownNow();
+    }
+
+    private <S> void fetch(final S source, final ObjectReader<S> reader, final BlockingQueue<RowBatch> queue) {
+        try {
+            try {
+                final BatchingRowConsumer rowConsumer = new BatchingRowConsumer(queue);
+                reader.read(source, rowConsumer);
+                queue.put(new RowBatch(rowConsumer.rows, null, true));
+            } catch (final Throwable e) {
+                // errors are reported as well, e.g. a missing provided dependency, or the writer would wait forever
+                log.debug("Unable to read COPY object [{}]", source, e);
+                queue.put(new RowBatch(Collections.emptyList(), e, true));
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static IOException rethrow(final Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException)failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error)failure;
+        }
+        return (IOException)failure;
+    }
+
+    /**
+     * Parses a {@code COPY} object into rows.
+     *
+     * @param <S> type of the object.
+     */
+    @FunctionalInterface
+    interface ObjectReader<S> {
+
+        void read(S source, RowConsumer rowConsumer) throws IOException;
+    }
+
+    /**
+     * Accepts the rows parsed from a {@code COPY} object.
+     */
+    @FunctionalInterface
+    interface RowConsumer {
+
+        void accept(Object[] row) throws IOException;
+    }
+
+    /**
+     * Rows of an object, or the failure to read it.
+     */
+    @AllArgsConstructor
+    private static final class RowBatch {
+        private final List<Object[]> rows;
+        private final Throwable failure;
+        private final boolean last;
+    }
+
+    /**
+     * Groups rows into batches and blocks when the writer falls behind.
+     */
+    private static final class BatchingRowConsumer implements RowConsumer {
+
+        private final BlockingQueue<RowBatch> queue;
+        private List<Object[]> rows = new ArrayList<>(BATCH_ROWS);
+
+        BatchingRowConsumer(final BlockingQueue<RowBatch> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void accept(final Object[] row) throws IOException {
+            this.rows.add(row);
+            if (this.rows.size() >= BATCH_ROWS) {
+                try {
+                    this.queue.put(new RowBatch(this.rows, null, false));
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("COPY object read was interrupted");
+                }
+                this.rows = new ArrayList<>(BATCH_ROWS);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * Loads the rows read by a {@code COPY} command into the target table.
+ */
+interface CopyRowWriter extends AutoCloseable {
+
+    /**
+     * Writes a single row.
+     *
+     * @param row column values ordered as the target columns.
+     * @throws SQLException on write failure.
+     */
+    void write(Object[] row) throws SQLException;
+
+    /**
+     * Loads any pending rows and completes the load.
+     *
+     * @throws SQLException on write failure.
+     */
+    void finish() throws SQLException;
+
+    /**
+     * @return number of rows loaded so far.
+     */
+    long getRowsLoaded();
+
+    /**
+     * @return number of bytes loaded so far.
+     */
+    long getBytesLoaded();
+
+    /**
+     * Releases the resources held by the writer. A load which was not finished is discarded.
+     *
+     * @throws SQLException on failure.
+     */
+    @Override
+    void close() throws SQLException;
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates daemon threads, so that a pool which was not shut down does not prevent the JVM from exiting.
+ * The threads are named {@code <namePrefix>-<thread number>}.
+ */
+class DaemonThreadFactory implements ThreadFactory {
+
+    private final String namePrefix;
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    DaemonThreadFactory(final String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, this.namePrefix + "-" + this.threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
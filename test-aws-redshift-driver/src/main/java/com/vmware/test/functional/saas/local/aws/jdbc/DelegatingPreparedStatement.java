@@ -0,0 +1,341 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * {@link PreparedStatement} which forwards every call to the wrapped statement. Subclasses override only
+ * the calls they intercept, the other calls are plain virtual calls to the wrapped statement.
+ */
+class DelegatingPreparedStatement extends DelegatingStatement<PreparedStatement> implements PreparedStatement {
+
+    DelegatingPreparedStatement(final PreparedStatement delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        return this.delegate.executeQuery();
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        return this.delegate.executeUpdate();
+    }
+
+    @Override
+    public long executeLargeUpdate() throws SQLException {
+        return this.delegate.executeLargeUpdate();
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        return this.delegate.execute();
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        this.delegate.addBatch();
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        this.delegate.clearParameters();
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return this.delegate.getMetaData();
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return this.delegate.getParameterMetaData();
+    }
+
+    @Override
+    public void setNull(final int parameterIndex, final int sqlType) throws SQLException {
+        this.delegate.setNull(parameterIndex, sqlType);
+    }
+
+    @Override
+    public void setNull(final int parameterIndex, final int sqlType, final String typeName) throws SQLException {
+        this.delegate.setNull(parameterIndex, sqlType, typeName);
+    }
+
+    @Override
+    public void setBoolean(final int parameterIndex, final boolean x) throws SQLException {
+        this.delegate.setBoolean(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(final int parameterIndex, final byte x) throws SQLException {
+        this.delegate.setByte(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(final int parameterIndex, final short x) throws SQLException {
+        this.delegate.setShort(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(final int parameterIndex, final int x) throws SQLException {
+        this.delegate.setInt(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(final int parameterIndex, final long x) throws SQLException {
+        this.delegate.setLong(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(final int parameterIndex, final float x) throws SQLException {
+        this.delegate.setFloat(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(final int parameterIndex, final double x) throws SQLException {
+        this.delegate.setDouble(parameterIndex, x);
+    }
+
+    @Override
+    public void setBigDecimal(final int parameterIndex, final BigDecimal x) throws SQLException {
+        this.delegate.setBigDecimal(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(final int parameterIndex, final String x) throws SQLException {
+        this.delegate.setString(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(final int parameterIndex, final String value) throws SQLException {
+        this.delegate.setNString(parameterIndex, value);
+    }
+
+    @Override
+    public void setBytes(final int parameterIndex, final byte[] x) throws SQLException {
+        this.delegate.setBytes(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(final int parameterIndex, final Date x) throws SQLException {
+        this.delegate.setDate(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(final int parameterIndex, final Date x, final Calendar cal) throws SQLException {
+        this.delegate.setDate(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTime(final int parameterIndex, final Time x) throws SQLException {
+        this.delegate.setTime(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(final int parameterIndex, final Time x, final Calendar cal) throws SQLException {
+        this.delegate.setTime(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTimestamp(final int parameterIndex, final Timestamp x) throws SQLException {
+        this.delegate.setTimestamp(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(final int parameterIndex, final Timestamp x, final Calendar cal) throws SQLException {
+        this.delegate.setTimestamp(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setObject(final int parameterIndex, final Object x) throws SQLException {
+        this.delegate.setObject(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(final int parameterIndex, final Object x, final int targetSqlType) throws SQLException {
+        this.delegate.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(final int parameterIndex, final Object x, final int targetSqlType,
+            final int scaleOrLength) throws SQLException {
+        this.delegate.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setObject(final int parameterIndex, final Object x, final SQLType targetSqlType)
+            throws SQLException {
+        this.delegate.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(final int parameterIndex, final Object x, final SQLType targetSqlType,
+            final int scaleOrLength) throws SQLException {
+        this.delegate.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setAsciiStream(final int parameterIndex, final InputStream x) throws SQLException {
+        this.delegate.setAsciiStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(final int parameterIndex, final InputStream x, final int length) throws SQLException {
+        this.delegate.setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setAsciiStream(final int parameterIndex, final InputStream x, final long length)
+            throws SQLException {
+        this.delegate.setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    @Deprecated
+    public void setUnicodeStream(final int parameterIndex, final InputStream x, final int length)
+            throws SQLException {
+        this.delegate.setUnicodeStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(final int parameterIndex, final InputStream x) throws SQLException {
+        this.delegate.setBinaryStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(final int parameterIndex, final InputStream x, final int length)
+            throws SQLException {
+        this.delegate.setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(final int parameterIndex, final InputStream x, final long length)
+            throws SQLException {
+        this.delegate.setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setCharacterStream(final int parameterIndex, final Reader reader) throws SQLException {
+        this.delegate.setCharacterStream(parameterIndex, reader);
+    }
+
+    @Override
+    public void setCharacterStream(final int parameterIndex, final Reader reader, final int length)
+            throws SQLException {
+        this.delegate.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setCharacterStream(final int parameterIndex, final Reader reader, final long length)
+            throws SQLException {
+        this.delegate.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setNCharacterStream(final int parameterIndex, final Reader value) throws SQLException {
+        this.delegate.setNCharacterStream(parameterIndex, value);
+    }
+
+    @Override
+    public void setNCharacterStream(final int parameterIndex, final Reader value, final long length)
+            throws SQLException {
+        this.delegate.setNCharacterStream(parameterIndex, value, length);
+    }
+
+    @Override
+    public void setRef(final int parameterIndex, final Ref x) throws SQLException {
+        this.delegate.setRef(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(final int parameterIndex, final Blob x) throws SQLException {
+        this.delegate.setBlob(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(final int parameterIndex, final InputStream inputStream) throws SQLException {
+        this.delegate.setBlob(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setBlob(final int parameterIndex, final InputStream inputStream, final long length)
+            throws SQLException {
+        this.delegate.setBlob(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setClob(final int parameterIndex, final Clob x) throws SQLException {
+        this.delegate.setClob(parameterIndex, x);
+    }
+
+    @Override
+    public void setClob(final int parameterIndex, final Reader reader) throws SQLException {
+        this.delegate.setClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setClob(final int parameterIndex, final Reader reader, final long length) throws SQLException {
+        this.delegate.setClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setNClob(final int parameterIndex, final NClob value) throws SQLException {
+        this.delegate.setNClob(parameterIndex, value);
+    }
+
+    @Override
+    public void setNClob(final int parameterIndex, final Reader reader) throws SQLException {
+        this.delegate.setNClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNClob(final int parameterIndex, final Reader reader, final long length) throws SQLException {
+        this.delegate.setNClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setArray(final int parameterIndex, final Array x) throws SQLException {
+        this.delegate.setArray(parameterIndex, x);
+    }
+
+    @Override
+    public void setURL(final int parameterIndex, final URL x) throws SQLException {
+        this.delegate.setURL(parameterIndex, x);
+    }
+
+    @Override
+    public void setRowId(final int parameterIndex, final RowId x) throws SQLException {
+        this.delegate.setRowId(parameterIndex, x);
+    }
+
+    @Override
+    public void setSQLXML(final int parameterIndex, final SQLXML xmlObject) throws SQLException {
+        this.delegate.setSQLXML(parameterIndex, xmlObject);
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * {@link Statement} which forwards every call to the wrapped statement. Subclasses override only the calls
+ * they intercept, the other calls are plain virtual calls to the wrapped statement.
+ *
+ * @param <T> type of the wrapped statement.
+ */
+class DelegatingStatement<T extends Statement> implements Statement {
+
+    protected final T delegate;
+
+    DelegatingStatement(final T delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ResultSet executeQuery(final String sql) throws SQLException {
+        return this.delegate.executeQuery(sql);
+    }
+
+    @Override
+    public int executeUpdate(final String sql) throws SQLException {
+        return this.delegate.executeUpdate(sql);
+    }
+
+    @Override
+    public int executeUpdate(final String sql, final int autoGeneratedKeys) throws SQLException {
+        return this.delegate.executeUpdate(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public int executeUpdate(final String sql, final int[] columnIndexes) throws SQLException {
+        return this.delegate.executeUpdate(sql, columnIndexes);
+    }
+
+    @Override
+    public int executeUpdate(final String sql, final String[] columnNames) throws SQLException {
+        return this.delegate.executeUpdate(sql, columnNames);
+    }
+
+    @Override
+    public boolean execute(final String sql) throws SQLException {
+        return this.delegate.execute(sql);
+    }
+
+    @Override
+    public boolean execute(final String sql, final int autoGeneratedKeys) throws SQLException {
+        return this.delegate.execute(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public boolean execute(final String sql, final int[] columnIndexes) throws SQLException {
+        return this.delegate.execute(sql, columnIndexes);
+    }
+
+    @Override
+    public boolean execute(final String sql, final String[] columnNames) throws SQLException {
+        return this.delegate.execute(sql, columnNames);
+    }
+
+    @Override
+    public long executeLargeUpdate(final String sql) throws SQLException {
+        return this.delegate.executeLargeUpdate(sql);
+    }
+
+    @Override
+    public long executeLargeUpdate(final String sql, final int autoGeneratedKeys) throws SQLException {
+        return this.delegate.executeLargeUpdate(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public long executeLargeUpdate(final String sql, final int[] columnIndexes) throws SQLException {
+        return this.delegate.executeLargeUpdate(sql, columnIndexes);
+    }
+
+    @Override
+    public long executeLargeUpdate(final String sql, final String[] columnNames) throws SQLException {
+        return this.delegate.executeLargeUpdate(sql, columnNames);
+    }
+
+    @Override
+    public void addBatch(final String sql) throws SQLException {
+        this.delegate.addBatch(sql);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        this.delegate.clearBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        return this.delegate.executeBatch();
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        return this.delegate.executeLargeBatch();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        this.delegate.close();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return this.delegate.isClosed();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return this.delegate.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(final int max) throws SQLException {
+        this.delegate.setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return this.delegate.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(final int max) throws SQLException {
+        this.delegate.setMaxRows(max);
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return this.delegate.getLargeMaxRows();
+    }
+
+    @Override
+    public void setLargeMaxRows(final long max) throws SQLException {
+        this.delegate.setLargeMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(final boolean enable) throws SQLException {
+        this.delegate.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return this.delegate.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(final int seconds) throws SQLException {
+        this.delegate.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        this.delegate.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return this.delegate.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        this.delegate.clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(final String name) throws SQLException {
+        this.delegate.setCursorName(name);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return this.delegate.getResultSet();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return this.delegate.getUpdateCount();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return this.delegate.getLargeUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return this.delegate.getMoreResults();
+    }
+
+    @Override
+    public boolean getMoreResults(final int current) throws SQLException {
+        return this.delegate.getMoreResults(current);
+    }
+
+    @Override
+    public void setFetchDirection(final int direction) throws SQLException {
+        this.delegate.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return this.delegate.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(final int rows) throws SQLException {
+        this.delegate.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return this.delegate.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return this.delegate.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return this.delegate.getResultSetType();
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return this.delegate.getResultSetHoldability();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return this.delegate.getConnection();
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return this.delegate.getGeneratedKeys();
+    }
+
+    @Override
+    public void setPoolable(final boolean poolable) throws SQLException {
+        this.delegate.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return this.delegate.isPoolable();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        this.delegate.closeOnCompletion();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return this.delegate.isCloseOnCompletion();
+    }
+
+    @Override
+    public <U> U unwrap(final Class<U> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : this.delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || this.delegate.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.Arrays;
+
+import lombok.Value;
+
+/**
+ * Reads {@code COPY} objects in delimited text or {@code CSV} format. The fields of a line are mapped
+ * to the columns of the table by position.
+ * <p>
+ * In {@code CSV} format a field may be enclosed in quotes, which allows delimiters, line breaks and
+ * (doubled) quotes in the value. A field equal to the {@code NULL AS} string, and an empty field of
+ * a column which is not a character column, is loaded as {@code NULL}.
+ */
+@Value
+class DelimitedCopyReader implements CopyFormatReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    boolean csv;
+    char delimiter;
+    char quote;
+    String nullAs;
+    int ignoreHeader;
+    boolean emptyAsNull;
+    boolean blanksAsNull;
+
+    @Override
+    public void read(final S3InputFile file, final TableMetadata table,
+            final CopyObjectPipeline.RowConsumer rowConsumer) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(file.openStream(), StandardCharsets.UTF_8),
+                BUFFER_SIZE)) {
+            if (!skipHeader(reader)) {
+                return;
+            }
+            final int[] columnTypes = table.getColumnTypes();
+            final StringBuilder field = new StringBuilder();
+            long line = this.ignoreHeader;
+            Object[] row;
+            while ((row = readRecord(reader, field, columnTypes)) != null) {
+                line++;
+                if (row.length > columnTypes.length) {
+                    throw new IOException("Extra column(s) found in line [" + line + "] of [" + file.getPath() + "]");
+                }
+                // Redshift rejects missing fields and blank lines as well
+                if (row.length < columnTypes.length) {
+                    throw new IOException("Delimiter not found in line [" + line + "] of [" + file.getPath() + "]");
+                }
+                rowConsumer.accept(row);
+            }
+        }
+    }
+
+    /**
+     * @return whether there is any data after the header lines.
+     */
+    private boolean skipHeader(final Reader reader) throws IOException {
+        for (int i = 0; i < this.ignoreHeader; i++) {
+            int c;
+            while ((c = reader.read()) != '\n') {
+                if (c == -1) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the fields of the next record.
+     *
+     * @return values of the columns, or {@code null} at the end of the input. If the record has more or fewer
+     *         fields than the table has columns, the length of the returned array is the number of fields.
+     */
+    // cyclomatic complexity
+    // CHECKSTYLE:OFF
+    private Object[] readRecord(final Reader reader, final StringBuilder field, final int[] columnTypes)
+            throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        Object[] row = new Object[columnTypes.length];
+        int column = 0;
+        boolean quoted = false;
+        boolean inQuotes = false;
+        while (true) {
+            if (inQuotes) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field");
+                }
+                if (c == this.quote) {
+                    final int next = reader.read();
+                    if (next != this.quote) {
+                        inQuotes = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                field.append((char)c);
+            } else if (c == this.delimiter || c == '\n' || c == -1) {
+                if (column == row.length) {
+                    // extra fields are reported by the caller
+                    row = Arrays.copyOf(row, row.length + 1);
+                }
+                row[column] = toValue(field, quoted, column < columnTypes.length ? columnTypes[column] : Types.VARCHAR);
+                column++;
+                field.setLength(0);
+                quoted = false;
+                if (c != this.delimiter) {
+                    return column < row.length ? Arrays.copyOf(row, column) : row;
+                }
+            } else if (c == '\r') {
+                final int next = reader.read();
+                if (next != '\n') {
+                    field.append('\r');
+                }
+                c = next;
+                continue;
+            } else if (this.csv && c == this.quote && field.length() == 0 && !quoted) {
+                inQuotes = true;
+                quoted = true;
+            } else {
+                field.append((char)c);
+            }
+            c = reader.read();
+        }
+    }
+    // CHECKSTYLE:ON
+
+    private Object toValue(final StringBuilder field, final boolean quoted, final int sqlType) {
+        if (quoted) {
+            return field.toString();
+        }
+        if (field.length() == 0) {
+            return this.emptyAsNull || this.nullAs.isEmpty() || !TableMetadata.isCharacterType(sqlType) ? null : "";
+        }
+        final String value = field.toString();
+        if (value.equals(this.nullAs) || this.blanksAsNull && value.isBlank()) {
+            return null;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Encodes rows as delimited text.
+ * In CSV mode, values which contain the delimiter, a quote or a line break are quoted as described by
+ * RFC 4180. Otherwise the values are written as they are, like Redshift does without the {@code ESCAPE} option.
+ * With {@code ADDQUOTES}, every value which is not null is quoted.
+ */
+class DelimitedRowEncoder implements UnloadRowEncoder {
+
+    private static final char QUOTE = '"';
+
+    private final boolean csv;
+    private final String delimiter;
+    private final String nullAs;
+    private final boolean addQuotes;
+
+    DelimitedRowEncoder(final boolean csv, final String delimiter, final String nullAs, final boolean addQuotes) {
+        this.csv = csv;
+        this.delimiter = delimiter;
+        this.nullAs = nullAs;
+        this.addQuotes = addQuotes;
+    }
+
+    @Override
+    public void encodeHeader(final String[] columnNames, final Writer out) throws IOException {
+        encode(columnNames, out);
+    }
+
+    @Override
+    public void encode(final Object[] row, final Writer out) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                out.write(this.delimiter);
+            }
+            if (row[i] == null) {
+                out.write(this.nullAs);
+            } else {
+                encodeValue(row[i].toString(), out);
+            }
+        }
+        out.write('\n');
+    }
+
+    private void encodeValue(final String value, final Writer out) throws IOException {
+        if (this.csv && (this.addQuotes || needsQuotes(value))) {
+            out.write(QUOTE);
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c == QUOTE) {
+                    out.write(QUOTE);
+                }
+                out.write(c);
+            }
+            out.write(QUOTE);
+        } else if (this.addQuotes) {
+            out.write(QUOTE);
+            out.write(value);
+            out.write(QUOTE);
+        } else {
+            out.write(value);
+        }
+    }
+
+    private boolean needsQuotes(final String value) {
+        return value.contains(this.delimiter)
+                || value.indexOf(QUOTE) >= 0
+                || value.indexOf('\n') >= 0
+                || value.indexOf('\r') >= 0;
+    }
+}
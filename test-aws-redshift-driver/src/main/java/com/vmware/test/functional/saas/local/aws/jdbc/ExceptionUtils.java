@@ -5,7 +5,6 @@
 
 package com.vmware.test.functional.saas.local.aws.jdbc;
 
-import java.lang.reflect.InvocationTargetException;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Properties;
@@ -30,12 +29,21 @@ public final class ExceptionUtils {
     private ExceptionUtils() {
     }
 
-    static boolean handleSqlException(final InvocationTargetException e, final Properties info) throws InvocationTargetException, SQLException {
+    /**
+     * Suppresses the errors of setting configuration options which are listed in the
+     * {@link TestRedshiftDriver#SKIP_ERRORS_ON_MISSING_CONFIG_OPTIONS} property, e.g. Redshift's {@code query_group}.
+     *
+     * @param e error of the wrapped statement.
+     * @param info connection properties.
+     * @return {@code true} if the error is suppressed.
+     * @throws SQLException the error, if it is not suppressed.
+     */
+    static boolean handleSqlException(final SQLException e, final Properties info) throws SQLException {
         final List<String> configOptionsToSkip = Stream.of(info.getProperty(SKIP_ERRORS_ON_MISSING_CONFIG_OPTIONS, "").split(","))
                 .map(String::trim)
                 .collect(Collectors.toList());
-        if (e.getTargetException() instanceof PSQLException && !configOptionsToSkip.isEmpty()) {
-            final ServerErrorMessage errorMessage = ((PSQLException)e.getTargetException()).getServerErrorMessage();
+        if (e instanceof PSQLException && !configOptionsToSkip.isEmpty()) {
+            final ServerErrorMessage errorMessage = ((PSQLException)e).getServerErrorMessage();
             if (errorMessage != null && "set_config_option".equals(errorMessage.getRoutine()) && errorMessage.getMessage() != null) {
                 final Matcher m = UNRECOGNIZED_CONFIG_OPTION_MESSAGE_PATTERN.matcher(errorMessage.getMessage());
                 if (m.find() && configOptionsToSkip.contains(m.group("configOption"))) {
@@ -43,9 +51,6 @@ public final class ExceptionUtils {
                 }
             }
         }
-        if (e.getTargetException() instanceof SQLException) {
-            throw (SQLException)e.getTargetException();
-        }
         throw e;
     }
 }
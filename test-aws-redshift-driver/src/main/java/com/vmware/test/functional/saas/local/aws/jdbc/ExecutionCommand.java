@@ -42,6 +42,29 @@ public interface ExecutionCommand<T> {
      */
     T execute(Statement statement);
 
+    /**
+     * Executes SQL {@link Statement} specific for {@code UNLOAD} and {@code COPY} commands, which does not return rows.
+     *
+     * @param statement SQL {@link Statement}.
+     * @return number of rows loaded or updated by the command.
+     */
+    default int executeUpdate(Statement statement) {
+        execute(statement);
+        return 0;
+    }
+
+    /**
+     * Executes SQL {@link PreparedStatement} specific for {@code UNLOAD} and {@code COPY} commands, which does not
+     * return rows.
+     *
+     * @param preparedStatement SQL {@link PreparedStatement}.
+     * @return number of rows loaded or updated by the command.
+     */
+    default int executeUpdate(PreparedStatement preparedStatement) {
+        execute(preparedStatement);
+        return 0;
+    }
+
     /**
      * Execute a SQL {@link Statement}.
      *
@@ -61,4 +84,19 @@ public interface ExecutionCommand<T> {
     default ResultSet executeQuery(PreparedStatement preparedStatement) {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * @return type of the command reported to the {@link StatementMetricsListener}s.
+     */
+    default CommandType getCommandType() {
+        return CommandType.GENERIC;
+    }
+
+    /**
+     * Adds the rows and S3 bytes transferred by the last execution of the command to its metrics.
+     *
+     * @param metrics metrics of the execution.
+     */
+    default void recordTransfers(StatementMetrics.StatementMetricsBuilder metrics) {
+    }
 }
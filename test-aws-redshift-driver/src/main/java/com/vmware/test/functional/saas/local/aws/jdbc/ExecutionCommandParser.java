@@ -5,9 +5,15 @@
 
 package com.vmware.test.functional.saas.local.aws.jdbc;
 
+import software.amazon.awssdk.services.s3.S3Client;
+
 import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ArrayUtils;
 
@@ -16,11 +22,25 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.COPY_BATCH_MAX_BYTES;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.COPY_BATCH_MAX_ROWS;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.COPY_FETCH_PARALLELISM;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.COPY_LOAD_MODE;
 import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.DEFAULT_AWS_ACCESS_KEY;
 import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.DEFAULT_AWS_REGION;
 import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.DEFAULT_AWS_SECRET_ACCESS_KEY;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.METRICS_LISTENER_CLASS;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.PREPARED_STATEMENT_CACHE_SIZE;
 import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.S3_ENDPOINT_URL;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.S3_MAX_CONNECTIONS;
 import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.QUERY_MAP_CLASS;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.QUERY_MAP_NORMALIZE_WHITESPACE;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.SLOW_STATEMENT_THRESHOLD_MILLIS;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.UNLOAD_FETCH_SIZE;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.UNLOAD_MAX_FILE_ROWS;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.UNLOAD_PART_SIZE;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.UNLOAD_SLICES;
+import static com.vmware.test.functional.saas.local.aws.jdbc.TestRedshiftDriver.UNLOAD_UPLOAD_PARALLELISM;
 
 /**
  * Creates {@code ExecutionCommand} from the provided SQL argument.
@@ -37,13 +57,38 @@ class ExecutionCommandParser {
     @Builder
     @Getter
     static class ExecutionCommandContext {
+        private static final int DEFAULT_COPY_BATCH_MAX_ROWS = 10_000;
+        private static final long DEFAULT_COPY_BATCH_MAX_BYTES = 16L * 1024 * 1024;
+        private static final int DEFAULT_COPY_FETCH_PARALLELISM = 4;
+        private static final int DEFAULT_S3_MAX_CONNECTIONS = 50;
+        /**
+         * S3 does not accept multipart upload parts smaller than 5 MiB, except the last part.
+         */
+        private static final int MIN_UNLOAD_PART_SIZE = 5 * 1024 * 1024;
+        private static final int DEFAULT_UNLOAD_PART_SIZE = 8 * 1024 * 1024;
+        private static final int DEFAULT_UNLOAD_UPLOAD_PARALLELISM = 4;
+        private static final int DEFAULT_UNLOAD_SLICES = 4;
+        private static final int DEFAULT_UNLOAD_FETCH_SIZE = 10_000;
+        private static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 256;
+
         private final Properties info;
         private final Connection connection;
+        private final S3ClientRegistry s3ClientRegistry;
+        private final TableMetadataCache tableMetadataCache;
 
         public String getS3EndpointUrl() {
             return this.getInfo().getProperty(S3_ENDPOINT_URL);
         }
 
+        public int getS3MaxConnections() {
+            return Integer.parseInt(this.getInfo().getProperty(S3_MAX_CONNECTIONS,
+                    String.valueOf(DEFAULT_S3_MAX_CONNECTIONS)));
+        }
+
+        public S3Client getS3Client() {
+            return this.getS3ClientRegistry().getClient(this);
+        }
+
         public String getDefaultAwsAccessKey() {
             return this.getInfo().getProperty(DEFAULT_AWS_ACCESS_KEY);
         }
@@ -59,18 +104,106 @@ class ExecutionCommandParser {
         public String getQueryMapClass() {
             return this.getInfo().getProperty(QUERY_MAP_CLASS);
         }
+
+        public boolean isQueryMapNormalizeWhitespace() {
+            return Boolean.parseBoolean(this.getInfo().getProperty(QUERY_MAP_NORMALIZE_WHITESPACE));
+        }
+
+        public int getCopyBatchMaxRows() {
+            return Integer.parseInt(this.getInfo().getProperty(COPY_BATCH_MAX_ROWS,
+                    String.valueOf(DEFAULT_COPY_BATCH_MAX_ROWS)));
+        }
+
+        public long getCopyBatchMaxBytes() {
+            return Long.parseLong(this.getInfo().getProperty(COPY_BATCH_MAX_BYTES,
+                    String.valueOf(DEFAULT_COPY_BATCH_MAX_BYTES)));
+        }
+
+        public CopyLoadMode getCopyLoadMode() {
+            return CopyLoadMode.valueOf(this.getInfo().getProperty(COPY_LOAD_MODE, CopyLoadMode.INSERT.name())
+                    .trim()
+                    .toUpperCase(Locale.ROOT));
+        }
+
+        public int getCopyFetchParallelism() {
+            return Integer.parseInt(this.getInfo().getProperty(COPY_FETCH_PARALLELISM,
+                    String.valueOf(DEFAULT_COPY_FETCH_PARALLELISM)));
+        }
+
+        public int getUnloadPartSize() {
+            return Math.max(MIN_UNLOAD_PART_SIZE, Integer.parseInt(this.getInfo().getProperty(UNLOAD_PART_SIZE,
+                    String.valueOf(DEFAULT_UNLOAD_PART_SIZE))));
+        }
+
+        public int getUnloadUploadParallelism() {
+            return Integer.parseInt(this.getInfo().getProperty(UNLOAD_UPLOAD_PARALLELISM,
+                    String.valueOf(DEFAULT_UNLOAD_UPLOAD_PARALLELISM)));
+        }
+
+        public int getUnloadSlices() {
+            return Integer.parseInt(this.getInfo().getProperty(UNLOAD_SLICES,
+                    String.valueOf(DEFAULT_UNLOAD_SLICES)));
+        }
+
+        public int getUnloadFetchSize() {
+            return Integer.parseInt(this.getInfo().getProperty(UNLOAD_FETCH_SIZE,
+                    String.valueOf(DEFAULT_UNLOAD_FETCH_SIZE)));
+        }
+
+        public long getUnloadMaxFileRows() {
+            return Long.parseLong(this.getInfo().getProperty(UNLOAD_MAX_FILE_ROWS,
+                    String.valueOf(Long.MAX_VALUE)));
+        }
+
+        public List<String> getMetricsListenerClasses() {
+            return Arrays.stream(this.getInfo().getProperty(METRICS_LISTENER_CLASS, "").split(","))
+                    .map(String::trim)
+                    .filter(className -> !className.isEmpty())
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * @return maximum number of SQL statements whose translation is cached per connection, {@code 0}
+         *         if the translations are not cached.
+         */
+        public int getPreparedStatementCacheSize() {
+            return Integer.parseInt(this.getInfo().getProperty(PREPARED_STATEMENT_CACHE_SIZE,
+                    String.valueOf(DEFAULT_PREPARED_STATEMENT_CACHE_SIZE)));
+        }
+
+        /**
+         * @return threshold of the slow statement log, or {@code -1} if slow statements are not logged.
+         */
+        public long getSlowStatementThresholdMillis() {
+            return Long.parseLong(this.getInfo().getProperty(SLOW_STATEMENT_THRESHOLD_MILLIS, "-1").trim());
+        }
     }
 
+    /**
+     * SQL statements that are longer than this are not remembered as pass-through statements,
+     * as they are most likely statements with inlined values that are not executed again.
+     */
+    private static final int MAX_CACHED_SQL_LENGTH = 8192;
+    private static final int PASS_THROUGH_CACHE_SIZE = 1024;
+    /**
+     * SQL statements which are known not to match any {@code UNLOAD}, {@code COPY} or rewrite pattern.
+     */
+    private static final LruCache<String, Boolean> PASS_THROUGH_STATEMENTS = new LruCache<>(PASS_THROUGH_CACHE_SIZE);
+
     final ExecutionCommand<?> executionCommand;
 
     static Optional<ExecutionCommand<?>> parse(final Object[] args, final ExecutionCommandContext context) {
         if (ArrayUtils.isNotEmpty(args) && (args[0] instanceof String)) {
-            return parseInternal((String)args[0], context)
-                    .map(ExecutionCommandParser::getExecutionCommand);
+            return parse((String)args[0], context);
         }
         throw new IllegalArgumentException("First argument of the function should be a SQL string");
     }
 
+    static Optional<ExecutionCommand<?>> parse(final String sql, final ExecutionCommandContext context) {
+        return parseInternal(sql, context)
+                .map(ExecutionCommandParser::getExecutionCommand);
+    }
+
     private static Optional<ExecutionCommandParser> parseUnload(final String sql, final ExecutionCommandContext context) {
         return UnloadCommand.parse(sql, context).map(ExecutionCommandParser::new);
     }
@@ -79,11 +212,41 @@ class ExecutionCommandParser {
         return CopyCommand.parse(sql, context).map(ExecutionCommandParser::new);
     }
 
-    private static Optional<ExecutionCommandParser> parseGenericCommand(final String sql, final ExecutionCommandContext context) {
-        return GenericCommand.parse(sql, context).map(ExecutionCommandParser::new);
+    private static Optional<ExecutionCommandParser> parseQueryMap(final String sql, final ExecutionCommandContext context) {
+        return GenericCommand.parseQueryMap(sql, context).map(ExecutionCommandParser::new);
+    }
+
+    private static Optional<ExecutionCommandParser> parseTranslation(final String sql) {
+        return GenericCommand.translate(sql).map(ExecutionCommandParser::new);
     }
 
     private static Optional<ExecutionCommandParser> parseInternal(final String sql, final ExecutionCommandContext context) {
-        return parseUnload(sql, context).or(() -> parseCopy(sql, context)).or(() -> parseGenericCommand(sql, context));
+        if (PASS_THROUGH_STATEMENTS.containsKey(sql)) {
+            // the query map depends on the connection properties, so it is not part of the cached verdict
+            return parseQueryMap(sql, context);
+        }
+        final Optional<ExecutionCommandParser> redshiftCommand;
+        switch (SqlStatementKind.classify(sql)) {
+        case UNLOAD:
+            redshiftCommand = parseUnload(sql, context);
+            break;
+        case COPY:
+            redshiftCommand = parseCopy(sql, context);
+            break;
+        default:
+            redshiftCommand = Optional.empty();
+        }
+        if (redshiftCommand.isPresent()) {
+            return redshiftCommand;
+        }
+        final Optional<ExecutionCommandParser> mappedCommand = parseQueryMap(sql, context);
+        if (mappedCommand.isPresent()) {
+            return mappedCommand;
+        }
+        final Optional<ExecutionCommandParser> rewrittenCommand = parseTranslation(sql);
+        if (rewrittenCommand.isEmpty() && sql.length() <= MAX_CACHED_SQL_LENGTH) {
+            PASS_THROUGH_STATEMENTS.put(sql, Boolean.TRUE);
+        }
+        return rewrittenCommand;
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes {@code COPY} rows through an {@code INSERT} {@link PreparedStatement} batch.
+ * The values are bound with the {@link ColumnBinder typed binders} of the target columns. The batch
+ * is executed every time it reaches the configured number of rows or bytes, so the memory held by
+ * the JDBC driver does not grow with the size of the copied data.
+ */
+@Slf4j
+class InsertBatchRowWriter implements CopyRowWriter {
+
+    private static final int NON_CHARACTER_VALUE_SIZE = 8;
+
+    private final PreparedStatement preparedStatement;
+    private final ColumnBinder[] columnBinders;
+    private final int maxBatchRows;
+    private final long maxBatchBytes;
+
+    private int batchRows;
+    private long batchBytes;
+    @Getter
+    private long rowsLoaded;
+    @Getter
+    private long bytesLoaded;
+
+    InsertBatchRowWriter(final PreparedStatement preparedStatement,
+            final ColumnBinder[] columnBinders,
+            final int maxBatchRows,
+            final long maxBatchBytes) {
+        if (maxBatchRows <= 0 || maxBatchBytes <= 0) {
+            throw new IllegalArgumentException("COPY batch limits should be positive numbers");
+        }
+        this.preparedStatement = preparedStatement;
+        this.columnBinders = columnBinders;
+        this.maxBatchRows = maxBatchRows;
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    /**
+     * Binds the values of a row to the statement parameters and adds them to the current batch.
+     *
+     * @param row column values ordered as the statement parameters.
+     * @throws SQLException on binding or batch execution failure.
+     */
+    @Override
+    public void write(final Object[] row) throws SQLException {
+        for (int i = 0; i < row.length; i++) {
+            this.columnBinders[i].bindValue(this.preparedStatement, i + 1, row[i]);
+            this.batchBytes += estimateSize(row[i]);
+        }
+        this.preparedStatement.addBatch();
+        this.batchRows++;
+        if (this.batchRows >= this.maxBatchRows || this.batchBytes >= this.maxBatchBytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Executes the pending batch, if any.
+     *
+     * @throws SQLException on batch execution failure.
+     */
+    void flush() throws SQLException {
+        if (this.batchRows == 0) {
+            return;
+        }
+        this.preparedStatement.executeBatch();
+        this.rowsLoaded += this.batchRows;
+        this.bytesLoaded += this.batchBytes;
+        log.debug("Flushed COPY batch of [{}] rows ([{}] bytes)", this.batchRows, this.batchBytes);
+        this.batchRows = 0;
+        this.batchBytes = 0;
+    }
+
+    @Override
+    public void finish() throws SQLException {
+        flush();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        this.preparedStatement.close();
+    }
+
+    private static long estimateSize(final Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence)value).length();
+        }
+        if (value instanceof byte[]) {
+            return ((byte[])value).length;
+        }
+        return NON_CHARACTER_VALUE_SIZE;
+    }
+}
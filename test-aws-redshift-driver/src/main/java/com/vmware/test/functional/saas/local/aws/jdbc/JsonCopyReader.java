@@ -0,0 +1,257 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Reads {@code COPY} objects in {@code JSON} format: a sequence of JSON objects.
+ * <p>
+ * With {@code 'auto'} the top level attributes are loaded into the columns of the same name, and with
+ * {@code 'auto ignorecase'} the case of the attribute names is ignored. Otherwise the option is the
+ * {@code s3://} URL of a {@link JsonPaths JSONPaths} file whose expressions select the value of each column,
+ * including nested attributes and array elements.
+ * <p>
+ * The objects are shredded while their tokens are streamed, straight into the column values of the row.
+ * Attributes without a column are skipped without being parsed into values, and objects or arrays which
+ * are loaded into a column are loaded as their JSON text.
+ */
+@EqualsAndHashCode
+class JsonCopyReader implements CopyFormatReader {
+
+    static final String AUTO = "auto";
+    static final String AUTO_IGNORECASE = "auto ignorecase";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Getter
+    private final String option;
+    @EqualsAndHashCode.Exclude
+    private final JsonPaths.Node paths;
+
+    /**
+     * @param option {@code auto}, {@code auto ignorecase} or the URL of a {@code JSONPaths} file.
+     */
+    JsonCopyReader(final String option) {
+        this(option, null);
+    }
+
+    private JsonCopyReader(final String option, final JsonPaths.Node paths) {
+        this.option = option;
+        this.paths = paths;
+    }
+
+    @Override
+    public CopyFormatReader resolve(final S3Client client, final TableMetadata table) throws IOException {
+        if (isAuto()) {
+            return this;
+        }
+        final URI uri = URI.create(this.option);
+        final byte[] content = client.getObjectAsBytes(GetObjectRequest.builder()
+                .bucket(uri.getHost())
+                // remove leading slash
+                .key(uri.getPath().substring(1))
+                .build())
+                .asByteArray();
+        return new JsonCopyReader(this.option, JsonPaths.parse(content, table.getColumnCount()));
+    }
+
+    @Override
+    public void read(final S3InputFile file, final TableMetadata table,
+            final CopyObjectPipeline.RowConsumer rowConsumer) throws IOException {
+        if (!isAuto() && this.paths == null) {
+            throw new IllegalStateException("JSONPaths file [" + this.option + "] was not loaded");
+        }
+        final int[] columnTypes = table.getColumnTypes();
+        final Map<String, Integer> attributeColumns = new HashMap<>();
+        try (InputStream objectIs = file.openStream();
+                JsonParser parser = MAPPER.createParser(objectIs)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IOException("Expected a JSON object in [" + file.getPath() + "] at "
+                            + parser.getCurrentLocation());
+                }
+                final Object[] row = new Object[columnTypes.length];
+                if (this.paths == null) {
+                    shredAuto(parser, table, attributeColumns, row);
+                } else {
+                    shred(parser, token, this.paths, columnTypes, row);
+                }
+                rowConsumer.accept(row);
+            }
+        }
+    }
+
+    private boolean isAuto() {
+        return AUTO.equals(this.option) || AUTO_IGNORECASE.equals(this.option);
+    }
+
+    /**
+     * Loads the top level attributes into the columns of the same name.
+     *
+     * @param attributeColumns column index by attribute name, the attribute names are canonicalized by
+     *         the parser, so the lookups do not allocate once the names of an object were seen.
+     */
+    private void shredAuto(final JsonParser parser, final TableMetadata table,
+            final Map<String, Integer> attributeColumns, final Object[] row) throws IOException {
+        final boolean ignoreCase = AUTO_IGNORECASE.equals(this.option);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final Integer column = attributeColumns.computeIfAbsent(parser.getCurrentName(),
+                    name -> ignoreCase ? AvroRowMapper.columnIndex(table, name) : table.indexOf(name));
+            final JsonToken valueToken = parser.nextToken();
+            if (column >= 0) {
+                row[column] = readValue(parser, valueToken, table.getColumnTypes()[column]);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Follows the {@code JSONPaths} tree while streaming the tokens of the current value.
+     */
+    private static void shred(final JsonParser parser, final JsonToken token, final JsonPaths.Node node,
+            final int[] columnTypes, final Object[] row) throws IOException {
+        if (node.getColumn() >= 0 && (node.hasFields() || node.hasElements())) {
+            // the value is loaded and followed as well, which needs the whole value
+            shredTree(parser.readValueAsTree(), node, columnTypes, row);
+        } else if (node.getColumn() >= 0) {
+            row[node.getColumn()] = readValue(parser, token, columnTypes[node.getColumn()]);
+        } else if (token == JsonToken.START_OBJECT && node.hasFields()) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final JsonPaths.Node child = node.getField(parser.getCurrentName());
+                final JsonToken valueToken = parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    shred(parser, valueToken, child, columnTypes, row);
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY && node.hasElements()) {
+            JsonToken elementToken;
+            for (int index = 0; (elementToken = parser.nextToken()) != JsonToken.END_ARRAY; index++) {
+                final JsonPaths.Node child = node.getElement(index);
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    shred(parser, elementToken, child, columnTypes, row);
+                }
+            }
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private static void shredTree(final JsonNode value, final JsonPaths.Node node, final int[] columnTypes,
+            final Object[] row) {
+        if (value == null) {
+            return;
+        }
+        if (node.getColumn() >= 0) {
+            row[node.getColumn()] = treeValue(value, columnTypes[node.getColumn()]);
+        }
+        if (value.isObject() && node.hasFields()) {
+            final Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                final JsonPaths.Node child = node.getField(field.getKey());
+                if (child != null) {
+                    shredTree(field.getValue(), child, columnTypes, row);
+                }
+            }
+        } else if (value.isArray() && node.hasElements()) {
+            for (int index = 0; index < value.size(); index++) {
+                final JsonPaths.Node child = node.getElement(index);
+                if (child != null) {
+                    shredTree(value.get(index), child, columnTypes, row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the current value in the form expected by the binder of the column: the text of scalar values
+     * of character columns, numbers, booleans or strings otherwise, and the JSON text of objects and arrays.
+     */
+    // cyclomatic complexity
+    // CHECKSTYLE:OFF
+    private static Object readValue(final JsonParser parser, final JsonToken token, final int sqlType)
+            throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            final StringWriter json = new StringWriter();
+            try (JsonGenerator generator = MAPPER.getFactory().createGenerator(json)) {
+                generator.copyCurrentStructure(parser);
+            }
+            return json.toString();
+        }
+        if (TableMetadata.isCharacterType(sqlType)) {
+            return parser.getText();
+        }
+        switch (token) {
+        case VALUE_STRING:
+            return parser.getText();
+        case VALUE_NUMBER_INT:
+            return parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER
+                    ? parser.getBigIntegerValue()
+                    : (Object)parser.getLongValue();
+        case VALUE_NUMBER_FLOAT:
+            return sqlType == Types.NUMERIC || sqlType == Types.DECIMAL
+                    ? parser.getDecimalValue()
+                    : (Object)parser.getDoubleValue();
+        case VALUE_TRUE:
+            return Boolean.TRUE;
+        case VALUE_FALSE:
+            return Boolean.FALSE;
+        default:
+            throw new IOException("Unexpected JSON token [" + token + "] at " + parser.getCurrentLocation());
+        }
+    }
+    // CHECKSTYLE:ON
+
+    private static Object treeValue(final JsonNode value, final int sqlType) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (value.isContainerNode()) {
+            return value.toString();
+        }
+        if (TableMetadata.isCharacterType(sqlType) || value.isTextual()) {
+            return value.asText();
+        }
+        if (value.isBoolean()) {
+            return value.booleanValue();
+        }
+        if (value.isIntegralNumber()) {
+            return value.canConvertToLong() ? (Object)value.longValue() : value.bigIntegerValue();
+        }
+        return sqlType == Types.NUMERIC || sqlType == Types.DECIMAL
+                ? value.decimalValue()
+                : (Object)value.doubleValue();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Expressions of a Redshift {@code JSONPaths} file, e.g. {@code {"jsonpaths": ["$.id", "$['user']['name']"]}},
+ * compiled to a tree of attribute names and array indexes. The expression at position {@code i} loads
+ * the column at position {@code i}. The tree lets the shredder follow the paths while it streams the
+ * tokens of a JSON object, skipping the attributes which are not on any path.
+ */
+final class JsonPaths {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String JSONPATHS_ATTRIBUTE = "jsonpaths";
+
+    private JsonPaths() {
+    }
+
+    /**
+     * Parses a {@code JSONPaths} file.
+     *
+     * @param content content of the file.
+     * @param columnCount number of columns of the target table.
+     * @return root of the path tree.
+     * @throws IOException if the file is not a valid {@code JSONPaths} file.
+     */
+    static Node parse(final byte[] content, final int columnCount) throws IOException {
+        final JsonNode paths = MAPPER.readTree(content).get(JSONPATHS_ATTRIBUTE);
+        if (paths == null || !paths.isArray()) {
+            throw new IOException("JSONPaths file should have a [" + JSONPATHS_ATTRIBUTE + "] array");
+        }
+        if (paths.size() > columnCount) {
+            throw new IOException("JSONPaths file has [" + paths.size() + "] expressions, but the table has ["
+                    + columnCount + "] columns");
+        }
+        final Node root = new Node();
+        for (int column = 0; column < paths.size(); column++) {
+            Node node = root;
+            for (Object segment : parseExpression(paths.get(column).asText())) {
+                node = segment instanceof Integer ? node.element((Integer)segment) : node.field((String)segment);
+            }
+            node.column = column;
+        }
+        return root;
+    }
+
+    /**
+     * Splits an expression in bracket ({@code $['a'][0]}) or dot ({@code $.a[0]}) notation.
+     *
+     * @return attribute names and array indexes.
+     */
+    // cyclomatic complexity
+    // CHECKSTYLE:OFF
+    static List<Object> parseExpression(final String expression) throws IOException {
+        if (!expression.startsWith("$")) {
+            throw new IOException("JSONPath expression should start with [$]: [" + expression + "]");
+        }
+        final List<Object> segments = new ArrayList<>();
+        int i = 1;
+        while (i < expression.length()) {
+            final char c = expression.charAt(i);
+            if (c == '.') {
+                int end = i + 1;
+                while (end < expression.length() && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+                    end++;
+                }
+                if (end == i + 1) {
+                    throw new IOException("Empty attribute name in JSONPath expression [" + expression + "]");
+                }
+                segments.add(expression.substring(i + 1, end));
+                i = end;
+            } else if (c == '[') {
+                final int end = expression.indexOf(']', i);
+                if (end < 0) {
+                    throw new IOException("Unterminated bracket in JSONPath expression [" + expression + "]");
+                }
+                final String inner = expression.substring(i + 1, end).trim();
+                if (inner.length() >= 2 && (inner.charAt(0) == '\'' || inner.charAt(0) == '"')
+                        && inner.charAt(inner.length() - 1) == inner.charAt(0)) {
+                    segments.add(inner.substring(1, inner.length() - 1));
+                } else {
+                    segments.add(parseIndex(inner, expression));
+                }
+                i = end + 1;
+            } else {
+                throw new IOException("Unexpected [" + c + "] in JSONPath expression [" + expression + "]");
+            }
+        }
+        return segments;
+    }
+    // CHECKSTYLE:ON
+
+    private static Integer parseIndex(final String index, final String expression) throws IOException {
+        try {
+            final int value = Integer.parseInt(index);
+            if (value >= 0) {
+                return value;
+            }
+        } catch (final NumberFormatException e) {
+            // reported below
+        }
+        throw new IOException("Invalid array index in JSONPath expression [" + expression + "]");
+    }
+
+    /**
+     * Step of the paths: a value at this step is loaded into {@link #getColumn() the column}, if any,
+     * and its attributes or elements are followed to the children.
+     */
+    static final class Node {
+
+        private static final Node[] NO_ELEMENTS = new Node[0];
+
+        private final Map<String, Node> fields = new HashMap<>();
+        private Node[] elements = NO_ELEMENTS;
+        private int column = -1;
+
+        int getColumn() {
+            return this.column;
+        }
+
+        /**
+         * @param name attribute name.
+         * @return child of the attribute, or {@code null} if no path continues through the attribute.
+         */
+        Node getField(final String name) {
+            return this.fields.get(name);
+        }
+
+        /**
+         * @param index array index.
+         * @return child of the element, or {@code null} if no path continues through the element.
+         */
+        Node getElement(final int index) {
+            return index < this.elements.length ? this.elements[index] : null;
+        }
+
+        boolean hasFields() {
+            return !this.fields.isEmpty();
+        }
+
+        boolean hasElements() {
+            return this.elements.length > 0;
+        }
+
+        private Node field(final String name) {
+            return this.fields.computeIfAbsent(name, n -> new Node());
+        }
+
+        private Node element(final int index) {
+            if (index >= this.elements.length) {
+                this.elements = Arrays.copyOf(this.elements, index + 1);
+            }
+            if (this.elements[index] == null) {
+                this.elements[index] = new Node();
+            }
+            return this.elements[index];
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+/**
+ * Encodes rows as JSON lines, one object per row with a field per column.
+ * Booleans and numbers are written as JSON booleans and numbers, any other value as a JSON string.
+ * The field names are encoded once.
+ */
+class JsonRowEncoder implements UnloadRowEncoder {
+
+    private final char[][] fieldNames;
+
+    JsonRowEncoder(final String[] columnNames) {
+        this.fieldNames = new char[columnNames.length][];
+        for (int i = 0; i < columnNames.length; i++) {
+            this.fieldNames[i] = ("\"" + new String(JsonStringEncoder.getInstance().quoteAsString(columnNames[i])) + "\":")
+                    .toCharArray();
+        }
+    }
+
+    @Override
+    public void encodeHeader(final String[] columnNames, final Writer out) {
+        // JSON lines have no header
+    }
+
+    @Override
+    public void encode(final Object[] row, final Writer out) throws IOException {
+        out.write('{');
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(this.fieldNames[i]);
+            encodeValue(row[i], out);
+        }
+        out.write("}\n");
+    }
+
+    private static void encodeValue(final Object value, final Writer out) throws IOException {
+        if (value == null) {
+            out.write("null");
+        } else if (value instanceof Boolean || isFiniteNumber(value)) {
+            out.write(value.toString());
+        } else {
+            out.write('"');
+            out.write(JsonStringEncoder.getInstance().quoteAsString(value.toString()));
+            out.write('"');
+        }
+    }
+
+    private static boolean isFiniteNumber(final Object value) {
+        if (value instanceof Double) {
+            return Double.isFinite((Double)value);
+        }
+        if (value instanceof Float) {
+            return Float.isFinite((Float)value);
+        }
+        return value instanceof Number;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Thread-safe cache that holds up to {@code maxSize} entries and evicts the least recently used entry
+ * when a new entry would exceed that size.
+ *
+ * @param <K> type of the keys.
+ * @param <V> type of the values.
+ */
+class LruCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    LruCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size should be a positive number");
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    synchronized V get(final K key) {
+        return this.entries.get(key);
+    }
+
+    synchronized boolean containsKey(final K key) {
+        return this.entries.containsKey(key);
+    }
+
+    synchronized void put(final K key, final V value) {
+        this.entries.put(key, value);
+    }
+
+    /**
+     * Returns the cached value of the key, computing and caching it if absent.
+     * The value is computed outside the lock, so concurrent callers may compute the same value more than once.
+     *
+     * @param key key.
+     * @param mappingFunction computes the value of the key, {@code null} values are not cached.
+     * @return cached or computed value.
+     */
+    V computeIfAbsent(final K key, final Function<K, V> mappingFunction) {
+        final V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final V computed = mappingFunction.apply(key);
+        if (computed != null) {
+            put(key, computed);
+        }
+        return computed;
+    }
+
+    synchronized void clear() {
+        this.entries.clear();
+    }
+
+    synchronized int size() {
+        return this.entries.size();
+    }
+}
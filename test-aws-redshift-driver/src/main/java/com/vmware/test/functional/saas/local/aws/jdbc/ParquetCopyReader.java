@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.avro.AvroSchemaConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.schema.MessageType;
+
+import lombok.EqualsAndHashCode;
+
+/**
+ * Reads {@code COPY} objects in {@code PARQUET} format, mapping the columns of the file to the table columns
+ * of the same name. The read is projected to the columns of the table, so only the footer and the column
+ * chunks of those columns are downloaded, with ranged requests.
+ */
+@EqualsAndHashCode
+class ParquetCopyReader implements CopyFormatReader {
+
+    @Override
+    public void read(final S3InputFile file, final TableMetadata table,
+            final CopyObjectPipeline.RowConsumer rowConsumer) throws IOException {
+        final Configuration conf = new Configuration();
+        final MessageType fileSchema;
+        try (ParquetFileReader footerReader = ParquetFileReader.open(file)) {
+            fileSchema = footerReader.getFooter().getFileMetaData().getSchema();
+        }
+        final Schema projection = project(new AvroSchemaConverter(conf).convert(fileSchema), table);
+        AvroReadSupport.setRequestedProjection(conf, projection);
+        AvroReadSupport.setAvroReadSchema(conf, projection);
+        final AvroRowMapper mapper = AvroRowMapper.of(projection, table);
+        try (ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(file)
+                .withConf(conf)
+                .build()) {
+            GenericRecord record;
+            while ((record = reader.read()) != null) {
+                rowConsumer.accept(mapper.toRow(record));
+            }
+        }
+    }
+
+    /**
+     * @return record schema with the fields of the file schema which have a column in the table.
+     */
+    private static Schema project(final Schema fileSchema, final TableMetadata table) {
+        final List<Schema.Field> fields = new ArrayList<>();
+        for (Schema.Field field : fileSchema.getFields()) {
+            if (AvroRowMapper.columnIndex(table, field.name()) >= 0) {
+                fields.add(new Schema.Field(field, field.schema()));
+            }
+        }
+        return Schema.createRecord(fileSchema.getName(), fileSchema.getDoc(), fileSchema.getNamespace(), false,
+                fields);
+    }
+}
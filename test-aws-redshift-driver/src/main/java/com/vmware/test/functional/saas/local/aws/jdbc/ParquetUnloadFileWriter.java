@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes an {@code UNLOAD} output file in Parquet format to a {@link S3OutputFile}.
+ */
+@Slf4j
+class ParquetUnloadFileWriter implements UnloadFileWriter {
+
+    private final S3OutputFile outputFile;
+    private final ParquetWriter<GenericRecord> writer;
+    /**
+     * Reused for every row, the Parquet writer does not keep references to the written records.
+     */
+    private final GenericData.Record record;
+
+    ParquetUnloadFileWriter(final S3OutputFile outputFile, final Schema schema) throws IOException {
+        this.outputFile = outputFile;
+        this.writer = AvroParquetWriter.<GenericRecord>builder(outputFile)
+                .withConf(new Configuration())
+                .withSchema(schema)
+                .withCompressionCodec(CompressionCodecName.SNAPPY)
+                .build();
+        this.record = new GenericData.Record(schema);
+    }
+
+    @Override
+    public void write(final Object[] row) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            this.record.put(i, row[i]);
+        }
+        this.writer.write(this.record);
+    }
+
+    @Override
+    public long getDataSize() {
+        return this.writer.getDataSize();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+
+    @Override
+    public void abort() {
+        // discard the parts uploaded so far, so that the partial object is not created
+        this.outputFile.abort();
+        try {
+            this.writer.close();
+        } catch (final IOException | RuntimeException e) {
+            log.debug("Unable to close aborted UNLOAD writer of [{}]", this.outputFile.getPath(), e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import lombok.SneakyThrows;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches the query maps configured with {@link TestRedshiftDriver#QUERY_MAP_CLASS}.
+ * The query map class is instantiated once per class name and key normalization, and its entries are
+ * copied into a hash map, so that a lookup does not construct the user's map again.
+ */
+@Slf4j
+class QueryMapRegistry {
+
+    private final ConcurrentMap<QueryMapKey, Map<String, String>> queryMaps = new ConcurrentHashMap<>();
+
+    /**
+     * Looks up the replacement of a SQL statement.
+     *
+     * @param queryMapClass name of a class implementing {@code Map<String, String>} with a public no-args constructor.
+     * @param normalizeWhitespace whether to match the statement with all whitespace runs collapsed to a single space.
+     * @param sql SQL statement.
+     * @return the replacement statement, if the query map has one.
+     */
+    Optional<String> lookup(final String queryMapClass, final boolean normalizeWhitespace, final String sql) {
+        final Map<String, String> queryMap = getQueryMap(queryMapClass, normalizeWhitespace);
+        if (queryMap.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(queryMap.get(normalizeWhitespace ? normalizeWhitespace(sql) : sql.trim()));
+    }
+
+    Map<String, String> getQueryMap(final String queryMapClass, final boolean normalizeWhitespace) {
+        return this.queryMaps.computeIfAbsent(new QueryMapKey(queryMapClass, normalizeWhitespace), QueryMapKey::load);
+    }
+
+    void clear() {
+        this.queryMaps.clear();
+    }
+
+    /**
+     * Collapses each run of whitespace characters to a single space and removes leading and trailing whitespace.
+     * Whitespace within string literals is collapsed too.
+     *
+     * @param sql SQL statement.
+     * @return normalized SQL statement.
+     */
+    static String normalizeWhitespace(final String sql) {
+        final StringBuilder normalized = new StringBuilder(sql.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < sql.length(); i++) {
+            final char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Identifies a loaded query map.
+     */
+    @Value
+    static class QueryMapKey {
+        String className;
+        boolean normalizeWhitespace;
+
+        @SneakyThrows
+        Map<String, String> load() {
+            final Object queryMapObj = Class.forName(this.className).getConstructor().newInstance();
+            if (!(queryMapObj instanceof Map)) {
+                log.warn("Query map class [{}] does not implement java.util.Map and is ignored", this.className);
+                return Collections.emptyMap();
+            }
+            final Map<String, String> queryMap = new HashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>)queryMapObj).entrySet()) {
+                final String key = String.valueOf(entry.getKey());
+                queryMap.put(this.normalizeWhitespace ? normalizeWhitespace(key) : key, (String)entry.getValue());
+            }
+            log.debug("Loaded [{}] queries from query map class [{}]", queryMap.size(), this.className);
+            return Collections.unmodifiableMap(queryMap);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.Set;
+
+/**
+ * Rules that rewrite Redshift constructs which Postgres does not support. Each rule is named after the
+ * keyword that starts its construct. Table and column attributes that only affect the storage in Redshift
+ * are removed.
+ */
+enum RedshiftRewriteRule implements SqlRewriteRule {
+
+    /**
+     * {@code VARCHAR(MAX)} to {@code VARCHAR(256)}.
+     */
+    VARCHAR(false) {
+        @Override
+        public int rewrite(final SqlTokens tokens, final int index, final StringBuilder out) {
+            final int open = tokens.skipBlanks(index + 1);
+            final int max = tokens.skipBlanks(open + 1);
+            final int close = tokens.skipBlanks(max + 1);
+            if (!tokens.isSymbol(open, '(') || !tokens.isWord(max, "MAX") || !tokens.isSymbol(close, ')')) {
+                return -1;
+            }
+            out.append("VARCHAR(256)");
+            return close + 1;
+        }
+    },
+    /**
+     * {@code DISTSTYLE KEY|AUTO|EVEN|ALL}, removed.
+     */
+    DISTSTYLE(true) {
+        @Override
+        public int rewrite(final SqlTokens tokens, final int index, final StringBuilder out) {
+            final int style = tokens.skipBlanks(index + 1);
+            return isOneOf(tokens, style, DISTRIBUTION_STYLES) ? style + 1 : -1;
+        }
+    },
+    /**
+     * {@code DISTKEY (column)} table attribute or {@code DISTKEY} column attribute, removed.
+     */
+    DISTKEY(true) {
+        @Override
+        public int rewrite(final SqlTokens tokens, final int index, final StringBuilder out) {
+            return skipOptionalColumnList(tokens, index);
+        }
+    },
+    /**
+     * {@code SORTKEY (columns)} or {@code SORTKEY AUTO} table attribute or {@code SORTKEY} column attribute,
+     * removed.
+     */
+    SORTKEY(true) {
+        @Override
+        public int rewrite(final SqlTokens tokens, final int index, final StringBuilder out) {
+            final int next = tokens.skipBlanks(index + 1);
+            return tokens.isWord(next, "AUTO") ? next + 1 : skipOptionalColumnList(tokens, index);
+        }
+    },
+    /**
+     * {@code COMPOUND SORTKEY (columns)}, removed.
+     */
+    COMPOUND(true) {
+        @Override
+        public int rewrite(final SqlTokens tokens, final int index, final StringBuilder out) {
+            return skipSortKey(tokens, index);
+        }
+    },
+    /**
+     * {@code INTERLEAVED SORTKEY (columns)}, removed.
+     */
+    INTERLEAVED(true) {
+        @Override
+        public int rewrite(final SqlTokens tokens, final int index, final StringBuilder out) {
+            return skipSortKey(tokens, index);
+        }
+    },
+    /**
+     * {@code ENCODE encoding} column attribute or {@code ENCODE AUTO} table attribute, removed.
+     */
+    ENCODE(true) {
+        @Override
+        public int rewrite(final SqlTokens tokens, final int index, final StringBuilder out) {
+            final int encoding = tokens.skipBlanks(index + 1);
+            return encoding < tokens.size() && tokens.getType(encoding) == SqlTokens.Type.WORD ? encoding + 1 : -1;
+        }
+    },
+    /**
+     * {@code BACKUP YES|NO} table attribute, removed.
+     */
+    BACKUP(true) {
+        @Override
+        public int rewrite(final SqlTokens tokens, final int index, final StringBuilder out) {
+            final int value = tokens.skipBlanks(index + 1);
+            return tokens.isWord(value, "YES") || tokens.isWord(value, "NO") ? value + 1 : -1;
+        }
+    },
+    /**
+     * {@code IDENTITY(seed, step)} column attribute to a Postgres identity column that starts with
+     * {@code seed}. Values may be inserted into the column, as with {@code GENERATED BY DEFAULT AS IDENTITY}
+     * in Redshift.
+     */
+    IDENTITY(true) {
+        @Override
+        public int rewrite(final SqlTokens tokens, final int index, final StringBuilder out) {
+            final int open = tokens.skipBlanks(index + 1);
+            if (!tokens.isSymbol(open, '(')) {
+                return -1;
+            }
+            final int close = tokens.closingParenthesis(open);
+            if (close < 0) {
+                return -1;
+            }
+            final long[] seedAndStep = parseSeedAndStep(tokens, open + 1, close);
+            if (seedAndStep == null) {
+                return -1;
+            }
+            final long seed = seedAndStep[0];
+            final long step = seedAndStep[1];
+            // GENERATED BY DEFAULT AS IDENTITY(seed, step) is Redshift syntax as well
+            if (!tokens.isWord(tokens.skipBlanksBackwards(index), "AS")) {
+                out.append("GENERATED BY DEFAULT AS ");
+            }
+            out.append("IDENTITY (START WITH ").append(seed)
+                    .append(" INCREMENT BY ").append(step)
+                    .append(step > 0 ? " MINVALUE " : " MAXVALUE ").append(seed)
+                    .append(')');
+            return close + 1;
+        }
+    },
+    /**
+     * {@code GETDATE()}, the start of the current statement without fractional seconds.
+     */
+    GETDATE(false) {
+        @Override
+        public int rewrite(final SqlTokens tokens, final int index, final StringBuilder out) {
+            final int open = tokens.skipBlanks(index + 1);
+            final int close = tokens.skipBlanks(open + 1);
+            if (!tokens.isSymbol(open, '(') || !tokens.isSymbol(close, ')')) {
+                return -1;
+            }
+            out.append("CAST(DATE_TRUNC('second', STATEMENT_TIMESTAMP()) AS TIMESTAMP)");
+            return close + 1;
+        }
+    },
+    /**
+     * {@code SYSDATE}, the start of the current transaction.
+     */
+    SYSDATE(false) {
+        @Override
+        public int rewrite(final SqlTokens tokens, final int index, final StringBuilder out) {
+            out.append("CAST(TRANSACTION_TIMESTAMP() AS TIMESTAMP)");
+            return index + 1;
+        }
+    };
+
+    private static final Set<String> DISTRIBUTION_STYLES = Set.of("KEY", "AUTO", "EVEN", "ALL");
+
+    private final boolean ddlOnly;
+
+    RedshiftRewriteRule(final boolean ddlOnly) {
+        this.ddlOnly = ddlOnly;
+    }
+
+    @Override
+    public String getKeyword() {
+        return name();
+    }
+
+    @Override
+    public boolean isDdlOnly() {
+        return this.ddlOnly;
+    }
+
+    private static boolean isOneOf(final SqlTokens tokens, final int index, final Set<String> keywords) {
+        for (String keyword : keywords) {
+            if (tokens.isWord(index, keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return index after the column list which follows the keyword, or after the keyword if it is not
+     *         followed by a column list.
+     */
+    private static int skipOptionalColumnList(final SqlTokens tokens, final int index) {
+        final int open = tokens.skipBlanks(index + 1);
+        if (!tokens.isSymbol(open, '(')) {
+            return index + 1;
+        }
+        final int close = tokens.closingParenthesis(open);
+        return close < 0 ? -1 : close + 1;
+    }
+
+    /**
+     * @return index after the {@code SORTKEY} attribute which follows the keyword, or {@code -1}.
+     */
+    private static int skipSortKey(final SqlTokens tokens, final int index) {
+        final int sortKey = tokens.skipBlanks(index + 1);
+        return tokens.isWord(sortKey, SORTKEY.name()) ? SORTKEY.rewrite(tokens, sortKey, null) : -1;
+    }
+
+    /**
+     * @return seed and step of {@code IDENTITY(seed, step)}, or {@code null} if the arguments are not
+     *         two integers.
+     */
+    private static long[] parseSeedAndStep(final SqlTokens tokens, final int from, final int to) {
+        final StringBuilder arguments = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (tokens.getType(i) != SqlTokens.Type.WHITESPACE && tokens.getType(i) != SqlTokens.Type.COMMENT) {
+                arguments.append(tokens.getText(i));
+            }
+        }
+        final String[] values = arguments.toString().split(",");
+        if (values.length != 2) {
+            return null;
+        }
+        try {
+            return new long[] { Long.parseLong(values[0]), Long.parseLong(values[1]) };
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+}
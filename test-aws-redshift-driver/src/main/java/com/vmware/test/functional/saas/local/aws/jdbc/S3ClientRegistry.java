@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import lombok.ToString;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches the {@link S3Client S3 clients} used by the {@code UNLOAD} and {@code COPY} commands.
+ * A client is created per distinct endpoint, credentials, region and connection pool size, and it is
+ * shared by all connections which use the same settings. The clients are closed together with the registry.
+ */
+@Slf4j
+class S3ClientRegistry implements AutoCloseable {
+
+    private final ConcurrentMap<ClientKey, S3Client> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the client for the S3 settings of the command context, creating it on first use.
+     *
+     * @param context command context.
+     * @return {@link S3Client}.
+     */
+    S3Client getClient(final ExecutionCommandParser.ExecutionCommandContext context) {
+        return this.clients.computeIfAbsent(new ClientKey(
+                        context.getS3EndpointUrl(),
+                        context.getDefaultAwsAccessKey(),
+                        context.getDefaultAwsSecretAccessKey(),
+                        context.getDefaultRegion(),
+                        context.getS3MaxConnections()),
+                ClientKey::buildClient);
+    }
+
+    int size() {
+        return this.clients.size();
+    }
+
+    @Override
+    public void close() {
+        for (ClientKey key : this.clients.keySet()) {
+            final S3Client client = this.clients.remove(key);
+            if (client != null) {
+                log.debug("Closing S3 client for [{}]", key);
+                client.close();
+            }
+        }
+    }
+
+    /**
+     * Settings that identify a client.
+     */
+    @Value
+    static class ClientKey {
+        String endpointUrl;
+        String accessKey;
+        @ToString.Exclude
+        String secretAccessKey;
+        String region;
+        int maxConnections;
+
+        S3Client buildClient() {
+            log.debug("Creating S3 client for [{}]", this);
+            return S3Client.builder()
+                    .credentialsProvider(StaticCredentialsProvider.create(
+                            AwsBasicCredentials.create(this.accessKey, this.secretAccessKey)))
+                    .endpointOverride(URI.create(this.endpointUrl))
+                    .region(Region.of(this.region))
+                    .httpClientBuilder(ApacheHttpClient.builder()
+                            .maxConnections(this.maxConnections))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+/**
+ * S3 object read by a {@code COPY} command.
+ * Row formats read the object as a single sequential stream, while Parquet reads it as an {@link InputFile}
+ * through ranged GET requests, so that only the footer and the column chunks of the projected columns are
+ * downloaded.
+ */
+class S3InputFile implements InputFile {
+
+    /**
+     * Small reads, like the Parquet footer and page headers, are served from a read-ahead window of this size,
+     * larger reads are downloaded directly into the caller's buffer.
+     */
+    private static final int READ_AHEAD_SIZE = 256 * 1024;
+
+    private final S3Client client;
+    private final GetObjectRequest request;
+    private final boolean gzipCompressed;
+    private final TransferCounters transferCounters;
+    private long length = -1;
+
+    /**
+     * @param client S3 client.
+     * @param request request of the whole object.
+     * @param gzipCompressed whether the sequential stream is GZIP compressed.
+     */
+    S3InputFile(final S3Client client, final GetObjectRequest request, final boolean gzipCompressed) {
+        this(client, request, gzipCompressed, new TransferCounters());
+    }
+
+    /**
+     * @param client S3 client.
+     * @param request request of the whole object.
+     * @param gzipCompressed whether the sequential stream is GZIP compressed.
+     * @param transferCounters counts the downloaded bytes.
+     */
+    S3InputFile(final S3Client client, final GetObjectRequest request, final boolean gzipCompressed,
+            final TransferCounters transferCounters) {
+        this.client = client;
+        this.request = request;
+        this.gzipCompressed = gzipCompressed;
+        this.transferCounters = transferCounters;
+    }
+
+    /**
+     * @return {@code s3://} URL of the object.
+     */
+    String getPath() {
+        return "s3://" + this.request.bucket() + "/" + this.request.key();
+    }
+
+    /**
+     * Opens the whole object for a sequential read.
+     *
+     * @return stream of the object, decompressed if it is compressed.
+     * @throws IOException if the stream could not be opened.
+     */
+    InputStream openStream() throws IOException {
+        final ResponseInputStream<GetObjectResponse> objectIs = this.client.getObject(this.request);
+        // the whole object is read
+        final Long contentLength = objectIs.response().contentLength();
+        if (contentLength != null) {
+            this.transferCounters.addS3BytesRead(contentLength);
+        }
+        return this.gzipCompressed ? new GZIPInputStream(objectIs) : objectIs;
+    }
+
+    @Override
+    public long getLength() {
+        if (this.length < 0) {
+            this.length = this.client.headObject(HeadObjectRequest.builder()
+                    .bucket(this.request.bucket())
+                    .key(this.request.key())
+                    .build())
+                    .contentLength();
+        }
+        return this.length;
+    }
+
+    @Override
+    public SeekableInputStream newStream() {
+        return new S3SeekableInputStream(getLength());
+    }
+
+    /**
+     * Downloads a range of the object.
+     */
+    private void readRange(final long position, final byte[] buffer, final int offset, final int length)
+            throws IOException {
+        final GetObjectRequest rangeRequest = this.request.toBuilder()
+                .range("bytes=" + position + "-" + (position + length - 1))
+                .build();
+        try (InputStream rangeIs = this.client.getObject(rangeRequest)) {
+            final int read = rangeIs.readNBytes(buffer, offset, length);
+            if (read != length) {
+                throw new EOFException("Unexpected end of [" + getPath() + "] at [" + (position + read) + "]");
+            }
+            this.transferCounters.addS3BytesRead(length);
+        }
+    }
+
+    /**
+     * Seekable stream of the object, which downloads the ranges that are read.
+     */
+    private final class S3SeekableInputStream extends SeekableInputStream {
+
+        private final long objectLength;
+        private final byte[] window = new byte[READ_AHEAD_SIZE];
+        private long windowStart;
+        private int windowLength;
+        private long position;
+
+        S3SeekableInputStream(final long objectLength) {
+            this.objectLength = objectLength;
+        }
+
+        @Override
+        public long getPos() {
+            return this.position;
+        }
+
+        @Override
+        public void seek(final long newPos) throws IOException {
+            if (newPos < 0 || newPos > this.objectLength) {
+                throw new EOFException("Unable to seek to [" + newPos + "] in [" + getPath() + "]");
+            }
+            this.position = newPos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (this.position >= this.objectLength) {
+                return -1;
+            }
+            fillWindow();
+            return this.window[(int)(this.position++ - this.windowStart)] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (this.position >= this.objectLength) {
+                return -1;
+            }
+            final int n = (int)Math.min(len, this.objectLength - this.position);
+            if (n >= READ_AHEAD_SIZE && !inWindow()) {
+                readRange(this.position, b, off, n);
+                this.position += n;
+                return n;
+            }
+            fillWindow();
+            final int available = (int)Math.min(n, this.windowStart + this.windowLength - this.position);
+            System.arraycopy(this.window, (int)(this.position - this.windowStart), b, off, available);
+            this.position += available;
+            return available;
+        }
+
+        @Override
+        public void readFully(final byte[] bytes) throws IOException {
+            readFully(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void readFully(final byte[] bytes, final int start, final int len) throws IOException {
+            int done = 0;
+            while (done < len) {
+                final int n = read(bytes, start + done, len - done);
+                if (n < 0) {
+                    throw new EOFException("Unexpected end of [" + getPath() + "]");
+                }
+                done += n;
+            }
+        }
+
+        @Override
+        public int read(final ByteBuffer buf) throws IOException {
+            final int len = buf.remaining();
+            final int n;
+            if (buf.hasArray()) {
+                n = read(buf.array(), buf.arrayOffset() + buf.position(), len);
+                if (n > 0) {
+                    buf.position(buf.position() + n);
+                }
+            } else {
+                final byte[] bytes = new byte[Math.min(len, READ_AHEAD_SIZE)];
+                n = read(bytes, 0, bytes.length);
+                if (n > 0) {
+                    buf.put(bytes, 0, n);
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public void readFully(final ByteBuffer buf) throws IOException {
+            while (buf.hasRemaining()) {
+                if (read(buf) < 0) {
+                    throw new EOFException("Unexpected end of [" + getPath() + "]");
+                }
+            }
+        }
+
+        private boolean inWindow() {
+            return this.position >= this.windowStart && this.position < this.windowStart + this.windowLength;
+        }
+
+        private void fillWindow() throws IOException {
+            if (!inWindow()) {
+                this.windowStart = this.position;
+                this.windowLength = (int)Math.min(READ_AHEAD_SIZE, this.objectLength - this.position);
+                readRange(this.windowStart, this.window, 0, this.windowLength);
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes an S3 object as a multipart upload while the data is produced.
+ * The data is buffered in memory until a part is full, and the full part is uploaded on the provided
+ * executor while the writer fills the next part. At most {@code maxPartsInFlight} parts are uploaded
+ * at the same time, so the memory held by the stream is bounded by {@code (maxPartsInFlight + 1) * partSize}.
+ * An object smaller than a part is uploaded with a single {@code PutObject} request when the stream is closed.
+ * <p>
+ * The object is created when the stream is closed. A stream which is {@link #abort() aborted} discards the
+ * uploaded parts and does not create the object.
+ */
+@Slf4j
+class S3MultipartOutputStream extends OutputStream {
+
+    private final S3Client client;
+    private final String bucket;
+    private final String key;
+    private final int partSize;
+    private final int maxBuffers;
+    private final Executor executor;
+    private final BlockingQueue<byte[]> freeBuffers;
+    private final List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+    private final TransferCounters transferCounters;
+
+    private byte[] buffer;
+    private int count;
+    private int allocatedBuffers;
+    @Getter
+    private long position;
+    private String uploadId;
+    private volatile Throwable failure;
+    private boolean closed;
+
+    S3MultipartOutputStream(final S3Client client, final String bucket, final String key,
+            final int partSize, final int maxPartsInFlight, final Executor executor) {
+        this(client, bucket, key, partSize, maxPartsInFlight, executor, new TransferCounters());
+    }
+
+    /**
+     * @param transferCounters counts the uploaded bytes.
+     */
+    S3MultipartOutputStream(final S3Client client, final String bucket, final String key,
+            final int partSize, final int maxPartsInFlight, final Executor executor,
+            final TransferCounters transferCounters) {
+        if (partSize <= 0 || maxPartsInFlight <= 0) {
+            throw new IllegalArgumentException("Part size and parts in flight should be positive numbers");
+        }
+        this.client = client;
+        this.bucket = bucket;
+        this.key = key;
+        this.partSize = partSize;
+        this.maxBuffers = maxPartsInFlight + 1;
+        this.executor = executor;
+        this.freeBuffers = new ArrayBlockingQueue<>(this.maxBuffers);
+        this.transferCounters = transferCounters;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        if (this.buffer == null) {
+            this.buffer = nextBuffer();
+        }
+        this.buffer[this.count++] = (byte)b;
+        this.position++;
+        if (this.count == this.partSize) {
+            uploadPart();
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        ensureOpen();
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (this.buffer == null) {
+                this.buffer = nextBuffer();
+            }
+            final int chunk = Math.min(remaining, this.partSize - this.count);
+            System.arraycopy(b, offset, this.buffer, this.count, chunk);
+            this.count += chunk;
+            this.position += chunk;
+            offset += chunk;
+            remaining -= chunk;
+            if (this.count == this.partSize) {
+                uploadPart();
+            }
+        }
+    }
+
+    /**
+     * Uploads the remaining data and completes the upload.
+     * If any part failed to upload, the upload is aborted and the failure is rethrown.
+     *
+     * @throws IOException if the object could not be created.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        try {
+            if (this.uploadId == null) {
+                putObject();
+            } else {
+                if (this.count > 0) {
+                    uploadPart();
+                }
+                completeUpload();
+            }
+            this.closed = true;
+        } catch (final IOException | RuntimeException e) {
+            abort();
+            throw e;
+        }
+    }
+
+    /**
+     * Discards the data written so far. The object is not created, and later writes fail.
+     */
+    void abort() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.buffer = null;
+        if (this.uploadId != null) {
+            log.debug("Aborting multipart upload of [s3://{}/{}]", this.bucket, this.key);
+            try {
+                CompletableFuture.allOf(this.parts.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+                this.client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(this.bucket)
+                        .key(this.key)
+                        .uploadId(this.uploadId)
+                        .build());
+            } catch (final RuntimeException e) {
+                log.warn("Unable to abort multipart upload of [s3://{}/{}]", this.bucket, this.key, e);
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Upload of [s3://" + this.bucket + "/" + this.key + "] is closed");
+        }
+        if (this.failure != null) {
+            throw new IOException("Upload of [s3://" + this.bucket + "/" + this.key + "] failed", this.failure);
+        }
+    }
+
+    /**
+     * Takes a free buffer, allocating a new one if fewer than the maximum were allocated so far,
+     * else waiting for an upload to finish.
+     */
+    private byte[] nextBuffer() throws IOException {
+        final byte[] free = this.freeBuffers.poll();
+        if (free != null) {
+            return free;
+        }
+        if (this.allocatedBuffers < this.maxBuffers) {
+            this.allocatedBuffers++;
+            return new byte[this.partSize];
+        }
+        try {
+            return this.freeBuffers.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload of [s3://" + this.bucket + "/" + this.key + "] was interrupted");
+        }
+    }
+
+    private void uploadPart() throws IOException {
+        ensureOpen();
+        if (this.uploadId == null) {
+            this.uploadId = this.client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                    .bucket(this.bucket)
+                    .key(this.key)
+                    .build())
+                    .uploadId();
+        }
+        final byte[] data = this.buffer;
+        final int length = this.count;
+        final int partNumber = this.parts.size() + 1;
+        this.buffer = null;
+        this.count = 0;
+        this.parts.add(CompletableFuture.supplyAsync(() -> {
+            try {
+                final String eTag = this.client.uploadPart(UploadPartRequest.builder()
+                                .bucket(this.bucket)
+                                .key(this.key)
+                                .uploadId(this.uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long)length)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(data, 0, length), length))
+                        .eTag();
+                this.transferCounters.addS3BytesWritten(length);
+                return CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(eTag)
+                        .build();
+            } catch (final RuntimeException e) {
+                this.failure = e;
+                throw e;
+            } finally {
+                this.freeBuffers.offer(data);
+            }
+        }, this.executor));
+    }
+
+    private void completeUpload() throws IOException {
+        final List<CompletedPart> completedParts;
+        try {
+            completedParts = this.parts.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList());
+        } catch (final CompletionException e) {
+            throw new IOException("Upload of [s3://" + this.bucket + "/" + this.key + "] failed", e.getCause());
+        }
+        this.client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(this.bucket)
+                .key(this.key)
+                .uploadId(this.uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder()
+                        .parts(completedParts)
+                        .build())
+                .build());
+        log.debug("Uploaded [s3://{}/{}] in [{}] parts", this.bucket, this.key, completedParts.size());
+    }
+
+    private void putObject() {
+        final byte[] data = this.buffer == null ? new byte[0] : this.buffer;
+        this.client.putObject(PutObjectRequest.builder()
+                        .bucket(this.bucket)
+                        .key(this.key)
+                        .build(),
+                RequestBody.fromInputStream(new ByteArrayInputStream(data, 0, this.count), this.count));
+        this.transferCounters.addS3BytesWritten(this.count);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+/**
+ * Parquet {@link OutputFile} that streams the file to S3 through a {@link S3MultipartOutputStream},
+ * so that no local file is written.
+ */
+class S3OutputFile implements OutputFile {
+
+    private final String path;
+    private final Supplier<S3MultipartOutputStream> streamFactory;
+    private S3MultipartOutputStream stream;
+
+    /**
+     * @param path {@code s3://} URL of the object, used for logging only.
+     * @param streamFactory creates the stream when the file is created.
+     */
+    S3OutputFile(final String path, final Supplier<S3MultipartOutputStream> streamFactory) {
+        this.path = path;
+        this.streamFactory = streamFactory;
+    }
+
+    @Override
+    public PositionOutputStream create(final long blockSizeHint) throws IOException {
+        if (this.stream != null) {
+            throw new IOException("File [" + this.path + "] was already created");
+        }
+        this.stream = this.streamFactory.get();
+        return new S3PositionOutputStream(this.stream);
+    }
+
+    @Override
+    public PositionOutputStream createOrOverwrite(final long blockSizeHint) throws IOException {
+        // the object is only created when the upload completes, so there is nothing to overwrite
+        return create(blockSizeHint);
+    }
+
+    @Override
+    public boolean supportsBlockSize() {
+        return false;
+    }
+
+    @Override
+    public long defaultBlockSize() {
+        return 0;
+    }
+
+    public String getPath() {
+        return this.path;
+    }
+
+    /**
+     * Discards the file, if it was created.
+     */
+    void abort() {
+        if (this.stream != null) {
+            this.stream.abort();
+        }
+    }
+
+    /**
+     * Exposes the position of the upload stream.
+     */
+    private static final class S3PositionOutputStream extends PositionOutputStream {
+
+        private final S3MultipartOutputStream stream;
+
+        S3PositionOutputStream(final S3MultipartOutputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public long getPos() {
+            return this.stream.getPosition();
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            this.stream.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            this.stream.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.stream.close();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs the statements which took longer than {@link TestRedshiftDriver#SLOW_STATEMENT_THRESHOLD_MILLIS}.
+ */
+@Slf4j
+class SlowStatementLogger implements StatementMetricsListener {
+
+    private final long thresholdNanos;
+
+    SlowStatementLogger(final long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    @Override
+    public void statementExecuted(final StatementMetrics metrics) {
+        if (metrics.getTotalNanos() >= this.thresholdNanos) {
+            log.warn("Slow [{}] statement took [{}] ms (parse [{}] ms, execution [{}] ms, rows [{}/{}], "
+                            + "S3 bytes [{}/{}]): [{}]",
+                    metrics.getCommandType(),
+                    TimeUnit.NANOSECONDS.toMillis(metrics.getTotalNanos()),
+                    TimeUnit.NANOSECONDS.toMillis(metrics.getParseNanos()),
+                    TimeUnit.NANOSECONDS.toMillis(metrics.getExecutionNanos()),
+                    metrics.getRowsRead(), metrics.getRowsWritten(),
+                    metrics.getS3BytesRead(), metrics.getS3BytesWritten(),
+                    metrics.getSql());
+        }
+    }
+}
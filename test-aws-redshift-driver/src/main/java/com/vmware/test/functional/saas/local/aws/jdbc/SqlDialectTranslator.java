@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Translates SQL statements from one dialect to another with {@link SqlRewriteRule rewrite rules}.
+ * <p>
+ * The statement is {@link SqlTokens tokenized} once, and all rules are applied in a single pass over
+ * the tokens: each keyword outside of literals and comments is offered to the rules of that keyword, and
+ * the tokens a rule rewrites are not visited again. Translating a statement, or a script of statements,
+ * takes time linear in its length. Translations are cached per distinct statement.
+ */
+@Slf4j
+final class SqlDialectTranslator {
+
+    /**
+     * Statements that are longer than this are not cached, as they are most likely scripts or statements
+     * with inlined values that are not executed again.
+     */
+    private static final int MAX_CACHED_SQL_LENGTH = 8192;
+    private static final List<String> DDL_KEYWORDS = List.of("CREATE", "ALTER");
+
+    private final SqlRewriteRule[] rules;
+    private final LruCache<String, String> translations;
+
+    /**
+     * @param rules rewrite rules.
+     * @param cacheSize maximum number of cached translations.
+     */
+    SqlDialectTranslator(final List<? extends SqlRewriteRule> rules, final int cacheSize) {
+        this.rules = rules.toArray(new SqlRewriteRule[0]);
+        this.translations = new LruCache<>(cacheSize);
+    }
+
+    /**
+     * @param sql SQL statement or script.
+     * @return translated statement, or the statement itself if no rule applies.
+     */
+    String translate(final String sql) {
+        if (sql.length() > MAX_CACHED_SQL_LENGTH) {
+            return translateStatement(sql);
+        }
+        return this.translations.computeIfAbsent(sql, this::translateStatement);
+    }
+
+    // cyclomatic complexity
+    // CHECKSTYLE:OFF
+    private String translateStatement(final String sql) {
+        final SqlTokens tokens = SqlTokens.tokenize(sql);
+        StringBuilder out = null;
+        int copied = 0;
+        boolean statementStart = true;
+        boolean ddl = false;
+        int i = 0;
+        while (i < tokens.size()) {
+            int next = -1;
+            if (tokens.isSymbol(i, ';')) {
+                statementStart = true;
+            } else if (tokens.getType(i) == SqlTokens.Type.WORD) {
+                if (statementStart) {
+                    ddl = isDdlKeyword(tokens, i);
+                    statementStart = false;
+                }
+                // qualified names, e.g. a column named like a keyword, are not rewritten
+                final boolean qualified = i > 0 && tokens.isSymbol(i - 1, '.');
+                for (int r = 0; r < this.rules.length && next < 0 && !qualified; r++) {
+                    final SqlRewriteRule rule = this.rules[r];
+                    if ((ddl || !rule.isDdlOnly()) && tokens.isWord(i, rule.getKeyword())) {
+                        if (out == null) {
+                            out = new StringBuilder(sql.length());
+                        }
+                        tokens.appendTo(out, copied, i);
+                        copied = i;
+                        next = rule.rewrite(tokens, i, out);
+                    }
+                }
+            }
+            if (next > i) {
+                copied = next;
+                i = next;
+            } else {
+                i++;
+            }
+        }
+        if (out == null) {
+            return sql;
+        }
+        tokens.appendTo(out, copied, tokens.size());
+        final String translated = out.toString();
+        if (translated.equals(sql)) {
+            return sql;
+        }
+        log.info("Sql query [{}] is modified. New command to be executed is [{}]", sql, translated);
+        return translated;
+    }
+    // CHECKSTYLE:ON
+
+    private static boolean isDdlKeyword(final SqlTokens tokens, final int index) {
+        for (String keyword : DDL_KEYWORDS) {
+            if (tokens.isWord(index, keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+/**
+ * Rewrites a construct of a SQL dialect, which starts with a keyword, for {@link SqlDialectTranslator}.
+ */
+interface SqlRewriteRule {
+
+    /**
+     * @return keyword which starts the construct, matched ignoring case.
+     */
+    String getKeyword();
+
+    /**
+     * @return whether the rule applies only to {@code CREATE} and {@code ALTER} statements, e.g. rules of
+     *         table and column attributes.
+     */
+    default boolean isDdlOnly() {
+        return false;
+    }
+
+    /**
+     * Rewrites the construct that starts at the keyword, if the tokens after the keyword match it.
+     *
+     * @param tokens tokens of the statement.
+     * @param index index of the keyword token.
+     * @param out translated statement, to which the replacement of the construct is appended.
+     * @return index of the first token after the construct, or {@code -1} if the tokens do not match
+     *         the construct, in which case nothing is appended.
+     */
+    int rewrite(SqlTokens tokens, int index, StringBuilder out);
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.List;
+
+/**
+ * Kind of a SQL statement, derived from its leading keyword.
+ * The classification is a single scan over the leading whitespace, comments and keyword of the statement,
+ * so that statements which can not be a Redshift specific command skip the command patterns.
+ */
+enum SqlStatementKind {
+    UNLOAD,
+    COPY,
+    /**
+     * {@code CREATE}, {@code ALTER} or {@code DROP} statements.
+     */
+    DDL,
+    /**
+     * {@code SET} or {@code RESET} statements, whose errors on unknown configuration options may be suppressed.
+     */
+    CONFIG,
+    /**
+     * Any other statement.
+     */
+    OTHER;
+
+    private static final List<String> DDL_KEYWORDS = List.of("CREATE", "ALTER", "DROP");
+    private static final List<String> CONFIG_KEYWORDS = List.of("SET", "RESET");
+
+    static SqlStatementKind classify(final String sql) {
+        final int start = skipWhitespaceAndComments(sql);
+        if (startsWithKeyword(sql, start, UNLOAD.name())) {
+            return UNLOAD;
+        }
+        if (startsWithKeyword(sql, start, COPY.name())) {
+            return COPY;
+        }
+        for (String keyword : DDL_KEYWORDS) {
+            if (startsWithKeyword(sql, start, keyword)) {
+                return DDL;
+            }
+        }
+        for (String keyword : CONFIG_KEYWORDS) {
+            if (startsWithKeyword(sql, start, keyword)) {
+                return CONFIG;
+            }
+        }
+        return OTHER;
+    }
+
+    private static boolean startsWithKeyword(final String sql, final int start, final String keyword) {
+        final int end = start + keyword.length();
+        return sql.regionMatches(true, start, keyword, 0, keyword.length())
+                && (end == sql.length() || !Character.isLetterOrDigit(sql.charAt(end)) && sql.charAt(end) != '_');
+    }
+
+    /**
+     * @param sql SQL statement.
+     * @return index of the first character of the statement which is not a whitespace or part of a comment.
+     */
+    // CHECKSTYLE:OFF
+    // cyclomatic complexity
+    static int skipWhitespaceAndComments(final String sql) {
+        int i = 0;
+        final int length = sql.length();
+        while (i < length) {
+            final char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                final int lineEnd = sql.indexOf('\n', i + 2);
+                i = lineEnd < 0 ? length : lineEnd + 1;
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                final int commentEnd = sql.indexOf("*/", i + 2);
+                i = commentEnd < 0 ? length : commentEnd + 2;
+            } else {
+                return i;
+            }
+        }
+        return length;
+    }
+    // CHECKSTYLE:ON
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.Arrays;
+
+/**
+ * Tokens of a SQL statement, from a single scan of the statement. The tokens cover the whole statement, so
+ * appending the text of all tokens gives back the statement.
+ * <p>
+ * String literals, quoted identifiers, dollar quoted strings and comments are single tokens, so that their
+ * content is never taken for keywords.
+ */
+final class SqlTokens {
+
+    /**
+     * Type of a token.
+     */
+    enum Type {
+        /**
+         * Keyword or unquoted identifier.
+         */
+        WORD,
+        NUMBER,
+        /**
+         * String literal, quoted identifier or dollar quoted string.
+         */
+        QUOTED,
+        WHITESPACE,
+        COMMENT,
+        /**
+         * Any other character, e.g. a parenthesis or an operator.
+         */
+        SYMBOL
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String sql;
+    private Type[] types = new Type[INITIAL_CAPACITY];
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private SqlTokens(final String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Splits a SQL statement into tokens.
+     *
+     * @param sql SQL statement or script.
+     * @return tokens of the statement.
+     */
+    // cyclomatic complexity
+    // CHECKSTYLE:OFF
+    static SqlTokens tokenize(final String sql) {
+        final SqlTokens tokens = new SqlTokens(sql);
+        final int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            final char c = sql.charAt(i);
+            final int start = i;
+            final Type type;
+            if (Character.isWhitespace(c)) {
+                type = Type.WHITESPACE;
+                do {
+                    i++;
+                } while (i < length && Character.isWhitespace(sql.charAt(i)));
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                type = Type.COMMENT;
+                final int lineEnd = sql.indexOf('\n', i + 2);
+                i = lineEnd < 0 ? length : lineEnd;
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                type = Type.COMMENT;
+                final int commentEnd = sql.indexOf("*/", i + 2);
+                i = commentEnd < 0 ? length : commentEnd + 2;
+            } else if (c == '\'' || c == '"') {
+                type = Type.QUOTED;
+                i = quotedEnd(sql, i, c == '\'' && tokens.isEscapeStringPrefix(i));
+            } else if (c == '$' && dollarTagEnd(sql, i) > 0) {
+                type = Type.QUOTED;
+                final int tagEnd = dollarTagEnd(sql, i);
+                final int closingTag = sql.indexOf(sql.substring(i, tagEnd), tagEnd);
+                i = closingTag < 0 ? length : closingTag + tagEnd - i;
+            } else if (Character.isLetter(c) || c == '_') {
+                type = Type.WORD;
+                do {
+                    i++;
+                } while (i < length && isWordPart(sql.charAt(i)));
+            } else if (Character.isDigit(c)) {
+                type = Type.NUMBER;
+                do {
+                    i++;
+                } while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.'));
+            } else {
+                type = Type.SYMBOL;
+                i++;
+            }
+            tokens.add(type, start);
+        }
+        return tokens;
+    }
+    // CHECKSTYLE:ON
+
+    int size() {
+        return this.size;
+    }
+
+    Type getType(final int index) {
+        return this.types[index];
+    }
+
+    int getStart(final int index) {
+        return this.starts[index];
+    }
+
+    int getEnd(final int index) {
+        return index + 1 < this.size ? this.starts[index + 1] : this.sql.length();
+    }
+
+    String getText(final int index) {
+        return this.sql.substring(getStart(index), getEnd(index));
+    }
+
+    /**
+     * @return whether the token is the keyword, ignoring case.
+     */
+    boolean isWord(final int index, final String keyword) {
+        return index < this.size
+                && this.types[index] == Type.WORD
+                && getEnd(index) - getStart(index) == keyword.length()
+                && this.sql.regionMatches(true, getStart(index), keyword, 0, keyword.length());
+    }
+
+    boolean isSymbol(final int index, final char symbol) {
+        return index < this.size && this.types[index] == Type.SYMBOL && this.sql.charAt(getStart(index)) == symbol;
+    }
+
+    /**
+     * @return index of the first token at or after {@code index} which is not whitespace or a comment,
+     *         or {@link #size()} if there is none.
+     */
+    int skipBlanks(final int index) {
+        int i = index;
+        while (i < this.size && (this.types[i] == Type.WHITESPACE || this.types[i] == Type.COMMENT)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return index of the last token before {@code index} which is not whitespace or a comment, or {@code -1}.
+     */
+    int skipBlanksBackwards(final int index) {
+        int i = index - 1;
+        while (i >= 0 && (this.types[i] == Type.WHITESPACE || this.types[i] == Type.COMMENT)) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * @param index index of an opening parenthesis.
+     * @return index of the matching closing parenthesis, or {@code -1} if it is missing.
+     */
+    int closingParenthesis(final int index) {
+        int depth = 0;
+        for (int i = index; i < this.size; i++) {
+            if (isSymbol(i, '(')) {
+                depth++;
+            } else if (isSymbol(i, ')') && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends the text of the tokens from {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    void appendTo(final StringBuilder out, final int from, final int to) {
+        if (from < to) {
+            out.append(this.sql, getStart(from), getEnd(to - 1));
+        }
+    }
+
+    private void add(final Type type, final int start) {
+        if (this.size == this.types.length) {
+            this.types = Arrays.copyOf(this.types, this.size * 2);
+            this.starts = Arrays.copyOf(this.starts, this.size * 2);
+        }
+        this.types[this.size] = type;
+        this.starts[this.size] = start;
+        this.size++;
+    }
+
+    /**
+     * @return whether the string literal starting at {@code quote} has the {@code E} prefix of strings
+     *         with backslash escapes.
+     */
+    private boolean isEscapeStringPrefix(final int quote) {
+        return this.size > 0
+                && this.types[this.size - 1] == Type.WORD
+                && quote - this.starts[this.size - 1] == 1
+                && Character.toUpperCase(this.sql.charAt(quote - 1)) == 'E';
+    }
+
+    private static boolean isWordPart(final char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * @return index after the closing quote, a doubled quote is part of the value.
+     */
+    private static int quotedEnd(final String sql, final int start, final boolean backslashEscapes) {
+        final char quote = sql.charAt(start);
+        int i = start + 1;
+        while (i < sql.length()) {
+            final char c = sql.charAt(i);
+            if (backslashEscapes && c == '\\') {
+                i += 2;
+            } else if (c == quote && i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return sql.length();
+    }
+
+    /**
+     * @return index after the opening tag of a dollar quoted string, e.g. {@code $$} or {@code $body$},
+     *         or {@code -1} if there is no tag at {@code start}.
+     */
+    private static int dollarTagEnd(final String sql, final int start) {
+        int i = start + 1;
+        while (i < sql.length() && (Character.isLetter(sql.charAt(i)) || sql.charAt(i) == '_')) {
+            i++;
+        }
+        return i < sql.length() && sql.charAt(i) == '$' ? i + 1 : -1;
+    }
+}
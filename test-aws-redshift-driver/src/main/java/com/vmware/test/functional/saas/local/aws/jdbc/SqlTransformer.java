@@ -5,13 +5,17 @@
 
 package com.vmware.test.functional.saas.local.aws.jdbc;
 
+import java.nio.ByteBuffer;
+import java.sql.Date;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.sql.Types;
 
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
-import org.apache.avro.generic.GenericRecordBuilder;
 
 /**
  * Transforms SQL types into another format.
@@ -21,46 +25,50 @@ final class SqlTransformer {
     private SqlTransformer() {
     }
 
+    /**
+     * Creates the extractor of a column, which reads the column by index and converts the value to the
+     * Avro type of the field created by {@link #extractSchema}. SQL {@code NULL} values are extracted as {@code null}.
+     *
+     * @param sqlType SQL type of the column, see {@link Types}.
+     * @return column extractor.
+     */
     // cyclomatic complexity 39
     // CHECKSTYLE:OFF
-    static void extractResult(int sqlType,
-            String sqlColumnName,
-            ResultSet resultSet,
-            GenericRecordBuilder genericRecordBuilder) throws SQLException {
-
+    static ColumnExtractor extractor(int sqlType) {
         switch (sqlType) {
         case Types.BOOLEAN:
-            genericRecordBuilder.set(sqlColumnName, resultSet.getBoolean(sqlColumnName));
-            break;
+            return (resultSet, columnIndex) -> nullable(resultSet, resultSet.getBoolean(columnIndex));
         case Types.TINYINT:
         case Types.SMALLINT:
         case Types.INTEGER:
-            genericRecordBuilder.set(sqlColumnName,  resultSet.getInt(sqlColumnName));
-            break;
+            return (resultSet, columnIndex) -> nullable(resultSet, resultSet.getInt(columnIndex));
         case Types.BIGINT:
         case Types.ROWID:
-            genericRecordBuilder.set(sqlColumnName,  resultSet.getLong(sqlColumnName));
-            break;
+            return (resultSet, columnIndex) -> nullable(resultSet, resultSet.getLong(columnIndex));
         case Types.REAL:
         case Types.FLOAT:
-            genericRecordBuilder.set(sqlColumnName,  resultSet.getFloat(sqlColumnName));
-            break;
+            return (resultSet, columnIndex) -> nullable(resultSet, resultSet.getFloat(columnIndex));
         case Types.DOUBLE:
         case Types.NUMERIC:
         case Types.DECIMAL:
-            genericRecordBuilder.set(sqlColumnName,  resultSet.getDouble(sqlColumnName));
-            break;
+            return (resultSet, columnIndex) -> nullable(resultSet, resultSet.getDouble(columnIndex));
         case Types.DATE:
-            genericRecordBuilder.set(sqlColumnName,  resultSet.getDate(sqlColumnName).getTime());
-            break;
+            return (resultSet, columnIndex) -> {
+                final Date date = resultSet.getDate(columnIndex);
+                return date == null ? null : date.getTime();
+            };
         case Types.TIME:
         case Types.TIME_WITH_TIMEZONE:
-            genericRecordBuilder.set(sqlColumnName,  resultSet.getTime(sqlColumnName).getTime());
-            break;
+            return (resultSet, columnIndex) -> {
+                final Time time = resultSet.getTime(columnIndex);
+                return time == null ? null : time.getTime();
+            };
         case Types.TIMESTAMP:
         case Types.TIMESTAMP_WITH_TIMEZONE:
-            genericRecordBuilder.set(sqlColumnName,  resultSet.getTimestamp(sqlColumnName).getTime());
-            break;
+            return (resultSet, columnIndex) -> {
+                final Timestamp timestamp = resultSet.getTimestamp(columnIndex);
+                return timestamp == null ? null : timestamp.getTime();
+            };
         case Types.BINARY:
         case Types.VARBINARY:
         case Types.LONGVARBINARY:
@@ -76,8 +84,10 @@ final class SqlTransformer {
         case Types.DATALINK:
         case Types.NCLOB:
         case Types.REF_CURSOR:
-            genericRecordBuilder.set(sqlColumnName,  resultSet.getByte(sqlColumnName));
-            break;
+            return (resultSet, columnIndex) -> {
+                final byte[] bytes = resultSet.getBytes(columnIndex);
+                return bytes == null ? null : ByteBuffer.wrap(bytes);
+            };
         case Types.CHAR:
         case Types.VARCHAR:
         case Types.LONGVARCHAR:
@@ -86,11 +96,61 @@ final class SqlTransformer {
         case Types.LONGNVARCHAR:
         case Types.SQLXML:
         default:
-            genericRecordBuilder.set(sqlColumnName,  resultSet.getString(sqlColumnName));
+            return ResultSet::getString;
         }
     }
     // CHECKSTYLE:ON
 
+    /**
+     * Creates the extractor of a column for JSON output. Booleans and numbers are extracted as such,
+     * any other value is extracted as its text representation.
+     *
+     * @param sqlType SQL type of the column, see {@link Types}.
+     * @return column extractor.
+     */
+    static ColumnExtractor jsonExtractor(final int sqlType) {
+        switch (sqlType) {
+        case Types.BOOLEAN:
+        case Types.BIT:
+            return (resultSet, columnIndex) -> nullable(resultSet, resultSet.getBoolean(columnIndex));
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+        case Types.BIGINT:
+            return (resultSet, columnIndex) -> nullable(resultSet, resultSet.getLong(columnIndex));
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+            return (resultSet, columnIndex) -> nullable(resultSet, resultSet.getDouble(columnIndex));
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+            return ResultSet::getBigDecimal;
+        default:
+            return ResultSet::getString;
+        }
+    }
+
+    /**
+     * Creates the extractors of all columns of a result set.
+     *
+     * @param metaData result set metadata.
+     * @param format format of the output, which determines the form of the values.
+     * @return extractor of each column, indexed from zero.
+     * @throws SQLException if the metadata could not be read.
+     */
+    static ColumnExtractor[] extractors(final ResultSetMetaData metaData, final UnloadFormat format)
+            throws SQLException {
+        final ColumnExtractor[] extractors = new ColumnExtractor[metaData.getColumnCount()];
+        for (int i = 0; i < extractors.length; i++) {
+            extractors[i] = format.extractor(metaData.getColumnType(i + 1));
+        }
+        return extractors;
+    }
+
+    private static Object nullable(final ResultSet resultSet, final Object value) throws SQLException {
+        return resultSet.wasNull() ? null : value;
+    }
+
     // cyclomatic complexity 39
     // CHECKSTYLE:OFF
     static void extractSchema(int sqlType,
@@ -152,4 +212,13 @@ final class SqlTransformer {
         }
     }
     // CHECKSTYLE:ON
+
+    /**
+     * Reads the value of a column of the current row.
+     */
+    @FunctionalInterface
+    interface ColumnExtractor {
+
+        Object extract(ResultSet resultSet, int columnIndex) throws SQLException;
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Timings and transfers of a statement executed through {@link TestRedshiftDriver}.
+ * Rows and S3 bytes are counted for {@code COPY} and {@code UNLOAD} commands, they are {@code 0} for the
+ * statements which PostgreSQL executes.
+ */
+@Value
+@Builder
+public class StatementMetrics {
+
+    CommandType commandType;
+    /**
+     * SQL of the statement as sent by the application, for a batch the SQL of its first statement.
+     */
+    String sql;
+    /**
+     * Number of statements, greater than {@code 1} for the statements of a {@link java.sql.Statement#executeBatch()
+     * batch} which PostgreSQL executed together. Such batches are reported as {@link CommandType#PASSTHROUGH},
+     * even if some of their statements were rewritten.
+     */
+    int batchSize;
+    /**
+     * Time spent recognizing and translating the SQL. Prepared statements are translated when they are
+     * prepared, so their executions report {@code 0}.
+     */
+    long parseNanos;
+    long executionNanos;
+    long rowsRead;
+    long rowsWritten;
+    long s3BytesRead;
+    long s3BytesWritten;
+    /**
+     * Whether the execution failed with an exception.
+     */
+    boolean failed;
+
+    public long getTotalNanos() {
+        return this.parseNanos + this.executionNanos;
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+/**
+ * Receives the metrics of the statements executed through {@link TestRedshiftDriver}.
+ * <p>
+ * Listeners are configured with the {@link TestRedshiftDriver#METRICS_LISTENER_CLASS} connection property,
+ * a comma separated list of classes with a public no-args constructor. A listener class is instantiated once
+ * and shared by all connections, so the listener is called concurrently and should be thread safe.
+ */
+@FunctionalInterface
+public interface StatementMetricsListener {
+
+    /**
+     * Called after a statement was executed, on the thread which executed it.
+     *
+     * @param metrics {@link StatementMetrics}.
+     */
+    void statementExecuted(StatementMetrics metrics);
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports the metrics of the statements of a connection to the configured {@link StatementMetricsListener}s
+ * and to the {@link SlowStatementLogger}. Without any of them the recorder is disabled and the statements
+ * are not timed.
+ */
+@Slf4j
+class StatementMetricsRecorder {
+
+    static final StatementMetricsRecorder DISABLED = new StatementMetricsRecorder(List.of());
+
+    /**
+     * Listeners by class name, shared by all connections.
+     */
+    private static final ConcurrentMap<String, StatementMetricsListener> LISTENERS = new ConcurrentHashMap<>();
+
+    private final List<StatementMetricsListener> listeners;
+
+    StatementMetricsRecorder(final List<StatementMetricsListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * Creates the recorder of a connection.
+     *
+     * @param context {@link ExecutionCommandParser.ExecutionCommandContext} of the connection.
+     * @return {@link StatementMetricsRecorder}, {@link #DISABLED} if no listener is configured.
+     */
+    static StatementMetricsRecorder of(final ExecutionCommandParser.ExecutionCommandContext context) {
+        final List<StatementMetricsListener> listeners = new ArrayList<>();
+        for (String className : context.getMetricsListenerClasses()) {
+            listeners.add(LISTENERS.computeIfAbsent(className, StatementMetricsRecorder::load));
+        }
+        final long slowStatementThresholdMillis = context.getSlowStatementThresholdMillis();
+        if (slowStatementThresholdMillis >= 0) {
+            listeners.add(new SlowStatementLogger(slowStatementThresholdMillis));
+        }
+        return listeners.isEmpty() ? DISABLED : new StatementMetricsRecorder(List.copyOf(listeners));
+    }
+
+    boolean isEnabled() {
+        return !this.listeners.isEmpty();
+    }
+
+    /**
+     * @return {@link System#nanoTime()}, or {@code 0} if the recorder is disabled.
+     */
+    long nanoTime() {
+        return isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Reports an execution.
+     *
+     * @param command command which was executed, {@code null} for a statement which PostgreSQL executed as it is.
+     * @param sql SQL of the statement.
+     * @param batchSize number of statements PostgreSQL executed as a batch.
+     * @param startNanos {@link #nanoTime()} before the statement was parsed.
+     * @param parsedNanos {@link #nanoTime()} after the statement was parsed.
+     * @param failed whether the execution failed.
+     */
+    void record(final ExecutionCommand<?> command, final String sql, final int batchSize, final long startNanos,
+            final long parsedNanos, final boolean failed) {
+        if (!isEnabled()) {
+            return;
+        }
+        final long endNanos = System.nanoTime();
+        final StatementMetrics.StatementMetricsBuilder builder = StatementMetrics.builder()
+                .commandType(command == null ? CommandType.PASSTHROUGH : command.getCommandType())
+                .sql(sql)
+                .batchSize(batchSize)
+                .parseNanos(parsedNanos - startNanos)
+                .executionNanos(endNanos - parsedNanos)
+                .failed(failed);
+        if (command != null) {
+            command.recordTransfers(builder);
+        }
+        final StatementMetrics metrics = builder.build();
+        for (StatementMetricsListener listener : this.listeners) {
+            try {
+                listener.statementExecuted(metrics);
+            } catch (final RuntimeException e) {
+                // the metrics never fail the statement
+                log.warn("Statement metrics listener [{}] failed", listener.getClass().getName(), e);
+            }
+        }
+    }
+
+    @SneakyThrows
+    private static StatementMetricsListener load(final String className) {
+        final Object listener = Class.forName(className).getConstructor().newInstance();
+        if (!(listener instanceof StatementMetricsListener)) {
+            throw new IllegalArgumentException("Metrics listener class [" + className + "] does not implement "
+                    + StatementMetricsListener.class.getName());
+        }
+        return (StatementMetricsListener)listener;
+    }
+}
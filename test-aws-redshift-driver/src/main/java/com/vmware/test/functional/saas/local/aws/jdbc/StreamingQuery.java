@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Executes a query whose rows are fetched from a server-side cursor in chunks of {@code fetchSize} rows,
+ * instead of being loaded into memory at once.
+ * PgJDBC only uses a cursor within a transaction, so auto-commit is turned off for the duration of the
+ * query, and the transaction is committed before it is turned on again. The fetch size of the statement
+ * is restored afterwards.
+ */
+final class StreamingQuery {
+
+    private StreamingQuery() {
+    }
+
+    /**
+     * @param statement statement which executes the query.
+     * @param fetchSize number of rows fetched at a time, a non-positive number reads the whole result at once.
+     * @param query executes the query.
+     * @param handler consumes the result.
+     * @param <T> type of the result of the handler.
+     * @return result of the handler.
+     * @throws Exception if the query or the handler failed.
+     */
+    static <T> T execute(final Statement statement, final int fetchSize,
+            final Query query, final ResultSetHandler<T> handler) throws Exception {
+        if (fetchSize <= 0) {
+            try (ResultSet resultSet = query.execute()) {
+                return handler.handle(resultSet);
+            }
+        }
+        final Connection connection = statement.getConnection();
+        final boolean autoCommit = connection.getAutoCommit();
+        final int previousFetchSize = statement.getFetchSize();
+        statement.setFetchSize(fetchSize);
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            final T result;
+            try (ResultSet resultSet = query.execute()) {
+                result = handler.handle(resultSet);
+            }
+            if (autoCommit) {
+                connection.commit();
+            }
+            return result;
+        } catch (final Exception e) {
+            if (autoCommit) {
+                rollback(connection, e);
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+            statement.setFetchSize(previousFetchSize);
+        }
+    }
+
+    private static void rollback(final Connection connection, final Exception failure) {
+        try {
+            connection.rollback();
+        } catch (final SQLException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Executes a query.
+     */
+    @FunctionalInterface
+    interface Query {
+
+        ResultSet execute() throws SQLException;
+    }
+
+    /**
+     * Consumes the result of a query.
+     *
+     * @param <T> type of the result.
+     */
+    @FunctionalInterface
+    interface ResultSetHandler<T> {
+
+        T handle(ResultSet resultSet) throws Exception;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Columns of a table as reported by {@link java.sql.DatabaseMetaData#getColumns}, together with the
+ * {@link ColumnBinder binding plan} used to load rows into the table.
+ */
+@Getter
+final class TableMetadata {
+
+    private static final String GET_COLUMNS_QUERY_COLUMN_LABEL = "COLUMN_NAME";
+    private static final String GET_COLUMNS_QUERY_DATA_TYPE_LABEL = "DATA_TYPE";
+
+    private final String tableName;
+    private final List<String> columnNames;
+    private final int[] columnTypes;
+    private final ColumnBinder[] columnBinders;
+    private final Map<String, Integer> columnIndexes;
+
+    private TableMetadata(final String tableName, final List<String> columnNames, final int[] columnTypes) {
+        this.tableName = tableName;
+        this.columnNames = Collections.unmodifiableList(columnNames);
+        this.columnTypes = columnTypes;
+        this.columnBinders = new ColumnBinder[columnTypes.length];
+        this.columnIndexes = new HashMap<>();
+        for (int i = 0; i < columnTypes.length; i++) {
+            this.columnBinders[i] = ColumnBinder.forType(columnTypes[i]);
+            this.columnIndexes.putIfAbsent(columnNames.get(i), i);
+        }
+    }
+
+    static TableMetadata of(final String tableName, final List<String> columnNames, final int[] columnTypes) {
+        return new TableMetadata(tableName, new ArrayList<>(columnNames), columnTypes.clone());
+    }
+
+    static TableMetadata load(final Connection connection, final String tableName) throws SQLException {
+        final List<String> columnNames = new ArrayList<>();
+        final List<Integer> columnTypes = new ArrayList<>();
+        try (ResultSet rs = connection.getMetaData().getColumns(null, null, tableName, "%")) {
+            while (rs.next()) {
+                columnNames.add(rs.getString(GET_COLUMNS_QUERY_COLUMN_LABEL));
+                columnTypes.add(rs.getInt(GET_COLUMNS_QUERY_DATA_TYPE_LABEL));
+            }
+        }
+        return new TableMetadata(tableName, columnNames, columnTypes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    int getColumnCount() {
+        return this.columnTypes.length;
+    }
+
+    /**
+     * @param columnName column name.
+     * @return zero based index of the column, or {@code -1} if the table does not have such column.
+     */
+    int indexOf(final String columnName) {
+        final Integer index = this.columnIndexes.get(columnName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param sqlType JDBC type, see {@link Types}.
+     * @return whether the type is a character type.
+     */
+    static boolean isCharacterType(final int sqlType) {
+        switch (sqlType) {
+        case Types.CHAR:
+        case Types.VARCHAR:
+        case Types.LONGVARCHAR:
+        case Types.NCHAR:
+        case Types.NVARCHAR:
+        case Types.LONGNVARCHAR:
+            return true;
+        default:
+            return false;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-connection cache of {@link TableMetadata}.
+ * The cache is cleared whenever a DDL statement or a rollback passes through the connection,
+ * so that a table which was created, altered or dropped is looked up again.
+ */
+@Slf4j
+class TableMetadataCache {
+
+    private final ConcurrentMap<String, TableMetadata> tables = new ConcurrentHashMap<>();
+
+    TableMetadata getTable(final Connection connection, final String tableName) throws SQLException {
+        final TableMetadata cached = this.tables.get(tableName);
+        if (cached != null) {
+            return cached;
+        }
+        final TableMetadata loaded = TableMetadata.load(connection, tableName);
+        if (loaded.getColumnCount() > 0) {
+            this.tables.put(tableName, loaded);
+        }
+        return loaded;
+    }
+
+    void invalidate() {
+        if (!this.tables.isEmpty()) {
+            log.debug("Invalidating cached metadata of tables {}", this.tables.keySet());
+            this.tables.clear();
+        }
+    }
+
+    /**
+     * Clears the cache if the SQL statement is a DDL statement.
+     *
+     * @param sql SQL statement.
+     */
+    void invalidateIfDdl(final String sql) {
+        if (isDdl(sql)) {
+            invalidate();
+        }
+    }
+
+    static boolean isDdl(final String sql) {
+        return SqlStatementKind.classify(sql) == SqlStatementKind.DDL;
+    }
+}
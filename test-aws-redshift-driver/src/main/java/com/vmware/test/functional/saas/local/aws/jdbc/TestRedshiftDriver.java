@@ -5,29 +5,26 @@
 
 package com.vmware.test.functional.saas.local.aws.jdbc;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.DriverPropertyInfo;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 import java.util.Properties;
+import java.util.function.Function;
 // CHECKSTYLE:OFF
 import java.util.logging.Logger;
 // CHECKSTYLE:ON
 
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Setter;
-import lombok.SneakyThrows;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -37,16 +34,32 @@ import lombok.extern.slf4j.Slf4j;
 public class TestRedshiftDriver implements Driver {
 
     public static final String S3_ENDPOINT_URL = "s3EndpointUrl";
+    public static final String S3_MAX_CONNECTIONS = "s3MaxConnections";
     public static final String DEFAULT_AWS_ACCESS_KEY = "defaultAwsAccessKey";
     public static final String DEFAULT_AWS_SECRET_ACCESS_KEY = "defaultAwsSecretAccessKey";
     public static final String DEFAULT_AWS_REGION = "defaultAwsRegion";
     public static final String SKIP_ERRORS_ON_MISSING_CONFIG_OPTIONS = "skipErrorsOnMissingConfigOptions";
     public static final String JDBC_TESTREDSHIFT_PREFIX = "jdbc:testredshift:";
     public static final String QUERY_MAP_CLASS = "queryMapClass";
+    public static final String QUERY_MAP_NORMALIZE_WHITESPACE = "queryMapNormalizeWhitespace";
+    public static final String COPY_BATCH_MAX_ROWS = "copyBatchMaxRows";
+    public static final String COPY_BATCH_MAX_BYTES = "copyBatchMaxBytes";
+    public static final String COPY_LOAD_MODE = "copyLoadMode";
+    public static final String COPY_FETCH_PARALLELISM = "copyFetchParallelism";
+    public static final String UNLOAD_PART_SIZE = "unloadPartSize";
+    public static final String UNLOAD_UPLOAD_PARALLELISM = "unloadUploadParallelism";
+    public static final String UNLOAD_SLICES = "unloadSlices";
+    public static final String UNLOAD_MAX_FILE_ROWS = "unloadMaxFileRows";
+    public static final String UNLOAD_FETCH_SIZE = "unloadFetchSize";
+    public static final String METRICS_LISTENER_CLASS = "metricsListenerClass";
+    public static final String SLOW_STATEMENT_THRESHOLD_MILLIS = "slowStatementThresholdMillis";
+    public static final String PREPARED_STATEMENT_CACHE_SIZE = "preparedStatementCacheSize";
 
     private static TestRedshiftDriver registeredDriver;
     private static final Driver POSTGRES_DRIVER_WRAPPED = new org.postgresql.Driver();
 
+    private final S3ClientRegistry s3ClientRegistry = new S3ClientRegistry();
+
     static {
         try {
             register();
@@ -56,20 +69,33 @@ public class TestRedshiftDriver implements Driver {
         }
     }
 
-    private static void register() throws SQLException {
+    private static synchronized void register() throws SQLException {
         if (isRegistered()) {
             throw new IllegalStateException(TestRedshiftDriver.class.getName() + " is already registered.");
         }
 
         final TestRedshiftDriver newRegisteredDriver = new TestRedshiftDriver();
-        DriverManager.registerDriver(newRegisteredDriver);
+        DriverManager.registerDriver(newRegisteredDriver, newRegisteredDriver::deregister);
         TestRedshiftDriver.registeredDriver = newRegisteredDriver;
     }
 
-    public static boolean isRegistered() {
+    public static synchronized boolean isRegistered() {
         return registeredDriver != null;
     }
 
+    /**
+     * Invoked by {@link DriverManager#deregisterDriver(Driver)}. Closes the cached S3 clients.
+     */
+    private void deregister() {
+        synchronized (TestRedshiftDriver.class) {
+            if (registeredDriver == this) {
+                registeredDriver = null;
+            }
+        }
+        this.s3ClientRegistry.close();
+        log.info("{} was deregistered.", TestRedshiftDriver.class.getName());
+    }
+
     @Override
     public Connection connect(final String url, final Properties info) throws SQLException {
         if (!acceptsURL(url)) {
@@ -77,10 +103,7 @@ public class TestRedshiftDriver implements Driver {
         }
         final Connection connection = POSTGRES_DRIVER_WRAPPED.connect(url.replace(JDBC_TESTREDSHIFT_PREFIX, "jdbc:postgresql:"), info);
 
-        return (Connection)Proxy.newProxyInstance(
-                TestRedshiftDriver.class.getClassLoader(),
-                new Class<?>[] { Connection.class },
-                new ConnectionProxy(connection, info));
+        return new RedshiftConnection(connection, info, this.s3ClientRegistry, new TableMetadataCache());
     }
 
     @Override
@@ -113,254 +136,478 @@ public class TestRedshiftDriver implements Driver {
         return Logger.getLogger(getClass().getName()).getParent();
     }
 
+    /**
+     * Executes a statement of the wrapped connection, and suppresses the errors on missing configuration options
+     * configured with {@link #SKIP_ERRORS_ON_MISSING_CONFIG_OPTIONS}.
+     *
+     * @param call execution of the statement.
+     * @param suppressedResult result if an error is suppressed, {@code null} if errors are not suppressed.
+     * @param info connection properties.
+     * @param <R> result type.
+     * @return result of the statement.
+     * @throws SQLException if the statement failed.
+     */
+    static <R> R callStatement(final SqlCall<R> call, final R suppressedResult, final Properties info)
+            throws SQLException {
+        try {
+            return call.call();
+        } catch (final SQLException e) {
+            if (suppressedResult == null) {
+                throw e;
+            }
+            ExceptionUtils.handleSqlException(e, info);
+            return suppressedResult;
+        }
+    }
+
+    /**
+     * Call of the wrapped connection or statements.
+     *
+     * @param <T> result type.
+     */
+    @FunctionalInterface
+    interface SqlCall<T> {
+
+        T call() throws SQLException;
+    }
+
     /**
      * Intercepts createStatement calls and processes {@code UNLOAD} and {@code COPY} commands.
      * Intercepts prepareStatement calls and creates {@code UNLOAD} and {@code COPY} commands from the SQL argument.
      */
-    @AllArgsConstructor
-    static class ConnectionProxy implements InvocationHandler {
+    static class RedshiftConnection extends DelegatingConnection {
+
+        /**
+         * SQL statements that are longer than this are not cached, as they are most likely statements
+         * with inlined values that are not prepared again.
+         */
+        private static final int MAX_CACHED_SQL_LENGTH = 8192;
 
-        private final Connection connection;
         private final Properties info;
+        private final TableMetadataCache tableMetadataCache;
+        private final ExecutionCommandParser.ExecutionCommandContext context;
+        private final StatementMetricsRecorder metrics;
+        /**
+         * Translations of the SQL statements prepared on this connection, or {@code null} if they are not cached.
+         */
+        private final LruCache<String, PreparedSql> preparedSqls;
+
+        RedshiftConnection(final Connection connection, final Properties info, final S3ClientRegistry s3ClientRegistry,
+                final TableMetadataCache tableMetadataCache) {
+            super(connection);
+            this.info = info;
+            this.tableMetadataCache = tableMetadataCache;
+            this.context = ExecutionCommandParser.ExecutionCommandContext.builder()
+                    .connection(connection)
+                    .info(info)
+                    .s3ClientRegistry(s3ClientRegistry)
+                    .tableMetadataCache(tableMetadataCache)
+                    .build();
+            this.metrics = StatementMetricsRecorder.of(this.context);
+            final int preparedStatementCacheSize = this.context.getPreparedStatementCacheSize();
+            this.preparedSqls = preparedStatementCacheSize > 0 ? new LruCache<>(preparedStatementCacheSize) : null;
+        }
 
         @Override
-        public Object invoke(final Object proxy, final Method method, final Object[] args)
-                throws InvocationTargetException, IllegalAccessException, SQLException {
-            switch (method.getName()) {
-            case "createStatement":
-                return proxyStatement(method, args);
-            case "prepareStatement":
-                final Optional<ExecutionCommand<?>> executionCommand = ExecutionCommandParser.parse(args,
-                        ExecutionCommandParser.ExecutionCommandContext.builder()
-                                .connection(this.connection)
-                                .info(this.info)
-                                .build());
-                /*
-                 * Proxy the prepared statements that have a matching SQL argument, else use the original instance.
-                 */
-                return executionCommand
-                        .map(this::proxyPreparedStatement)
-                        .orElse(proxyPreparedStatement(
-                                (PreparedStatement)invokeMethod(method, this.connection, args)));
-            default:
-            }
-            return invokeMethod(method, this.connection, args);
-        }
-
-        public Object proxyPreparedStatement(final PreparedStatement preparedStatement) {
-            return Proxy.newProxyInstance(
-                    TestRedshiftDriver.class.getClassLoader(),
-                    new Class<?>[] { PreparedStatement.class },
-                    TestRedshiftDriver.PreparedStatementProxy.builder()
-                            .info(this.info)
-                            .statement(preparedStatement)
-                            .build());
-        }
-
-        public Object proxyPreparedStatement(final ExecutionCommand<?> executionCommand) {
-            return Proxy.newProxyInstance(
-                    TestRedshiftDriver.class.getClassLoader(),
-                    new Class<?>[] { PreparedStatement.class },
-                    TestRedshiftDriver.PreparedStatementProxy.builder()
-                            .executionCommand(executionCommand)
-                            .info(this.info)
-                            .statement(executionCommand.prepareStatement(this.connection))
-                            .build());
-        }
-
-        private Statement proxyStatement(final Method method, final Object[] args)
-                throws InvocationTargetException, IllegalAccessException, SQLException {
-            final StatementProxy statementProxy = StatementProxy.builder()
-                    .connection(this.connection)
-                    .statement((Statement)invokeMethod(method, this.connection, args))
-                    .info(this.info)
-                    .build();
-            final Statement statement = (Statement)Proxy.newProxyInstance(
-                    TestRedshiftDriver.class.getClassLoader(),
-                    new Class<?>[] { Statement.class },
-                    statementProxy);
-            statementProxy.setProxyStatement(statement);
-            return statement;
+        public Statement createStatement() throws SQLException {
+            return wrapStatement(this.delegate.createStatement());
         }
 
-        private static Object invokeMethod(final Method method, final Object obj, final Object... args)
-                throws SQLException, IllegalAccessException, InvocationTargetException {
-            try {
-                return method.invoke(obj, args);
-            } catch (final InvocationTargetException e) {
-                if (e.getTargetException() instanceof SQLException) {
-                    throw (SQLException)e.getTargetException();
-                }
-                throw e;
-            }
+        @Override
+        public Statement createStatement(final int resultSetType, final int resultSetConcurrency) throws SQLException {
+            return wrapStatement(this.delegate.createStatement(resultSetType, resultSetConcurrency));
         }
-    }
 
-    /**
-     * Base class for StatementProxy and PreparedStatementProxy will intercept execute
-     * calls and process {@code UNLOAD} and {@code COPY} commands.
-     *
-     * @param <T> Statement or PreparedStatement.
-     */
-    @AllArgsConstructor
-    abstract static class AbstractStatementProxy<T extends Statement> implements InvocationHandler {
+        @Override
+        public Statement createStatement(final int resultSetType, final int resultSetConcurrency,
+                final int resultSetHoldability) throws SQLException {
+            return wrapStatement(this.delegate.createStatement(resultSetType, resultSetConcurrency,
+                    resultSetHoldability));
+        }
 
-        protected final T statement;
-        protected final Properties info;
+        @Override
+        public PreparedStatement prepareStatement(final String sql) throws SQLException {
+            return prepare(sql, () -> this.delegate.prepareStatement(sql));
+        }
 
         @Override
-        public final Object invoke(final Object proxy, final Method method, final Object[] args)
-                throws Throwable {
-            final Optional<?> objectOptional;
-            switch (method.getName()) {
-            case "execute":
-            case "executeUpdate":
-                objectOptional = doExecute(args);
-                break;
-            case "executeQuery":
-                objectOptional = doExecuteQuery(args);
-                break;
-            case "addBatch":
-                objectOptional = doAddBatch(args);
-                break;
-            case "clearBatch":
-                objectOptional = doClearBatch();
-                break;
-            case "executeBatch":
-                objectOptional = doExecuteBatch();
-                break;
-            default:
-                objectOptional = Optional.empty();
-            }
-            /*
-             * Execute Redshift command if the execution result is present, else proceed with the original execution.
-             */
-            if (objectOptional.isPresent()) {
-                return objectOptional.get();
-            }
-            try {
-                return method.invoke(this.statement, args);
-            } catch (final InvocationTargetException e) {
-                return ExceptionUtils.handleSqlException(e, this.info);
-            }
+        public PreparedStatement prepareStatement(final String sql, final int resultSetType,
+                final int resultSetConcurrency) throws SQLException {
+            return prepare(sql, () -> this.delegate.prepareStatement(sql, resultSetType, resultSetConcurrency));
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(final String sql, final int resultSetType,
+                final int resultSetConcurrency, final int resultSetHoldability) throws SQLException {
+            return prepare(sql, () -> this.delegate.prepareStatement(sql, resultSetType, resultSetConcurrency,
+                    resultSetHoldability));
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
+            return prepare(sql, () -> this.delegate.prepareStatement(sql, autoGeneratedKeys));
         }
 
-        protected abstract Optional<Object> doExecute(Object[] args);
+        @Override
+        public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
+            return prepare(sql, () -> this.delegate.prepareStatement(sql, columnIndexes));
+        }
 
-        protected abstract Optional<Object> doExecuteQuery(Object[] args);
+        @Override
+        public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
+            return prepare(sql, () -> this.delegate.prepareStatement(sql, columnNames));
+        }
+
+        @Override
+        public void rollback() throws SQLException {
+            // a rolled back transaction may have contained DDL statements
+            this.tableMetadataCache.invalidate();
+            this.delegate.rollback();
+        }
+
+        @Override
+        public void rollback(final Savepoint savepoint) throws SQLException {
+            this.tableMetadataCache.invalidate();
+            this.delegate.rollback(savepoint);
+        }
 
-        protected Optional<Object> doAddBatch(final Object[] args) {
-            return Optional.empty();
+        private Statement wrapStatement(final Statement statement) {
+            return new RedshiftStatement(statement, this.info, this.tableMetadataCache, this.context, this.metrics);
         }
 
-        protected Optional<Object> doClearBatch() {
-            return Optional.empty();
+        /**
+         * Wraps the prepared statements that have a matching SQL argument in a statement which executes
+         * the command, else wraps the original statement.
+         * <p>
+         * The translation of a pass-through or rewritten statement is cached, so that preparing the same
+         * SQL again is a lookup. The same translated SQL is then prepared on the wrapped connection, which
+         * lets the PostgreSQL driver reuse its server side prepared statement.
+         */
+        private PreparedStatement prepare(final String sql, final SqlCall<PreparedStatement> factory)
+                throws SQLException {
+            final PreparedSql preparedSql = translate(sql);
+            final ExecutionCommand<?> executionCommand = preparedSql.getExecutionCommand();
+            final PreparedStatement preparedStatement = executionCommand == null
+                    ? factory.call()
+                    : executionCommand.prepareStatement(this.delegate);
+            return new RedshiftPreparedStatement(preparedStatement, sql, this.info, executionCommand,
+                    preparedSql.isDdl() ? this.tableMetadataCache : null, this.metrics);
         }
 
-        @SneakyThrows
-        protected Optional<int[]> doExecuteBatch() {
-            return Optional.empty();
+        private PreparedSql translate(final String sql) {
+            final PreparedSql cached = this.preparedSqls == null ? null : this.preparedSqls.get(sql);
+            if (cached != null) {
+                return cached;
+            }
+            final ExecutionCommand<?> executionCommand = ExecutionCommandParser.parse(sql, this.context)
+                    .orElse(null);
+            final PreparedSql preparedSql = new PreparedSql(executionCommand, TableMetadataCache.isDdl(sql));
+            // COPY and UNLOAD commands keep the state of their execution, so they are parsed for each statement
+            if (this.preparedSqls != null && sql.length() <= MAX_CACHED_SQL_LENGTH
+                    && (executionCommand == null || executionCommand instanceof GenericCommand)) {
+                this.preparedSqls.put(sql, preparedSql);
+            }
+            return preparedSql;
         }
     }
 
+    /**
+     * Translation of a SQL statement prepared through {@link RedshiftConnection}.
+     */
+    @Value
+    static class PreparedSql {
+
+        /**
+         * Command which executes the statement, or {@code null} if the statement is passed through as is.
+         */
+        ExecutionCommand<?> executionCommand;
+        boolean ddl;
+    }
+
     /**
      * Intercepts execute calls, creates {@code UNLOAD} and {@code COPY} commands from the SQL
      * argument, and executes those commands.
      */
-    static class StatementProxy extends
-            AbstractStatementProxy<Statement> {
+    static class RedshiftStatement extends DelegatingStatement<Statement> {
+
+        private final Properties info;
+        private final TableMetadataCache tableMetadataCache;
+        private final ExecutionCommandParser.ExecutionCommandContext context;
+        private final StatementMetricsRecorder metrics;
+        private final List<String> batch = new ArrayList<>();
+
+        RedshiftStatement(final Statement statement, final Properties info, final TableMetadataCache tableMetadataCache,
+                final ExecutionCommandParser.ExecutionCommandContext context, final StatementMetricsRecorder metrics) {
+            super(statement);
+            this.info = info;
+            this.tableMetadataCache = tableMetadataCache;
+            this.context = context;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public boolean execute(final String sql) throws SQLException {
+            return execute(sql, command -> (Boolean)command.execute(this.delegate),
+                    () -> this.delegate.execute(sql), Boolean.TRUE);
+        }
+
+        @Override
+        public boolean execute(final String sql, final int autoGeneratedKeys) throws SQLException {
+            return execute(sql, command -> (Boolean)command.execute(this.delegate),
+                    () -> this.delegate.execute(sql, autoGeneratedKeys), Boolean.TRUE);
+        }
 
-        protected final Connection connection;
-        protected List<String> batch = new ArrayList<>();
-        @Setter
-        protected Statement proxyStatement;
+        @Override
+        public boolean execute(final String sql, final int[] columnIndexes) throws SQLException {
+            return execute(sql, command -> (Boolean)command.execute(this.delegate),
+                    () -> this.delegate.execute(sql, columnIndexes), Boolean.TRUE);
+        }
+
+        @Override
+        public boolean execute(final String sql, final String[] columnNames) throws SQLException {
+            return execute(sql, command -> (Boolean)command.execute(this.delegate),
+                    () -> this.delegate.execute(sql, columnNames), Boolean.TRUE);
+        }
 
-        @Builder
-        StatementProxy(final Statement statement, final Properties info, final Connection connection) {
-            super(statement, info);
-            this.connection = connection;
+        @Override
+        public int executeUpdate(final String sql) throws SQLException {
+            return execute(sql, command -> command.executeUpdate(this.delegate),
+                    () -> this.delegate.executeUpdate(sql), 0);
         }
 
         @Override
-        public Optional<Object> doExecute(final Object[] args) {
-            return ExecutionCommandParser.parse(args,
-                    ExecutionCommandParser.ExecutionCommandContext.builder()
-                            .connection(this.connection)
-                            .info(this.info)
-                            .build())
-                    .map(command -> command.execute(this.statement));
+        public int executeUpdate(final String sql, final int autoGeneratedKeys) throws SQLException {
+            return execute(sql, command -> command.executeUpdate(this.delegate),
+                    () -> this.delegate.executeUpdate(sql, autoGeneratedKeys), 0);
         }
 
         @Override
-        protected Optional<Object> doExecuteQuery(final Object[] args) {
-            return ExecutionCommandParser.parse(args,
-                            ExecutionCommandParser.ExecutionCommandContext.builder()
-                                    .connection(this.connection)
-                                    .info(this.info)
-                                    .build())
-                    .map(command -> command.executeQuery(this.statement));
+        public int executeUpdate(final String sql, final int[] columnIndexes) throws SQLException {
+            return execute(sql, command -> command.executeUpdate(this.delegate),
+                    () -> this.delegate.executeUpdate(sql, columnIndexes), 0);
         }
 
         @Override
-        protected Optional<Object> doAddBatch(final Object[] args) {
-            this.batch.add(args[0].toString());
-            return Optional.of(true);
+        public int executeUpdate(final String sql, final String[] columnNames) throws SQLException {
+            return execute(sql, command -> command.executeUpdate(this.delegate),
+                    () -> this.delegate.executeUpdate(sql, columnNames), 0);
         }
 
         @Override
-        protected Optional<Object> doClearBatch() {
+        public ResultSet executeQuery(final String sql) throws SQLException {
+            return execute(sql, command -> command.executeQuery(this.delegate),
+                    () -> this.delegate.executeQuery(sql), null);
+        }
+
+        @Override
+        public void addBatch(final String sql) {
+            this.batch.add(sql);
+        }
+
+        @Override
+        public void clearBatch() throws SQLException {
             this.batch.clear();
-            return Optional.of(true);
+            this.delegate.clearBatch();
         }
 
+        /**
+         * Executes the pass-through and rewritten statements of the batch as batches of the wrapped statement,
+         * which sends them to the server together, and the {@code UNLOAD} and {@code COPY} commands one by one
+         * in between.
+         */
         @Override
-        @SneakyThrows
-        protected Optional<int[]> doExecuteBatch() {
-            final boolean isAutoCommit = this.connection.getAutoCommit();
-            this.connection.setAutoCommit(true);
+        public int[] executeBatch() throws SQLException {
+            final int[] updateCounts = new int[this.batch.size()];
+            int batchStart = 0;
+            long batchParseNanos = 0;
+            try {
+                for (int i = 0; i < this.batch.size(); i++) {
+                    final String sql = this.batch.get(i);
+                    final long startNanos = this.metrics.nanoTime();
+                    final ExecutionCommand<?> command = parse(sql);
+                    final long parsedNanos = this.metrics.nanoTime();
+                    if (command == null && SqlStatementKind.classify(sql) != SqlStatementKind.CONFIG) {
+                        this.delegate.addBatch(sql);
+                        batchParseNanos += parsedNanos - startNanos;
+                    } else if (command instanceof GenericCommand) {
+                        this.delegate.addBatch(((GenericCommand)command).getQuery());
+                        batchParseNanos += parsedNanos - startNanos;
+                    } else {
+                        // configuration statements are executed alone, so that an error on a missing
+                        // configuration option may be suppressed
+                        executeBatch(updateCounts, batchStart, i, batchParseNanos);
+                        updateCounts[i] = executeBatchStatement(command, sql, updateCounts, i, startNanos,
+                                parsedNanos);
+                        batchStart = i + 1;
+                        batchParseNanos = 0;
+                    }
+                }
+                executeBatch(updateCounts, batchStart, updateCounts.length, batchParseNanos);
+                return updateCounts;
+            } finally {
+                this.batch.clear();
+                this.delegate.clearBatch();
+            }
+        }
+
+        /**
+         * Executes the command of the SQL statement, or the statement itself.
+         *
+         * @param suppressedResult result if an error on a missing configuration option is suppressed,
+         *         {@code null} if the errors are not suppressed.
+         */
+        private <R> R execute(final String sql, final Function<ExecutionCommand<?>, R> commandCall,
+                final SqlCall<R> statementCall, final R suppressedResult) throws SQLException {
+            final long startNanos = this.metrics.nanoTime();
+            final ExecutionCommand<?> command = parse(sql);
+            final long parsedNanos = this.metrics.nanoTime();
+            boolean failed = true;
             try {
-                return Optional.of(this.batch.stream().mapToInt(this::exec).toArray());
+                final R result = command == null
+                        ? callStatement(statementCall, suppressedResult, this.info)
+                        : commandCall.apply(command);
+                failed = false;
+                return result;
             } finally {
-                this.connection.setAutoCommit(isAutoCommit);
+                this.metrics.record(command, sql, 1, startNanos, parsedNanos, failed);
+            }
+        }
+
+        /**
+         * Executes the statements added to the wrapped statement.
+         *
+         * @param updateCounts update counts of the whole batch.
+         * @param batchStart position of the first added statement in the whole batch.
+         * @param batchEnd position after the last added statement in the whole batch.
+         * @param batchParseNanos time spent parsing the added statements.
+         */
+        private void executeBatch(final int[] updateCounts, final int batchStart, final int batchEnd,
+                final long batchParseNanos) throws SQLException {
+            if (batchStart == batchEnd) {
+                return;
+            }
+            final long startNanos = this.metrics.nanoTime();
+            boolean failed = true;
+            try {
+                final int[] batchUpdateCounts = this.delegate.executeBatch();
+                System.arraycopy(batchUpdateCounts, 0, updateCounts, batchStart, batchUpdateCounts.length);
+                failed = false;
+            } catch (final BatchUpdateException e) {
+                throw batchUpdateException(e, updateCounts, batchStart,
+                        e.getUpdateCounts() == null ? new int[0] : e.getUpdateCounts());
+            } finally {
+                this.metrics.record(null, this.batch.get(batchStart), batchEnd - batchStart,
+                        startNanos - batchParseNanos, startNanos, failed);
+            }
+        }
+
+        /**
+         * Executes a command, or a configuration statement, of the batch alone.
+         */
+        private int executeBatchStatement(final ExecutionCommand<?> command, final String sql,
+                final int[] updateCounts, final int position, final long startNanos, final long parsedNanos)
+                throws BatchUpdateException {
+            boolean failed = true;
+            try {
+                final int updateCount = command == null
+                        ? callStatement(() -> this.delegate.executeUpdate(sql), 0, this.info)
+                        : command.executeUpdate(this.delegate);
+                failed = false;
+                return updateCount;
+            } catch (final Exception e) {
+                // the commands throw the checked exceptions of the load or unload sneakily
+                throw batchUpdateException(e, updateCounts, position, new int[0]);
+            } finally {
+                this.metrics.record(command, sql, 1, startNanos, parsedNanos, failed);
+            }
+        }
+
+        /**
+         * @return {@link BatchUpdateException} with the update counts of the statements executed before the failure.
+         */
+        private static BatchUpdateException batchUpdateException(final Exception e, final int[] updateCounts,
+                final int executed, final int[] moreUpdateCounts) {
+            final int[] failedUpdateCounts = Arrays.copyOf(updateCounts, executed + moreUpdateCounts.length);
+            System.arraycopy(moreUpdateCounts, 0, failedUpdateCounts, executed, moreUpdateCounts.length);
+            if (e instanceof SQLException) {
+                final SQLException sqlException = (SQLException)e;
+                return new BatchUpdateException(sqlException.getMessage(), sqlException.getSQLState(),
+                        sqlException.getErrorCode(), failedUpdateCounts, sqlException);
             }
+            return new BatchUpdateException(e.getMessage(), failedUpdateCounts, e);
         }
 
-        @SneakyThrows
-        private int exec(final String sql) {
-            this.proxyStatement.execute(sql);
-            return 0;
+        private ExecutionCommand<?> parse(final String sql) {
+            this.tableMetadataCache.invalidateIfDdl(sql);
+            return ExecutionCommandParser.parse(sql, this.context).orElse(null);
         }
     }
 
     /**
      * Intercepts execute methods of a PreparedStatement and executes {@code UNLOAD} and {@code COPY} commands.
      */
-    static class PreparedStatementProxy extends
-            AbstractStatementProxy<PreparedStatement> {
+    static class RedshiftPreparedStatement extends DelegatingPreparedStatement {
 
-        final ExecutionCommand<?> executionCommand;
-
-        @Builder
-        PreparedStatementProxy(final PreparedStatement statement,
-                final Properties info, final ExecutionCommand<?> executionCommand) {
-            super(statement, info);
+        private final String sql;
+        private final Properties info;
+        private final ExecutionCommand<?> executionCommand;
+        /**
+         * Set only for DDL statements, which invalidate the cached table metadata when executed.
+         */
+        private final TableMetadataCache tableMetadataCache;
+        private final StatementMetricsRecorder metrics;
+
+        RedshiftPreparedStatement(final PreparedStatement statement, final String sql, final Properties info,
+                final ExecutionCommand<?> executionCommand, final TableMetadataCache tableMetadataCache,
+                final StatementMetricsRecorder metrics) {
+            super(statement);
+            this.sql = sql;
+            this.info = info;
             this.executionCommand = executionCommand;
+            this.tableMetadataCache = tableMetadataCache;
+            this.metrics = metrics;
         }
 
         @Override
-        public Optional<Object> doExecute(final Object[] args) {
-            if (this.executionCommand == null) {
-                return Optional.empty();
-            }
-            return Optional.of(this.executionCommand.execute(this.statement));
+        public boolean execute() throws SQLException {
+            invalidateIfDdl();
+            return execute(command -> (Boolean)command.execute(this.delegate), () -> this.delegate.execute(),
+                    Boolean.TRUE);
+        }
+
+        @Override
+        public int executeUpdate() throws SQLException {
+            invalidateIfDdl();
+            return execute(command -> command.executeUpdate(this.delegate), () -> this.delegate.executeUpdate(),
+                    0);
         }
 
         @Override
-        protected Optional<Object> doExecuteQuery(final Object[] args) {
-            if (this.executionCommand == null) {
-                return Optional.empty();
+        public ResultSet executeQuery() throws SQLException {
+            return execute(command -> command.executeQuery(this.delegate), () -> this.delegate.executeQuery(),
+                    null);
+        }
+
+        private <R> R execute(final Function<ExecutionCommand<?>, R> commandCall, final SqlCall<R> statementCall,
+                final R suppressedResult) throws SQLException {
+            // the statement was parsed when it was prepared
+            final long startNanos = this.metrics.nanoTime();
+            boolean failed = true;
+            try {
+                final R result = this.executionCommand == null
+                        ? callStatement(statementCall, suppressedResult, this.info)
+                        : commandCall.apply(this.executionCommand);
+                failed = false;
+                return result;
+            } finally {
+                this.metrics.record(this.executionCommand, this.sql, 1, startNanos, startNanos, failed);
+            }
+        }
+
+        private void invalidateIfDdl() {
+            if (this.tableMetadataCache != null) {
+                this.tableMetadataCache.invalidate();
             }
-            return Optional.of(this.executionCommand.executeQuery(this.statement));
         }
     }
 }
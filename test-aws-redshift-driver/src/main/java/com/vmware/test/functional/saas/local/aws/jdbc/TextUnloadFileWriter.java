@@ -0,0 +1,74 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes a text {@code UNLOAD} output file, optionally compressed, to a {@link S3MultipartOutputStream}.
+ */
+@Slf4j
+class TextUnloadFileWriter implements UnloadFileWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final S3MultipartOutputStream stream;
+    private final UnloadRowEncoder encoder;
+    private final Writer writer;
+
+    /**
+     * @param stream destination.
+     * @param compression compression of the file.
+     * @param encoder encodes the rows.
+     * @param header column names written as the first line, or {@code null} to write no header.
+     * @throws IOException if the header could not be written.
+     */
+    TextUnloadFileWriter(final S3MultipartOutputStream stream, final UnloadCompression compression,
+            final UnloadRowEncoder encoder, final String[] header) throws IOException {
+        this.stream = stream;
+        this.encoder = encoder;
+        this.writer = new BufferedWriter(new OutputStreamWriter(compression.compress(stream), StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+        if (header != null) {
+            encoder.encodeHeader(header, this.writer);
+        }
+    }
+
+    @Override
+    public void write(final Object[] row) throws IOException {
+        this.encoder.encode(row, this.writer);
+    }
+
+    /**
+     * @return number of (compressed) bytes passed to the upload, the data still buffered by the writer
+     *         and the compressor is not included.
+     */
+    @Override
+    public long getDataSize() {
+        return this.stream.getPosition();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+
+    @Override
+    public void abort() {
+        this.stream.abort();
+        try {
+            this.writer.close();
+        } catch (final IOException e) {
+            log.debug("Unable to close aborted UNLOAD writer", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the rows and S3 bytes transferred by an execution of a {@code COPY} or {@code UNLOAD} command.
+ * The S3 objects are read and uploaded on pool threads, so the counters are {@link LongAdder}s.
+ */
+class TransferCounters {
+
+    private final LongAdder rowsRead = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder s3BytesRead = new LongAdder();
+    private final LongAdder s3BytesWritten = new LongAdder();
+
+    void addRowsRead(final long rows) {
+        this.rowsRead.add(rows);
+    }
+
+    void addRowsWritten(final long rows) {
+        this.rowsWritten.add(rows);
+    }
+
+    void addS3BytesRead(final long bytes) {
+        this.s3BytesRead.add(bytes);
+    }
+
+    void addS3BytesWritten(final long bytes) {
+        this.s3BytesWritten.add(bytes);
+    }
+
+    /**
+     * Clears the counters before an execution.
+     */
+    void reset() {
+        this.rowsRead.reset();
+        this.rowsWritten.reset();
+        this.s3BytesRead.reset();
+        this.s3BytesWritten.reset();
+    }
+
+    StatementMetrics.StatementMetricsBuilder copyTo(final StatementMetrics.StatementMetricsBuilder metrics) {
+        return metrics
+                .rowsRead(this.rowsRead.sum())
+                .rowsWritten(this.rowsWritten.sum())
+                .s3BytesRead(this.s3BytesRead.sum())
+                .s3BytesWritten(this.s3BytesWritten.sum());
+    }
+}
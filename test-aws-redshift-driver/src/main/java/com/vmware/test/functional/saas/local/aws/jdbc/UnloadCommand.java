@@ -5,56 +5,94 @@
 
 package com.vmware.test.functional.saas.local.aws.jdbc;
 
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.AwsCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
-import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.generic.GenericRecordBuilder;
-import org.apache.hadoop.conf.Configuration;
-import org.apache.parquet.avro.AvroParquetWriter;
-import org.apache.parquet.hadoop.ParquetWriter;
-import org.apache.parquet.hadoop.metadata.CompressionCodecName;
-import org.apache.parquet.hadoop.util.HadoopOutputFile;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Implements {@code UNLOAD} command.
+ * The result set is streamed to S3 as multipart uploads, without local files. The rows are written by
+ * several slices unless {@code PARALLEL OFF} is specified, and each slice starts a new file when its
+ * current file reaches {@code MAXFILESIZE}. The result set is read from a server-side cursor, so that
+ * the rows are not loaded into memory at once.
+ * <p>
+ * The files are written as delimited text by default, or in the {@code CSV}, {@code JSON} (JSON lines) or
+ * {@code PARQUET} format. Text files may be compressed with {@code GZIP} or {@code ZSTD} while they are streamed.
  */
 @AllArgsConstructor
+@Getter
+@Slf4j
 class UnloadCommand implements ExecutionCommand<Boolean> {
 
     static Pattern pattern = Pattern.compile("UNLOAD\\s+\\('(.+?)'\\)\\s+TO\\s+'(.+?)'(.*)", Pattern.CASE_INSENSITIVE);
-    private static final String PART_00 = "0000_part_00";
+    private static Pattern patternOptionsMaxFileSize = Pattern.compile(
+            "MAXFILESIZE\\s+(AS\\s+)?(?<size>\\d+(\\.\\d+)?)\\s*(?<unit>MB|GB)?", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsParallel = Pattern.compile(
+            "PARALLEL\\s+(?<parallel>ON|OFF|TRUE|FALSE)", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsFormat = Pattern.compile(
+            "\\b(FORMAT\\s+(AS\\s+)?)?(?<format>CSV|JSON|PARQUET)\\b", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsDelimiter = Pattern.compile(
+            "\\bDELIMITER\\s+(AS\\s+)?(?=')", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsNullAs = Pattern.compile(
+            "\\bNULL\\s+(AS\\s+)?(?=')", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsCompression = Pattern.compile(
+            "\\b(?<compression>GZIP|ZSTD|BZIP2)\\b", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsAddQuotes = Pattern.compile("\\bADDQUOTES\\b", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsHeader = Pattern.compile("\\bHEADER\\b", Pattern.CASE_INSENSITIVE);
+    private static Pattern patternOptionsManifest = Pattern.compile("\\bMANIFEST\\b", Pattern.CASE_INSENSITIVE);
+    private static final long MB = 1024L * 1024;
+    /**
+     * Redshift default of 6.2 GB.
+     */
+    private static final long DEFAULT_MAX_FILE_SIZE = (long)(6.2 * 1024 * MB);
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private final ExecutionCommandParser.ExecutionCommandContext context;
     private final String query;
     private final String s3Bucket;
-    private final boolean parquetFormatRequired;
+    private final UnloadFormat format;
+    private final UnloadCompression compression;
+    private final String delimiter;
+    private final String nullAs;
+    private final boolean addQuotes;
+    private final boolean header;
     private final boolean manifestRequired;
+    private final long maxFileSize;
+    private final boolean parallel;
+    @Getter(AccessLevel.NONE)
+    private final TransferCounters transferCounters = new TransferCounters();
 
     static Optional<UnloadCommand> parse(final String sql, final ExecutionCommandParser.ExecutionCommandContext context) {
         final Matcher matcher = pattern.matcher(sql);
@@ -65,13 +103,78 @@ class UnloadCommand implements ExecutionCommand<Boolean> {
         final String queryPart = matcher.group(1);
         final String s3Part = matcher.group(2);
         final String theRest = matcher.group(3);
+        // the keywords are only matched outside of literals such as IAM_ROLE 'arn:aws:iam::1:role/json-unloader'
+        final String keywords = CommandOptions.blankLiterals(theRest);
+        final UnloadFormat format = parseFormat(keywords);
+        final UnloadCompression compression = parseCompression(keywords);
+        if (format == UnloadFormat.PARQUET && compression != UnloadCompression.NONE) {
+            throw new IllegalArgumentException("UNLOAD PARQUET files are compressed with SNAPPY, "
+                    + compression + " cannot be specified");
+        }
 
         return Optional.of(new UnloadCommand(
                 context,
                 queryPart,
                 s3Part,
-                theRest.contains("PARQUET"),
-                theRest.contains("MANIFEST")));
+                format,
+                compression,
+                parseDelimiter(theRest, keywords, format),
+                parseNullAs(theRest, keywords),
+                patternOptionsAddQuotes.matcher(keywords).find(),
+                patternOptionsHeader.matcher(keywords).find(),
+                patternOptionsManifest.matcher(keywords).find(),
+                parseMaxFileSize(keywords),
+                parseParallel(keywords)));
+    }
+
+    private static UnloadFormat parseFormat(final String options) {
+        final Matcher matcher = patternOptionsFormat.matcher(options);
+        if (!matcher.find()) {
+            return UnloadFormat.TEXT;
+        }
+        return UnloadFormat.valueOf(matcher.group("format").toUpperCase(Locale.ROOT));
+    }
+
+    private static UnloadCompression parseCompression(final String options) {
+        final Matcher matcher = patternOptionsCompression.matcher(options);
+        if (!matcher.find()) {
+            return UnloadCompression.NONE;
+        }
+        final String compression = matcher.group("compression").toUpperCase(Locale.ROOT);
+        if ("BZIP2".equals(compression)) {
+            throw new UnsupportedOperationException("UNLOAD BZIP2 compression is not supported");
+        }
+        return UnloadCompression.valueOf(compression);
+    }
+
+    private static String parseDelimiter(final String options, final String keywords, final UnloadFormat format) {
+        return CommandOptions.literalAfter(patternOptionsDelimiter, options, keywords)
+                .filter(delimiter -> !delimiter.isEmpty())
+                .map(delimiter -> "\\t".equals(delimiter) ? "\t" : delimiter)
+                .orElse(format.getDefaultDelimiter());
+    }
+
+    private static String parseNullAs(final String options, final String keywords) {
+        // Redshift unloads nulls as empty strings by default
+        return CommandOptions.literalAfter(patternOptionsNullAs, options, keywords).orElse("");
+    }
+
+    private static long parseMaxFileSize(final String options) {
+        final Matcher matcher = patternOptionsMaxFileSize.matcher(options);
+        if (!matcher.find()) {
+            return DEFAULT_MAX_FILE_SIZE;
+        }
+        final long unit = "GB".equalsIgnoreCase(matcher.group("unit")) ? 1024 * MB : MB;
+        return (long)(Double.parseDouble(matcher.group("size")) * unit);
+    }
+
+    private static boolean parseParallel(final String options) {
+        final Matcher matcher = patternOptionsParallel.matcher(options);
+        if (!matcher.find()) {
+            return true;
+        }
+        final String parallel = matcher.group("parallel");
+        return "ON".equalsIgnoreCase(parallel) || "TRUE".equalsIgnoreCase(parallel);
     }
 
     @SneakyThrows
@@ -83,50 +186,50 @@ class UnloadCommand implements ExecutionCommand<Boolean> {
     @SneakyThrows
     @Override
     public Boolean execute(final Statement statement) {
-        try (ResultSet resultSet = statement.executeQuery(this.query)) {
-            return doWithResultSet(resultSet);
-        }
+        return StreamingQuery.execute(statement, this.context.getUnloadFetchSize(),
+                () -> statement.executeQuery(this.query), this::doWithResultSet);
     }
 
     @SneakyThrows
     @Override
     public Boolean execute(final PreparedStatement preparedStatement) {
-        try (ResultSet resultSet = preparedStatement.executeQuery()) {
-            return doWithResultSet(resultSet);
-        }
+        return StreamingQuery.execute(preparedStatement, this.context.getUnloadFetchSize(),
+                preparedStatement::executeQuery, this::doWithResultSet);
+    }
+
+    @Override
+    public CommandType getCommandType() {
+        return CommandType.UNLOAD;
+    }
+
+    @Override
+    public void recordTransfers(final StatementMetrics.StatementMetricsBuilder metrics) {
+        this.transferCounters.copyTo(metrics);
     }
 
     private boolean doWithResultSet(final ResultSet resultSet)
             throws URISyntaxException, IOException, SQLException {
+        this.transferCounters.reset();
         final URI url = new URI(this.s3Bucket);
         final String bucketName = url.getHost();
         // remove leading slash
         final String namePrefix = url.getPath().substring(1);
         final String manifestName = namePrefix + "manifest";
 
-        final AwsCredentials awsCredentials = AwsBasicCredentials
-                .create(this.context.getDefaultAwsAccessKey(), this.context.getDefaultAwsSecretAccessKey());
+        final S3Client client = this.context.getS3Client();
 
-        final S3Client client = S3Client.builder().credentialsProvider(
-                StaticCredentialsProvider.create(awsCredentials))
-                .endpointOverride(URI.create(this.context.getS3EndpointUrl()))
-                .region(Region.of(this.context.getDefaultRegion()))
-                .build();
-
-        if (this.parquetFormatRequired) {
-            putParquetObjectFromResultSet(bucketName, namePrefix, client, resultSet);
-        } else {
-            throw new UnsupportedOperationException("only queries that define explicitly parquet format are supported");
-        }
+        final List<String> keys = putObjectsFromResultSet(bucketName, namePrefix, client, resultSet);
 
         if (this.manifestRequired) {
-            final String manifestContent = String.format("{\"entries\":[{\"url\":\"%s%s\"}]}", this.s3Bucket, PART_00);
+            final List<Map<String, String>> entries = keys.stream()
+                    .map(key -> Map.of("url", "s3://" + bucketName + "/" + key))
+                    .collect(Collectors.toList());
             client.putObject(
                     PutObjectRequest.builder()
                             .bucket(bucketName)
                             .key(manifestName)
                             .build(),
-                    RequestBody.fromString(manifestContent));
+                    RequestBody.fromString(MAPPER.writeValueAsString(Map.of("entries", entries))));
         }
         return true;
     }
@@ -142,49 +245,69 @@ class UnloadCommand implements ExecutionCommand<Boolean> {
         return schemaFieldAssembler.endRecord();
     }
 
-    private void putParquetObjectFromResultSet(final String bucketName,
+    private static String[] columnNames(final ResultSetMetaData metaData) throws SQLException {
+        final String[] names = new String[metaData.getColumnCount()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = metaData.getColumnName(i + 1);
+        }
+        return names;
+    }
+
+    private UnloadRowEncoder createRowEncoder(final String[] columnNames) {
+        if (this.format == UnloadFormat.JSON) {
+            return new JsonRowEncoder(columnNames);
+        }
+        return new DelimitedRowEncoder(this.format == UnloadFormat.CSV, this.delimiter, this.nullAs, this.addQuotes);
+    }
+
+    private List<String> putObjectsFromResultSet(final String bucketName,
             final String namePrefix,
             final S3Client client,
             final ResultSet resultSet) throws IOException, SQLException {
-        final String objectName = namePrefix + PART_00;
-        final Path tmpDir = Files.createTempDirectory(null);
-        final Path tempFile = tmpDir.resolve(objectName);
-        try {
-            final ResultSetMetaData metaData = resultSet.getMetaData();
-
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        final int slices = this.parallel ? this.context.getUnloadSlices() : 1;
+        final int uploadParallelism = this.context.getUnloadUploadParallelism();
+        // the upload threads are shared by the slices
+        final int partsInFlight = Math.max(1, uploadParallelism / slices);
+        final int partSize = this.context.getUnloadPartSize();
+        final ExecutorService uploadExecutor = Executors.newFixedThreadPool(uploadParallelism,
+                new DaemonThreadFactory("unload-upload-" + POOL_COUNTER.incrementAndGet()));
+        final SqlTransformer.ColumnExtractor[] extractors = SqlTransformer.extractors(metaData, this.format);
+        final UnloadSliceWriters.FileWriterFactory fileWriterFactory;
+        if (this.format == UnloadFormat.PARQUET) {
             final Schema schema = schemaFromSqlMetadata(metaData);
-            try (ParquetWriter<GenericRecord> writer =
-                         buildWriter(tempFile.toAbsolutePath().toString(), schema)) {
-                while (resultSet.next()) {
-                    final GenericRecordBuilder genericRecordBuilder = new GenericRecordBuilder(schema);
-                    for (int i = 1; i <= metaData.getColumnCount(); i++) {
-                        SqlTransformer.extractResult(
-                                metaData.getColumnType(i),
-                                metaData.getColumnName(i), resultSet,
-                                genericRecordBuilder);
-                    }
-                    writer.write(genericRecordBuilder.build());
+            fileWriterFactory = key -> new ParquetUnloadFileWriter(
+                    new S3OutputFile("s3://" + bucketName + "/" + key,
+                            () -> new S3MultipartOutputStream(client, bucketName, key, partSize, partsInFlight,
+                                    uploadExecutor, this.transferCounters)),
+                    schema);
+        } else {
+            final String[] columnNames = columnNames(metaData);
+            // the encoders are stateless, so the slices share one
+            final UnloadRowEncoder encoder = createRowEncoder(columnNames);
+            fileWriterFactory = key -> new TextUnloadFileWriter(
+                    new S3MultipartOutputStream(client, bucketName, key, partSize, partsInFlight, uploadExecutor,
+                            this.transferCounters),
+                    this.compression, encoder, this.header ? columnNames : null);
+        }
+        try (UnloadSliceWriters writers = new UnloadSliceWriters(extractors.length, namePrefix,
+                this.compression.getExtension(), this.parallel, slices, this.maxFileSize,
+                this.context.getUnloadMaxFileRows(), fileWriterFactory)) {
+            long rows = 0;
+            while (resultSet.next()) {
+                final Object[] row = writers.nextRow();
+                for (int i = 0; i < extractors.length; i++) {
+                    row[i] = extractors[i].extract(resultSet, i + 1);
                 }
+                rows++;
             }
-            client.putObject(
-                    PutObjectRequest.builder()
-                            .bucket(bucketName)
-                            .key(objectName)
-                            .build(),
-                    tempFile);
+            final List<String> keys = writers.finish();
+            this.transferCounters.addRowsRead(rows);
+            this.transferCounters.addRowsWritten(rows);
+            log.info("UNLOAD to [s3://{}/{}] wrote [{}] files", bucketName, namePrefix, keys.size());
+            return keys;
         } finally {
-            tmpDir.toFile().deleteOnExit();
-            tempFile.toFile().deleteOnExit();
+            uploadExecutor.shutdown();
         }
     }
-
-    private ParquetWriter<GenericRecord> buildWriter(final String outputFilePath,
-            final Schema schema) throws IOException {
-        final Configuration conf = new Configuration();
-        return AvroParquetWriter.<GenericRecord>builder(
-                HadoopOutputFile.fromPath(new org.apache.hadoop.fs.Path(outputFilePath), conf))
-                .withSchema(schema)
-                .withCompressionCodec(CompressionCodecName.SNAPPY)
-                .build();
-    }
 }
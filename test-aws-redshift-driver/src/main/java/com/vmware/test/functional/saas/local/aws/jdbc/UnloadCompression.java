@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+/**
+ * Compression of text {@code UNLOAD} output files. The extension is appended to the file names, like Redshift does.
+ */
+enum UnloadCompression {
+    NONE(""),
+    GZIP(".gz"),
+    ZSTD(".zst");
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final String extension;
+
+    UnloadCompression(final String extension) {
+        this.extension = extension;
+    }
+
+    String getExtension() {
+        return this.extension;
+    }
+
+    /**
+     * @param out destination of the compressed data.
+     * @return stream which compresses the data written to it, closing it closes the destination.
+     * @throws IOException if the compressor could not be created.
+     */
+    OutputStream compress(final OutputStream out) throws IOException {
+        switch (this) {
+        case GZIP:
+            return new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+        case ZSTD:
+            return new ZstdOutputStream(out);
+        default:
+            return out;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes the rows of a single {@code UNLOAD} output file.
+ * Closing the writer completes the file, aborting it discards the file.
+ */
+interface UnloadFileWriter extends Closeable {
+
+    /**
+     * Writes a row. The row array is reused by the caller after this method returns.
+     *
+     * @param row column values.
+     * @throws IOException if the row could not be written.
+     */
+    void write(Object[] row) throws IOException;
+
+    /**
+     * @return number of bytes written so far, including buffered data that is not written out yet.
+     */
+    long getDataSize();
+
+    void abort();
+}
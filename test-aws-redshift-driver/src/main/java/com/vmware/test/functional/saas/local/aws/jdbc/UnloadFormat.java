@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.sql.ResultSet;
+
+/**
+ * Format of the {@code UNLOAD} output files.
+ */
+enum UnloadFormat {
+    /**
+     * Delimited text, the default format.
+     */
+    TEXT("|"),
+    CSV(","),
+    JSON(null),
+    PARQUET(null);
+
+    private final String defaultDelimiter;
+
+    UnloadFormat(final String defaultDelimiter) {
+        this.defaultDelimiter = defaultDelimiter;
+    }
+
+    String getDefaultDelimiter() {
+        return this.defaultDelimiter;
+    }
+
+    /**
+     * @param sqlType SQL type of a column.
+     * @return extractor of the column values in the form expected by the file writer of this format.
+     */
+    SqlTransformer.ColumnExtractor extractor(final int sqlType) {
+        switch (this) {
+        case PARQUET:
+            return SqlTransformer.extractor(sqlType);
+        case JSON:
+            return SqlTransformer.jsonExtractor(sqlType);
+        default:
+            return ResultSet::getString;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Encodes the rows of a text {@code UNLOAD} output file, one row per line.
+ */
+interface UnloadRowEncoder {
+
+    /**
+     * Writes the header line of a file.
+     *
+     * @param columnNames column names.
+     * @param out destination.
+     * @throws IOException if the header could not be written.
+     */
+    void encodeHeader(String[] columnNames, Writer out) throws IOException;
+
+    /**
+     * Writes a row followed by a new line.
+     *
+     * @param row column values.
+     * @param out destination.
+     * @throws IOException if the row could not be written.
+     */
+    void encode(Object[] row, Writer out) throws IOException;
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Distributes the rows of an {@code UNLOAD} command to the output files.
+ * Like the slices of a Redshift cluster, each of the {@code slices} writer threads writes its own files,
+ * and it starts a new file when the current one reaches {@code maxFileSize} bytes or {@code maxFileRows} rows.
+ * The rows are handed to the slices in batches, round-robin, through bounded queues. The batches and their
+ * row arrays are recycled once a slice has written them, so that the rows are filled in place.
+ * <p>
+ * The files of a parallel unload are named {@code <prefix><slice>_part_<part>}, e.g. {@code 0001_part_00},
+ * and the files of a serial unload are named {@code <prefix><part>}, e.g. {@code 000}, like Redshift does.
+ * The name suffix, e.g. {@code .gz}, is appended to both forms.
+ */
+@Slf4j
+class UnloadSliceWriters implements AutoCloseable {
+
+    private static final int BATCH_ROWS = 256;
+    private static final int QUEUE_CAPACITY = 4;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+    private static final RowBatch END_OF_ROWS = new RowBatch(0, 0);
+
+    private final int columnCount;
+    private final String namePrefix;
+    private final String nameSuffix;
+    private final boolean parallel;
+    private final long maxFileSize;
+    private final long maxFileRows;
+    private final FileWriterFactory fileWriterFactory;
+    private final ExecutorService executor;
+    private final List<Slice> slices = new ArrayList<>();
+    private final List<Future<List<String>>> sliceResults = new ArrayList<>();
+    private final BlockingQueue<RowBatch> freeBatches;
+    private final int maxBatches;
+
+    private RowBatch batch;
+    private int allocatedBatches;
+    private int nextSlice;
+
+    /**
+     * @param columnCount number of columns of a row.
+     * @param namePrefix prefix of the object keys.
+     * @param nameSuffix suffix of the object keys, e.g. the extension of a compressed file.
+     * @param parallel whether the rows are written by several slices.
+     * @param sliceCount number of slices of a parallel unload.
+     * @param maxFileSize approximate maximum size of a file in bytes.
+     * @param maxFileRows maximum number of rows of a file.
+     * @param fileWriterFactory creates the writer of an object key.
+     */
+    UnloadSliceWriters(final int columnCount, final String namePrefix, final String nameSuffix,
+            final boolean parallel, final int sliceCount, final long maxFileSize, final long maxFileRows,
+            final FileWriterFactory fileWriterFactory) {
+        if (sliceCount <= 0 || maxFileSize <= 0 || maxFileRows <= 0) {
+            throw new IllegalArgumentException("UNLOAD slices and file limits should be positive numbers");
+        }
+        this.columnCount = columnCount;
+        this.namePrefix = namePrefix;
+        this.nameSuffix = nameSuffix;
+        this.parallel = parallel;
+        this.maxFileSize = maxFileSize;
+        this.maxFileRows = maxFileRows;
+        this.fileWriterFactory = fileWriterFactory;
+        final int threads = parallel ? sliceCount : 1;
+        // queued batches, the batches being written and the batch being filled
+        this.maxBatches = threads * (QUEUE_CAPACITY + 1) + 1;
+        this.freeBatches = new ArrayBlockingQueue<>(this.maxBatches);
+        this.executor = Executors.newFixedThreadPool(threads,
+                new DaemonThreadFactory("unload-slice-" + POOL_COUNTER.incrementAndGet()));
+        for (int i = 0; i < threads; i++) {
+            final Slice slice = new Slice(i);
+            this.slices.add(slice);
+            this.sliceResults.add(this.executor.submit(slice::run));
+        }
+    }
+
+    /**
+     * Returns the array of the next row, which the caller fills with the column values.
+     * The array is reused for another row once the row is written, so it should be filled completely.
+     * Blocks while the slices are busy.
+     *
+     * @return row values.
+     * @throws IOException if any of the slices failed.
+     */
+    Object[] nextRow() throws IOException {
+        if (this.batch != null && this.batch.size == BATCH_ROWS) {
+            sendBatch();
+        }
+        if (this.batch == null) {
+            this.batch = takeFreeBatch();
+        }
+        return this.batch.rows[this.batch.size++];
+    }
+
+    /**
+     * Writes the remaining rows and waits for the slices to complete their files.
+     *
+     * @return keys of the written objects, ordered by slice and part.
+     * @throws IOException if any of the files could not be written.
+     */
+    List<String> finish() throws IOException {
+        if (this.batch != null && this.batch.size > 0) {
+            sendBatch();
+        }
+        for (Slice slice : this.slices) {
+            put(slice, END_OF_ROWS);
+        }
+        final List<String> keys = new ArrayList<>();
+        for (Future<List<String>> sliceResult : this.sliceResults) {
+            keys.addAll(awaitSlice(sliceResult));
+        }
+        if (keys.isEmpty()) {
+            // an empty result is unloaded to a single file without rows
+            final String key = fileKey(0, 0);
+            this.fileWriterFactory.create(key).close();
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /**
+     * Stops the slices if the rows were not finished, discarding the files which are in progress.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+    private void sendBatch() throws IOException {
+        final Slice slice = this.slices.get(this.nextSlice);
+        this.nextSlice = (this.nextSlice + 1) % this.slices.size();
+        put(slice, this.batch);
+        this.batch = null;
+    }
+
+    private RowBatch takeFreeBatch() throws IOException {
+        final RowBatch free = this.freeBatches.poll();
+        if (free != null) {
+            free.size = 0;
+            return free;
+        }
+        if (this.allocatedBatches < this.maxBatches) {
+            this.allocatedBatches++;
+            return new RowBatch(BATCH_ROWS, this.columnCount);
+        }
+        try {
+            RowBatch taken;
+            while ((taken = this.freeBatches.poll(OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                checkSlices();
+            }
+            taken.size = 0;
+            return taken;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("UNLOAD was interrupted");
+        }
+    }
+
+    private void put(final Slice slice, final RowBatch rows) throws IOException {
+        try {
+            while (!slice.queue.offer(rows, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkSlices();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("UNLOAD was interrupted");
+        }
+    }
+
+    /**
+     * Rethrows the failure of a slice, as a slice which failed does not take more rows.
+     * Before the end of the rows, a slice is only done if it failed.
+     */
+    private void checkSlices() throws IOException {
+        for (Future<List<String>> sliceResult : this.sliceResults) {
+            if (sliceResult.isDone()) {
+                awaitSlice(sliceResult);
+            }
+        }
+    }
+
+    private static List<String> awaitSlice(final Future<List<String>> sliceResult) throws IOException {
+        try {
+            return sliceResult.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("UNLOAD was interrupted");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException)e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private String fileKey(final int slice, final int part) {
+        if (this.parallel) {
+            return String.format("%s%04d_part_%02d%s", this.namePrefix, slice, part, this.nameSuffix);
+        }
+        return String.format("%s%03d%s", this.namePrefix, part, this.nameSuffix);
+    }
+
+    /**
+     * Creates the writer of an {@code UNLOAD} output file.
+     */
+    @FunctionalInterface
+    interface FileWriterFactory {
+
+        UnloadFileWriter create(String key) throws IOException;
+    }
+
+    /**
+     * Rows of a batch, of which the first {@code size} rows are filled.
+     */
+    private static final class RowBatch {
+        private final Object[][] rows;
+        private int size;
+
+        RowBatch(final int rowCount, final int columnCount) {
+            this.rows = new Object[rowCount][columnCount];
+        }
+    }
+
+    /**
+     * Writer thread which writes the files of a slice.
+     */
+    private final class Slice {
+
+        private final int number;
+        private final BlockingQueue<RowBatch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final List<String> keys = new ArrayList<>();
+        private UnloadFileWriter file;
+        private long fileRows;
+
+        Slice(final int number) {
+            this.number = number;
+        }
+
+        List<String> run() throws IOException, InterruptedException {
+            try {
+                RowBatch rows;
+                while ((rows = this.queue.take()) != END_OF_ROWS) {
+                    for (int i = 0; i < rows.size; i++) {
+                        write(rows.rows[i]);
+                    }
+                    UnloadSliceWriters.this.freeBatches.offer(rows);
+                }
+                closeFile();
+                return this.keys;
+            } catch (final IOException | InterruptedException | RuntimeException e) {
+                if (this.file != null) {
+                    this.file.abort();
+                }
+                throw e;
+            }
+        }
+
+        private void write(final Object[] row) throws IOException {
+            if (this.file == null) {
+                final String key = fileKey(this.number, this.keys.size());
+                log.debug("UNLOAD slice [{}] starts file [{}]", this.number, key);
+                this.file = UnloadSliceWriters.this.fileWriterFactory.create(key);
+                this.keys.add(key);
+                this.fileRows = 0;
+            }
+            this.file.write(row);
+            this.fileRows++;
+            if (this.fileRows >= UnloadSliceWriters.this.maxFileRows
+                    || this.file.getDataSize() >= UnloadSliceWriters.this.maxFileSize) {
+                closeFile();
+            }
+        }
+
+        private void closeFile() throws IOException {
+            if (this.file != null) {
+                final UnloadFileWriter completed = this.file;
+                this.file = null;
+                completed.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link AvroCopyReader}.
+ */
+public class AvroCopyReaderTest {
+
+    @Test
+    public void readsRecordsByFieldName() throws IOException {
+        final Schema dateSchema = LogicalTypes.date().addToSchema(Schema.create(Schema.Type.INT));
+        final Schema schema = SchemaBuilder.record("row").fields()
+                .optionalString("NAME")
+                .optionalLong("id")
+                .optionalBytes("data")
+                .name("day").type(dateSchema).noDefault()
+                .optionalString("ignored")
+                .endRecord();
+        final TableMetadata table = TableMetadata.of("t", List.of("id", "name", "data", "day"),
+                new int[] { Types.BIGINT, Types.VARCHAR, Types.VARBINARY, Types.DATE });
+
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(schema))) {
+            writer.create(schema, content);
+            for (long i = 1; i <= 2; i++) {
+                final GenericRecord record = new GenericData.Record(schema);
+                record.put("NAME", "name" + i);
+                record.put("id", i);
+                record.put("data", ByteBuffer.wrap(new byte[] { (byte)i }));
+                record.put("day", 1);
+                record.put("ignored", "x");
+                writer.append(record);
+            }
+        }
+        final S3InputFile file = Mockito.mock(S3InputFile.class);
+        Mockito.when(file.openStream()).thenReturn(new ByteArrayInputStream(content.toByteArray()));
+        final List<Object[]> rows = new ArrayList<>();
+        new AvroCopyReader().read(file, table, rows::add);
+
+        assertThat(rows.size(), is(2));
+        assertThat(rows.get(1), is(new Object[] { 2L, "name2", new byte[] { 2 }, Date.valueOf(LocalDate.ofEpochDay(1)) }));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.mockito.Mockito;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link ColumnBinder}.
+ */
+public class ColumnBinderTest {
+
+    private final PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+
+    @DataProvider
+    Object[][] booleans() {
+        return new Object[][] {
+                { Types.BIT, "t", true },
+                { Types.BIT, "TRUE", true },
+                { Types.BIT, "y", true },
+                { Types.BOOLEAN, "yes", true },
+                { Types.BOOLEAN, " on ", true },
+                { Types.BOOLEAN, "1", true },
+                { Types.BIT, "f", false },
+                { Types.BIT, "False", false },
+                { Types.BIT, "n", false },
+                { Types.BOOLEAN, "no", false },
+                { Types.BOOLEAN, "off", false },
+                { Types.BOOLEAN, "0", false },
+                { Types.BOOLEAN, Boolean.TRUE, true },
+        };
+    }
+
+    @Test(dataProvider = "booleans")
+    public void bindsBooleans(final int sqlType, final Object value, final boolean expected) throws SQLException {
+        ColumnBinder.forType(sqlType).bindValue(this.preparedStatement, 1, value);
+        Mockito.verify(this.preparedStatement).setBoolean(1, expected);
+    }
+
+    @Test(expectedExceptions = SQLException.class, expectedExceptionsMessageRegExp = ".*boolean: \"maybe\"")
+    public void rejectsInvalidBooleans() throws SQLException {
+        ColumnBinder.forType(Types.BIT).bindValue(this.preparedStatement, 1, "maybe");
+    }
+
+    @Test
+    public void bindsWholeNumbers() throws SQLException {
+        ColumnBinder.forType(Types.INTEGER).bindValue(this.preparedStatement, 1, 3L);
+        ColumnBinder.forType(Types.INTEGER).bindValue(this.preparedStatement, 2, 4.0);
+        ColumnBinder.forType(Types.BIGINT).bindValue(this.preparedStatement, 3, new BigDecimal("3000000000"));
+        Mockito.verify(this.preparedStatement).setInt(1, 3);
+        Mockito.verify(this.preparedStatement).setInt(2, 4);
+        Mockito.verify(this.preparedStatement).setLong(3, 3_000_000_000L);
+    }
+
+    @Test(expectedExceptions = SQLException.class, expectedExceptionsMessageRegExp = ".*\"3000000000\".*integer")
+    public void rejectsIntegerOverflow() throws SQLException {
+        ColumnBinder.forType(Types.INTEGER).bindValue(this.preparedStatement, 1, 3_000_000_000L);
+    }
+
+    @Test(expectedExceptions = SQLException.class, expectedExceptionsMessageRegExp = ".*\"1.5\".*integer")
+    public void rejectsFractionalIntegers() throws SQLException {
+        ColumnBinder.forType(Types.INTEGER).bindValue(this.preparedStatement, 1, 1.5);
+    }
+
+    @Test(expectedExceptions = SQLException.class, expectedExceptionsMessageRegExp = ".*bigint")
+    public void rejectsBigintOverflow() throws SQLException {
+        ColumnBinder.forType(Types.BIGINT).bindValue(this.preparedStatement, 1, new BigDecimal("1e20"));
+    }
+}
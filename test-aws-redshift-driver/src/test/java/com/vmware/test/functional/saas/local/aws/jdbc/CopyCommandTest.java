@@ -25,7 +25,7 @@ public class CopyCommandTest {
                         new CopyCommand(null,
                             "table",
                             "s3://a/b",
-                            true,
+                            new JsonCopyReader("auto"),
                             true,
                             true),
                 },
@@ -33,7 +33,7 @@ public class CopyCommandTest {
                         new CopyCommand(null,
                                 "table",
                                 "s3://a/b",
-                                true,
+                                new JsonCopyReader("auto"),
                                 true,
                                 true),
                 },
@@ -41,10 +41,68 @@ public class CopyCommandTest {
                         new CopyCommand(null,
                                 "table",
                                 "s3://a/b",
+                                new JsonCopyReader("auto"),
                                 true,
+                                false),
+                },
+                { "COPY table FROM 's3://a/b' IAM_ROLE 'arn:aws:iam::a:role/a' JSON AS 's3://a/jsonpaths.json'",
+                        new CopyCommand(null,
+                                "table",
+                                "s3://a/b",
+                                new JsonCopyReader("s3://a/jsonpaths.json"),
+                                false,
+                                false),
+                },
+                { "COPY table FROM 's3://a/b' IAM_ROLE 'arn:aws:iam::a:role/a' CSV DELIMITER AS ';' IGNOREHEADER 1 GZIP",
+                        new CopyCommand(null,
+                                "table",
+                                "s3://a/b",
+                                new DelimitedCopyReader(true, ';', '"', "\\N", 1, false, false),
                                 true,
                                 false),
                 },
+                { "COPY table FROM 's3://a/b' IAM_ROLE 'arn:aws:iam::a:role/a' DELIMITER '\\t' NULL AS '' EMPTYASNULL",
+                        new CopyCommand(null,
+                                "table",
+                                "s3://a/b",
+                                new DelimitedCopyReader(false, '\t', '"', "", 0, true, false),
+                                false,
+                                false),
+                },
+                // the keywords in literals are not options
+                { "COPY table FROM 's3://a/b' IAM_ROLE 'arn:aws:iam::1:role/csv-parquet-gzip-manifest-loader' json 'auto'",
+                        new CopyCommand(null,
+                                "table",
+                                "s3://a/b",
+                                new JsonCopyReader("auto"),
+                                false,
+                                false),
+                },
+                { "COPY table FROM 's3://a/b' CREDENTIALS 'aws_access_key_id=json;aws_secret_access_key=delimiter ''x'''"
+                        + " NULL AS 'gzip'",
+                        new CopyCommand(null,
+                                "table",
+                                "s3://a/b",
+                                new DelimitedCopyReader(false, '|', '"', "gzip", 0, false, false),
+                                false,
+                                false),
+                },
+                { "COPY table FROM 's3://a/b' IAM_ROLE 'arn:aws:iam::a:role/a' FORMAT AS PARQUET",
+                        new CopyCommand(null,
+                                "table",
+                                "s3://a/b",
+                                new ParquetCopyReader(),
+                                false,
+                                false),
+                },
+                { "COPY table FROM 's3://a/b' IAM_ROLE 'arn:aws:iam::a:role/a' format as avro 'auto' manifest",
+                        new CopyCommand(null,
+                                "table",
+                                "s3://a/b",
+                                new AvroCopyReader(),
+                                false,
+                                true),
+                },
         };
     }
 
@@ -52,8 +110,13 @@ public class CopyCommandTest {
     void verifyParse(final String copyCommandStr, final CopyCommand copyCommand) {
         final Optional<CopyCommand> result = CopyCommand.parse(copyCommandStr, null);
         assertThat("result is present", result.isPresent());
-        assertThat(copyCommand.isJsonFormatRequired(), is(result.get().isJsonFormatRequired()));
+        assertThat(copyCommand.getFormatReader(), is(result.get().getFormatReader()));
         assertThat(copyCommand.isGzipCompressionRequired(), is(result.get().isGzipCompressionRequired()));
         assertThat(copyCommand.isManifestRequired(), is(result.get().isManifestRequired()));
     }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    void rejectsCompressedParquet() {
+        CopyCommand.parse("COPY table FROM 's3://a/b' FORMAT AS PARQUET GZIP", null);
+    }
 }
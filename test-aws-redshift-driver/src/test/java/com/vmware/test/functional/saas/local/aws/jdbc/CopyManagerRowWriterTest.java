@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link CopyManagerRowWriter}.
+ */
+public class CopyManagerRowWriterTest {
+
+    private Connection connection;
+    private CopyIn copyIn;
+
+    @BeforeMethod
+    public void setUp() {
+        this.connection = Mockito.mock(Connection.class);
+        this.copyIn = Mockito.mock(CopyIn.class);
+    }
+
+    @Test
+    public void writesRowsInTextFormat() throws SQLException {
+        mockCopyIn("COPY tbl (id,num,tags) FROM STDIN");
+        Mockito.when(this.copyIn.endCopy()).thenReturn(2L);
+
+        final CopyManagerRowWriter rowWriter = new CopyManagerRowWriter(this.connection, "tbl",
+                List.of("id", "num", "tags"), 100, Long.MAX_VALUE);
+        rowWriter.write(new Object[] { "a\tb", 1, List.of("x") });
+        rowWriter.write(new Object[] { "c\\d\n", null, Map.of("k", "v") });
+        rowWriter.finish();
+
+        final ArgumentCaptor<byte[]> data = ArgumentCaptor.forClass(byte[].class);
+        final ArgumentCaptor<Integer> length = ArgumentCaptor.forClass(Integer.class);
+        Mockito.verify(this.copyIn).writeToCopy(data.capture(), ArgumentMatchers.eq(0), length.capture());
+        assertThat(new String(data.getValue(), 0, length.getValue(), StandardCharsets.UTF_8),
+                is("a\\tb\t1\t[\"x\"]\nc\\\\d\\n\t\\N\t{\"k\":\"v\"}\n"));
+        assertThat(rowWriter.getRowsLoaded(), is(2L));
+        assertThat(rowWriter.getBytesLoaded(), is((long)length.getValue()));
+    }
+
+    @Test
+    public void flushesOnRowLimit() throws SQLException {
+        mockCopyIn("COPY tbl (id) FROM STDIN");
+
+        final CopyManagerRowWriter rowWriter = new CopyManagerRowWriter(this.connection, "tbl",
+                List.of("id"), 2, Long.MAX_VALUE);
+        for (int i = 0; i < 5; i++) {
+            rowWriter.write(new Object[] { i });
+        }
+        Mockito.verify(this.copyIn, Mockito.times(2)).flushCopy();
+        rowWriter.finish();
+        Mockito.verify(this.copyIn, Mockito.times(3)).flushCopy();
+        Mockito.verify(this.copyIn).endCopy();
+    }
+
+    @Test
+    public void closeCancelsUnfinishedCopy() throws SQLException {
+        mockCopyIn("COPY tbl (id) FROM STDIN");
+        Mockito.when(this.copyIn.isActive()).thenReturn(true);
+
+        final CopyManagerRowWriter rowWriter = new CopyManagerRowWriter(this.connection, "tbl",
+                List.of("id"), 2, Long.MAX_VALUE);
+        rowWriter.close();
+        Mockito.verify(this.copyIn).cancelCopy();
+    }
+
+    private void mockCopyIn(final String expectedSql) throws SQLException {
+        final PGConnection pgConnection = Mockito.mock(PGConnection.class);
+        final CopyManager copyManager = Mockito.mock(CopyManager.class);
+        Mockito.when(this.connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        Mockito.when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        Mockito.when(copyManager.copyIn(expectedSql)).thenReturn(this.copyIn);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link CopyObjectPipeline}.
+ */
+public class CopyObjectPipelineTest {
+
+    private static final int ROWS_PER_OBJECT = 3000;
+
+    @Test
+    public void writesRowsInObjectOrder() throws Exception {
+        final List<Integer> sources = IntStream.range(0, 8).boxed().collect(Collectors.toList());
+        final List<Object[]> written = new ArrayList<>();
+        final CopyRowWriter rowWriter = Mockito.mock(CopyRowWriter.class);
+        Mockito.doAnswer(invocation -> written.add(invocation.getArgument(0)))
+                .when(rowWriter).write(Mockito.any());
+
+        try (CopyObjectPipeline pipeline = new CopyObjectPipeline(3)) {
+            pipeline.run(sources, (source, rowConsumer) -> {
+                // later objects are faster to read than the earlier ones
+                sleep(10L * (sources.size() - source));
+                for (int i = 0; i < ROWS_PER_OBJECT; i++) {
+                    rowConsumer.accept(new Object[] { source, i });
+                }
+            }, rowWriter);
+        }
+
+        assertThat(written.size(), is(sources.size() * ROWS_PER_OBJECT));
+        for (int i = 0; i < written.size(); i++) {
+            assertThat(written.get(i)[0], is(i / ROWS_PER_OBJECT));
+            assertThat(written.get(i)[1], is(i % ROWS_PER_OBJECT));
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "broken object")
+    public void propagatesReadFailure() throws Exception {
+        final CopyRowWriter rowWriter = Mockito.mock(CopyRowWriter.class);
+        try (CopyObjectPipeline pipeline = new CopyObjectPipeline(2)) {
+            pipeline.run(List.of(0, 1, 2), (source, rowConsumer) -> {
+                if (source == 1) {
+                    throw new IOException("broken object");
+                }
+                rowConsumer.accept(new Object[] { source });
+            }, rowWriter);
+        }
+    }
+
+    @Test(timeOut = 10_000, expectedExceptions = NoClassDefFoundError.class, expectedExceptionsMessageRegExp = "missing/Dependency")
+    public void propagatesReadError() throws Exception {
+        final CopyRowWriter rowWriter = Mockito.mock(CopyRowWriter.class);
+        try (CopyObjectPipeline pipeline = new CopyObjectPipeline(2)) {
+            pipeline.run(List.of(0, 1, 2), (source, rowConsumer) -> {
+                if (source == 1) {
+                    throw new NoClassDefFoundError("missing/Dependency");
+                }
+                rowConsumer.accept(new Object[] { source });
+            }, rowWriter);
+        }
+    }
+
+    private static void sleep(final long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link DelimitedCopyReader}.
+ */
+public class DelimitedCopyReaderTest {
+
+    private final TableMetadata table = TableMetadata.of("t", List.of("id", "name"),
+            new int[] { Types.INTEGER, Types.VARCHAR });
+
+    @Test
+    public void readsCsvWithHeader() throws IOException {
+        final List<Object[]> rows = read(new DelimitedCopyReader(true, ',', '"', "\\N", 1, false, false),
+                "id,name\r\n1,\"a,b\"\r\n2,\"say \"\"hi\"\"\nbye\"\r\n,\\N\r\n3,\n");
+
+        assertThat(rows.size(), is(4));
+        assertThat(rows.get(0), is(new Object[] { "1", "a,b" }));
+        assertThat(rows.get(1), is(new Object[] { "2", "say \"hi\"\nbye" }));
+        // an empty field is null for a non-character column only
+        assertThat(rows.get(2), is(new Object[] { null, null }));
+        assertThat(rows.get(3), is(new Object[] { "3", "" }));
+    }
+
+    @Test
+    public void readsDelimitedText() throws IOException {
+        final List<Object[]> rows = read(new DelimitedCopyReader(false, '|', '"', "\\N", 0, true, false),
+                "1|\"quoted\"\n2|\n3|");
+
+        assertThat(rows.size(), is(3));
+        assertThat(rows.get(0), is(new Object[] { "1", "\"quoted\"" }));
+        assertThat(rows.get(1), is(new Object[] { "2", null }));
+        assertThat(rows.get(2), is(new Object[] { "3", null }));
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Extra column.*")
+    public void rejectsExtraColumns() throws IOException {
+        read(new DelimitedCopyReader(false, '|', '"', "\\N", 0, false, false), "1|a|b\n");
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Delimiter not found in line \\[2].*")
+    public void rejectsMissingColumns() throws IOException {
+        read(new DelimitedCopyReader(false, '|', '"', "\\N", 0, false, false), "1|a\n2\n");
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Delimiter not found in line \\[3].*")
+    public void rejectsBlankLines() throws IOException {
+        read(new DelimitedCopyReader(true, ',', '"', "\\N", 1, false, false), "id,name\n1,a\n\n2,b\n");
+    }
+
+    private List<Object[]> read(final DelimitedCopyReader reader, final String content) throws IOException {
+        final S3InputFile file = Mockito.mock(S3InputFile.class);
+        Mockito.when(file.openStream()).thenReturn(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        final List<Object[]> rows = new ArrayList<>();
+        reader.read(file, this.table, rows::add);
+        return rows;
+    }
+}
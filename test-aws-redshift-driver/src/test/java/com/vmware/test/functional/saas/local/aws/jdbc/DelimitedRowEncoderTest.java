@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link DelimitedRowEncoder}.
+ */
+public class DelimitedRowEncoderTest {
+
+    @Test
+    public void encodesText() throws IOException {
+        final StringWriter out = new StringWriter();
+        final DelimitedRowEncoder encoder = new DelimitedRowEncoder(false, "|", "\\N", false);
+        encoder.encodeHeader(new String[] { "id", "name" }, out);
+        encoder.encode(new Object[] { 1, null }, out);
+        encoder.encode(new Object[] { 2, "a,b" }, out);
+
+        assertThat(out.toString(), is("id|name\n1|\\N\n2|a,b\n"));
+    }
+
+    @Test
+    public void quotesCsvValuesWhenNeeded() throws IOException {
+        final StringWriter out = new StringWriter();
+        final DelimitedRowEncoder encoder = new DelimitedRowEncoder(true, ",", "", false);
+        encoder.encode(new Object[] { "a,b", "say \"hi\"", "plain", null }, out);
+
+        assertThat(out.toString(), is("\"a,b\",\"say \"\"hi\"\"\",plain,\n"));
+    }
+
+    @Test
+    public void addsQuotes() throws IOException {
+        final StringWriter out = new StringWriter();
+        new DelimitedRowEncoder(true, ",", "", true).encode(new Object[] { 1, "x" }, out);
+        new DelimitedRowEncoder(false, "\t", "", true).encode(new Object[] { 1, "x" }, out);
+
+        assertThat(out.toString(), is("\"1\",\"x\"\n\"1\"\t\"x\"\n"));
+    }
+}
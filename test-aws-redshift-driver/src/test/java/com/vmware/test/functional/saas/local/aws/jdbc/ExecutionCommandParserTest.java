@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.Optional;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link ExecutionCommandParser}.
+ */
+public class ExecutionCommandParserTest {
+
+    private final ExecutionCommandParser.ExecutionCommandContext context = ExecutionCommandParser.ExecutionCommandContext
+            .builder()
+            .info(new Properties())
+            .build();
+
+    @Test
+    public void passesThroughPlainStatements() {
+        final String sql = "SELECT id FROM t WHERE name = 'COPY t FROM ''s3://a/b'''";
+        assertThat(parse(sql).isPresent(), is(false));
+        // served from the pass-through cache
+        assertThat(parse(sql).isPresent(), is(false));
+    }
+
+    @Test
+    public void parsesRedshiftCommands() {
+        assertThat(parse("/* load */ COPY t FROM 's3://a/b' format as json 'auto'").get(),
+                is(instanceOf(CopyCommand.class)));
+        assertThat(parse("unload ('select 1') to 's3://a/b'").get(),
+                is(instanceOf(UnloadCommand.class)));
+        final ExecutionCommand<?> command = parse("CREATE TABLE t (id VARCHAR(MAX)) DISTSTYLE EVEN").get();
+        assertThat(command, is(instanceOf(GenericCommand.class)));
+        assertThat(((GenericCommand)command).getQuery().trim(), is("CREATE TABLE t (id VARCHAR(256))"));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void rejectsUnsupportedUnloadCompression() {
+        parse("UNLOAD ('select 1') TO 's3://a/b' FORMAT AS CSV BZIP2");
+    }
+
+    private Optional<ExecutionCommand<?>> parse(final String sql) {
+        return ExecutionCommandParser.parse(new Object[] { sql }, this.context);
+    }
+}
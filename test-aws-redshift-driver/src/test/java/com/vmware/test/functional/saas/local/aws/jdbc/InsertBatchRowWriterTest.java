@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link InsertBatchRowWriter}.
+ */
+public class InsertBatchRowWriterTest {
+
+    @Test
+    public void flushesBatchOnRowLimit() throws SQLException {
+        final PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        final InsertBatchRowWriter rowWriter = new InsertBatchRowWriter(preparedStatement,
+                binders(Types.VARCHAR, Types.INTEGER), 2, Long.MAX_VALUE);
+        for (int i = 0; i < 5; i++) {
+            rowWriter.write(new Object[] { "id", i });
+        }
+        Mockito.verify(preparedStatement, Mockito.times(5)).addBatch();
+        Mockito.verify(preparedStatement, Mockito.times(5)).setString(1, "id");
+        Mockito.verify(preparedStatement).setInt(2, 4);
+        Mockito.verify(preparedStatement, Mockito.times(2)).executeBatch();
+        assertThat(rowWriter.getRowsLoaded(), is(4L));
+
+        rowWriter.flush();
+        Mockito.verify(preparedStatement, Mockito.times(3)).executeBatch();
+        assertThat(rowWriter.getRowsLoaded(), is(5L));
+    }
+
+    @Test
+    public void flushesBatchOnByteLimit() throws SQLException {
+        final PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        final InsertBatchRowWriter rowWriter = new InsertBatchRowWriter(preparedStatement,
+                binders(Types.VARCHAR), Integer.MAX_VALUE, 10);
+        rowWriter.write(new Object[] { "12345" });
+        Mockito.verify(preparedStatement, Mockito.never()).executeBatch();
+
+        rowWriter.write(new Object[] { "67890" });
+        Mockito.verify(preparedStatement, Mockito.times(1)).executeBatch();
+        assertThat(rowWriter.getRowsLoaded(), is(2L));
+        assertThat(rowWriter.getBytesLoaded(), is(10L));
+    }
+
+    @Test
+    public void bindsNullValues() throws SQLException {
+        final PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        final InsertBatchRowWriter rowWriter = new InsertBatchRowWriter(preparedStatement,
+                binders(Types.VARCHAR, Types.BIGINT), 10, 10);
+        rowWriter.write(new Object[] { null, "42" });
+        Mockito.verify(preparedStatement).setNull(1, Types.VARCHAR);
+        Mockito.verify(preparedStatement).setLong(2, 42L);
+    }
+
+    @Test
+    public void flushWithoutPendingRowsIsNoop() throws SQLException {
+        final PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        final InsertBatchRowWriter rowWriter = new InsertBatchRowWriter(preparedStatement,
+                binders(Types.VARCHAR), 1, 1);
+        rowWriter.flush();
+        Mockito.verify(preparedStatement, Mockito.never()).executeBatch();
+        assertThat(rowWriter.getRowsLoaded(), is(0L));
+    }
+
+    private static ColumnBinder[] binders(final int... sqlTypes) {
+        return Arrays.stream(sqlTypes)
+                .mapToObj(ColumnBinder::forType)
+                .toArray(ColumnBinder[]::new);
+    }
+}
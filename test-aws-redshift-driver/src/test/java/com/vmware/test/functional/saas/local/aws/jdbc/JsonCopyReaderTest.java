@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link JsonCopyReader}.
+ */
+public class JsonCopyReaderTest {
+
+    private final TableMetadata table = TableMetadata.of("t", List.of("id", "name", "amount", "city"),
+            new int[] { Types.BIGINT, Types.VARCHAR, Types.NUMERIC, Types.VARCHAR });
+
+    @Test
+    public void shredsTopLevelAttributes() throws IOException {
+        final List<Object[]> rows = read(new JsonCopyReader(JsonCopyReader.AUTO),
+                "{\"id\": 1, \"name\": 7, \"skipped\": {\"a\": [1, 2]}, \"amount\": 1.50, \"city\": {\"zip\": 1}}\n"
+                + "{\"ID\": 2, \"name\": null}");
+
+        assertThat(rows.size(), is(2));
+        assertThat(rows.get(0), is(new Object[] { 1L, "7", new BigDecimal("1.50"), "{\"zip\":1}" }));
+        assertThat(rows.get(1), is(new Object[] { null, null, null, null }));
+    }
+
+    @Test
+    public void ignoresCase() throws IOException {
+        final List<Object[]> rows = read(new JsonCopyReader(JsonCopyReader.AUTO_IGNORECASE), "{\"ID\": 2}");
+
+        assertThat(rows.get(0)[0], is(2L));
+    }
+
+    @Test
+    public void shredsJsonPaths() throws IOException {
+        final S3Client client = Mockito.mock(S3Client.class);
+        Mockito.when(client.getObjectAsBytes(ArgumentMatchers.any(GetObjectRequest.class)))
+                .thenReturn(ResponseBytes.fromByteArray(GetObjectResponse.builder().build(),
+                        ("{\"jsonpaths\": [\"$.id\", \"$['user']['names'][1]\", \"$.amounts[0]\", \"$.address\"]}")
+                                .getBytes(StandardCharsets.UTF_8)));
+        final CopyFormatReader reader = new JsonCopyReader("s3://a/jsonpaths.json").resolve(client, this.table);
+
+        final List<Object[]> rows = read(reader,
+                "{\"user\": {\"names\": [\"a\", \"b\"], \"other\": 1}, \"id\": 3, \"amounts\": [2.5, 3],"
+                + " \"address\": {\"city\": \"x\"}}");
+
+        assertThat(rows.get(0), is(new Object[] { 3L, "b", new BigDecimal("2.5"), "{\"city\":\"x\"}" }));
+    }
+
+    @Test
+    public void parsesJsonPathExpressions() throws IOException {
+        assertThat(JsonPaths.parseExpression("$.a['b.c'][2].d"), is(List.<Object>of("a", "b.c", 2, "d")));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void rejectsTooManyJsonPaths() throws IOException {
+        JsonPaths.parse("{\"jsonpaths\": [\"$.a\", \"$.b\"]}".getBytes(StandardCharsets.UTF_8), 1);
+    }
+
+    private List<Object[]> read(final CopyFormatReader reader, final String content) throws IOException {
+        final S3InputFile file = Mockito.mock(S3InputFile.class);
+        Mockito.when(file.openStream()).thenReturn(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        final List<Object[]> rows = new ArrayList<>();
+        reader.read(file, this.table, rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link JsonRowEncoder}.
+ */
+public class JsonRowEncoderTest {
+
+    @Test
+    public void encodesJsonLines() throws IOException {
+        final StringWriter out = new StringWriter();
+        final JsonRowEncoder encoder = new JsonRowEncoder(new String[] { "id", "name", "ok", "amount", "ratio" });
+        encoder.encodeHeader(new String[] { "id", "name", "ok", "amount", "ratio" }, out);
+        encoder.encode(new Object[] { 1L, "say \"hi\"", true, new BigDecimal("1.50"), Double.NaN }, out);
+        encoder.encode(new Object[] { 2L, null, false, null, 0.5 }, out);
+
+        assertThat(out.toString(), is(
+                "{\"id\":1,\"name\":\"say \\\"hi\\\"\",\"ok\":true,\"amount\":1.50,\"ratio\":\"NaN\"}\n"
+                + "{\"id\":2,\"name\":null,\"ok\":false,\"amount\":null,\"ratio\":0.5}\n"));
+    }
+}
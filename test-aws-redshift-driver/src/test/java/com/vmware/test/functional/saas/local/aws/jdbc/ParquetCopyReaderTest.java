@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link ParquetCopyReader}.
+ */
+public class ParquetCopyReaderTest {
+
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    @Test
+    public void readsUnloadedFileWithRangeRequests() throws IOException {
+        final byte[] content = unload();
+        final S3Client client = Mockito.mock(S3Client.class);
+        Mockito.when(client.headObject(ArgumentMatchers.any(HeadObjectRequest.class)))
+                .thenReturn(HeadObjectResponse.builder().contentLength((long)content.length).build());
+        Mockito.when(client.getObject(ArgumentMatchers.any(GetObjectRequest.class))).thenAnswer(invocation -> {
+            final GetObjectRequest request = invocation.getArgument(0);
+            final String[] range = request.range().substring("bytes=".length()).split("-");
+            final int start = Integer.parseInt(range[0]);
+            final int end = Integer.parseInt(range[1]);
+            return new ResponseInputStream<>(GetObjectResponse.builder().build(),
+                    AbortableInputStream.create(new ByteArrayInputStream(content, start, end - start + 1)));
+        });
+        final TableMetadata table = TableMetadata.of("t", List.of("id", "name", "created"),
+                new int[] { Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP });
+
+        final List<Object[]> rows = new ArrayList<>();
+        new ParquetCopyReader().read(new S3InputFile(client, GetObjectRequest.builder().bucket("b").key("k").build(),
+                false), table, rows::add);
+
+        assertThat(rows.size(), is(3));
+        assertThat(rows.get(0), is(new Object[] { 0L, "name0", new Timestamp(0L) }));
+        assertThat(rows.get(2), is(new Object[] { 2L, null, new Timestamp(2000L) }));
+        final ArgumentCaptor<GetObjectRequest> requests = ArgumentCaptor.forClass(GetObjectRequest.class);
+        Mockito.verify(client, Mockito.atLeastOnce()).getObject(requests.capture());
+        // the footer and the column chunks are read with ranged requests
+        assertThat(requests.getAllValues().stream().allMatch(request -> request.range() != null), is(true));
+    }
+
+    /**
+     * Writes a Parquet file the same way {@code UNLOAD} does, with an extra column which is not projected.
+     */
+    private static byte[] unload() throws IOException {
+        final Schema schema = SchemaBuilder.record("GenericObject").fields()
+                .optionalLong("id")
+                .optionalString("extra")
+                .optionalString("name")
+                .optionalLong("created")
+                .endRecord();
+        final S3Client client = Mockito.mock(S3Client.class);
+        try (ParquetUnloadFileWriter writer = new ParquetUnloadFileWriter(new S3OutputFile("s3://b/k",
+                () -> new S3MultipartOutputStream(client, "b", "k", 1024 * 1024, 1, DIRECT_EXECUTOR)), schema)) {
+            for (long i = 0; i < 3; i++) {
+                writer.write(new Object[] { i, "extra", i == 2 ? null : "name" + i, i * 1000 });
+            }
+        }
+        final ArgumentCaptor<RequestBody> body = ArgumentCaptor.forClass(RequestBody.class);
+        Mockito.verify(client).putObject(ArgumentMatchers.any(PutObjectRequest.class), body.capture());
+        try (InputStream in = body.getValue().contentStreamProvider().newStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
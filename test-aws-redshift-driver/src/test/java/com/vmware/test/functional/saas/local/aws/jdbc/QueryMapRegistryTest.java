@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link QueryMapRegistry}.
+ */
+public class QueryMapRegistryTest {
+
+    @Test
+    public void instantiatesQueryMapOnce() {
+        final QueryMapRegistry registry = new QueryMapRegistry();
+        final int instances = CountingQueryMap.INSTANCES.get();
+
+        assertThat(registry.lookup(CountingQueryMap.class.getName(), false, " select 1 "), is(Optional.of("select 2")));
+        assertThat(registry.lookup(CountingQueryMap.class.getName(), false, "select  1"), is(Optional.empty()));
+        assertThat(registry.lookup(CountingQueryMap.class.getName(), false, "select 3"), is(Optional.empty()));
+        assertThat(CountingQueryMap.INSTANCES.get(), is(instances + 1));
+    }
+
+    @Test
+    public void matchesNormalizedWhitespace() {
+        final QueryMapRegistry registry = new QueryMapRegistry();
+        assertThat(registry.lookup(CountingQueryMap.class.getName(), true, "select\n\t 1;"), is(Optional.empty()));
+        assertThat(registry.lookup(CountingQueryMap.class.getName(), true, "select\n\t 1"), is(Optional.of("select 2")));
+        assertThat(registry.lookup(CountingQueryMap.class.getName(), true, "SELECT a,\n  b FROM t"),
+                is(Optional.of("SELECT b, a FROM t")));
+    }
+
+    @Test
+    public void ignoresClassesThatAreNotMaps() {
+        final QueryMapRegistry registry = new QueryMapRegistry();
+        assertThat(registry.lookup(Object.class.getName(), false, "select 1"), is(Optional.empty()));
+    }
+
+    @Test
+    public void normalizesWhitespace() {
+        assertThat(QueryMapRegistry.normalizeWhitespace("\n select\t a,\r\n b  from t \n"), is("select a, b from t"));
+        assertThat(QueryMapRegistry.normalizeWhitespace("  "), is(""));
+    }
+
+    /**
+     * Query map that counts its instances.
+     */
+    public static class CountingQueryMap extends HashMap<String, String> {
+        private static final long serialVersionUID = 1L;
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        public CountingQueryMap() {
+            INSTANCES.incrementAndGet();
+            put("select 1", "select 2");
+            put("SELECT a,   b FROM t", "SELECT b, a FROM t");
+        }
+    }
+}
@@ -14,11 +14,11 @@ import software.amazon.awssdk.services.s3.model.S3Object;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Types;
 import java.util.AbstractMap;
 import java.util.Collections;
@@ -499,8 +499,8 @@ public class RedshiftTest extends AbstractFunctionalTests {
         }
     }
 
-    private boolean verifySqlExceptionMessage(final InvocationTargetException exception) {
-        final ServerErrorMessage serverErrorMessage = ((PSQLException)exception.getTargetException()).getServerErrorMessage();
+    private boolean verifySqlExceptionMessage(final SQLException exception) {
+        final ServerErrorMessage serverErrorMessage = ((PSQLException)exception).getServerErrorMessage();
         return serverErrorMessage != null && "unrecognized configuration parameter \"query_group\"".equals(serverErrorMessage.getMessage())
                 && "set_config_option".equals(serverErrorMessage.getRoutine());
     }
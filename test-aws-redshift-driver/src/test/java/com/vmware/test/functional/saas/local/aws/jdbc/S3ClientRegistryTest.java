@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link S3ClientRegistry}.
+ */
+public class S3ClientRegistryTest {
+
+    @Test
+    public void reusesClientForSameSettings() {
+        try (S3ClientRegistry registry = new S3ClientRegistry()) {
+            final S3Client client = registry.getClient(context(registry, "accessKey"));
+
+            assertThat(registry.getClient(context(registry, "accessKey")), is(sameInstance(client)));
+            assertThat(registry.getClient(context(registry, "otherAccessKey")), is(not(sameInstance(client))));
+            assertThat(registry.size(), is(2));
+        }
+    }
+
+    @Test
+    public void closeReleasesClients() {
+        final S3ClientRegistry registry = new S3ClientRegistry();
+        final S3Client client = registry.getClient(context(registry, "accessKey"));
+        registry.close();
+        assertThat(registry.size(), is(0));
+
+        // a closed registry creates new clients on demand
+        assertThat(registry.getClient(context(registry, "accessKey")), is(not(sameInstance(client))));
+        registry.close();
+    }
+
+    private static ExecutionCommandParser.ExecutionCommandContext context(final S3ClientRegistry registry,
+            final String accessKey) {
+        final Properties info = new Properties();
+        info.setProperty(TestRedshiftDriver.S3_ENDPOINT_URL, "http://localhost:4566");
+        info.setProperty(TestRedshiftDriver.DEFAULT_AWS_ACCESS_KEY, accessKey);
+        info.setProperty(TestRedshiftDriver.DEFAULT_AWS_SECRET_ACCESS_KEY, "secretKey");
+        info.setProperty(TestRedshiftDriver.DEFAULT_AWS_REGION, "us-east-1");
+        return ExecutionCommandParser.ExecutionCommandContext.builder()
+                .info(info)
+                .s3ClientRegistry(registry)
+                .build();
+    }
+}
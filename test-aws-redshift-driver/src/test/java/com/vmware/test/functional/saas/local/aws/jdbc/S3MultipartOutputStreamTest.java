@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link S3MultipartOutputStream}.
+ */
+public class S3MultipartOutputStreamTest {
+
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    private S3Client client;
+
+    @BeforeMethod
+    public void setUp() {
+        this.client = Mockito.mock(S3Client.class);
+        Mockito.when(this.client.createMultipartUpload(ArgumentMatchers.any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload").build());
+    }
+
+    @Test
+    public void putsSmallObject() throws IOException {
+        try (S3MultipartOutputStream out = new S3MultipartOutputStream(this.client, "bucket", "key", 10, 2,
+                DIRECT_EXECUTOR)) {
+            out.write(new byte[] { 1, 2, 3 });
+            assertThat(out.getPosition(), is(3L));
+        }
+        Mockito.verify(this.client).putObject(ArgumentMatchers.any(PutObjectRequest.class),
+                ArgumentMatchers.any(RequestBody.class));
+        Mockito.verify(this.client, Mockito.never())
+                .createMultipartUpload(ArgumentMatchers.any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void uploadsFullParts() throws IOException {
+        Mockito.when(this.client.uploadPart(ArgumentMatchers.any(UploadPartRequest.class),
+                        ArgumentMatchers.any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        try (S3MultipartOutputStream out = new S3MultipartOutputStream(this.client, "bucket", "key", 4, 2,
+                DIRECT_EXECUTOR)) {
+            out.write(new byte[10], 0, 10);
+            out.write(7);
+            assertThat(out.getPosition(), is(11L));
+        }
+        final ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        Mockito.verify(this.client, Mockito.times(3)).uploadPart(parts.capture(),
+                ArgumentMatchers.any(RequestBody.class));
+        assertThat(parts.getAllValues().get(2).partNumber(), is(3));
+        assertThat(parts.getAllValues().get(2).contentLength(), is(3L));
+
+        final ArgumentCaptor<CompleteMultipartUploadRequest> complete =
+                ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        Mockito.verify(this.client).completeMultipartUpload(complete.capture());
+        assertThat(complete.getValue().multipartUpload().parts().size(), is(3));
+        Mockito.verify(this.client, Mockito.never()).putObject(ArgumentMatchers.any(PutObjectRequest.class),
+                ArgumentMatchers.any(RequestBody.class));
+    }
+
+    @Test
+    public void abortsUploadOnPartFailure() {
+        Mockito.when(this.client.uploadPart(ArgumentMatchers.any(UploadPartRequest.class),
+                        ArgumentMatchers.any(RequestBody.class)))
+                .thenThrow(S3Exception.builder().message("failed").build());
+
+        final S3MultipartOutputStream out = new S3MultipartOutputStream(this.client, "bucket", "key", 4, 2,
+                DIRECT_EXECUTOR);
+        final IOException writeFailure = Assert.expectThrows(IOException.class, () -> out.write(new byte[8], 0, 8));
+        assertThat(writeFailure.getMessage(), containsString("failed"));
+        Assert.expectThrows(IOException.class, out::close);
+        Mockito.verify(this.client).abortMultipartUpload(ArgumentMatchers.any(AbortMultipartUploadRequest.class));
+        Mockito.verify(this.client, Mockito.never())
+                .completeMultipartUpload(ArgumentMatchers.any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void abortDiscardsObject() throws IOException {
+        final S3MultipartOutputStream out = new S3MultipartOutputStream(this.client, "bucket", "key", 4, 2,
+                DIRECT_EXECUTOR);
+        out.write(new byte[] { 1 });
+        out.abort();
+        out.close();
+        Mockito.verifyNoInteractions(this.client);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.List;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link SqlDialectTranslator} with the {@link RedshiftRewriteRule Redshift rules}.
+ */
+public class SqlDialectTranslatorTest {
+
+    private final SqlDialectTranslator translator = new SqlDialectTranslator(List.of(RedshiftRewriteRule.values()), 16);
+
+    @DataProvider
+    Object[][] statements() {
+        return new Object[][] {
+                { "CREATE TABLE t (id VARCHAR(MAX)) DISTSTYLE EVEN", "CREATE TABLE t (id VARCHAR(256)) " },
+                { "ALTER TABLE t ADD c varchar ( max )", "ALTER TABLE t ADD c VARCHAR(256)" },
+                { "CREATE TABLE t (a INT, b INT) diststyle key distkey (a) compound sortkey (a, b) BACKUP NO",
+                        "CREATE TABLE t (a INT, b INT)    " },
+                { "CREATE TABLE t (a INT ENCODE az64 DISTKEY SORTKEY, b INT) SORTKEY AUTO",
+                        "CREATE TABLE t (a INT   , b INT) " },
+                { "CREATE TABLE t (a INT) INTERLEAVED SORTKEY (a) ENCODE AUTO", "CREATE TABLE t (a INT)  " },
+                { "CREATE TABLE t (id BIGINT IDENTITY(0, 1))",
+                        "CREATE TABLE t (id BIGINT GENERATED BY DEFAULT AS IDENTITY "
+                                + "(START WITH 0 INCREMENT BY 1 MINVALUE 0))" },
+                { "CREATE TABLE t (id INT GENERATED BY DEFAULT AS IDENTITY(-1,-1))",
+                        "CREATE TABLE t (id INT GENERATED BY DEFAULT AS IDENTITY "
+                                + "(START WITH -1 INCREMENT BY -1 MAXVALUE -1))" },
+                { "SELECT GETDATE(), sysdate FROM t",
+                        "SELECT CAST(DATE_TRUNC('second', STATEMENT_TIMESTAMP()) AS TIMESTAMP), "
+                                + "CAST(TRANSACTION_TIMESTAMP() AS TIMESTAMP) FROM t" },
+                // each statement of a script is rewritten
+                { "BEGIN; CREATE TABLE t (a VARCHAR(MAX)) DISTSTYLE ALL; COMMIT",
+                        "BEGIN; CREATE TABLE t (a VARCHAR(256)) ; COMMIT" },
+        };
+    }
+
+    @Test(dataProvider = "statements")
+    public void translatesRedshiftConstructs(final String sql, final String expected) {
+        assertThat(this.translator.translate(sql), is(expected));
+    }
+
+    @DataProvider
+    Object[][] unchangedStatements() {
+        return new Object[][] {
+                { "SELECT 1" },
+                // literals, quoted identifiers and comments
+                { "SELECT 'VARCHAR(MAX) DISTSTYLE EVEN', \"getdate\" FROM t -- SYSDATE" },
+                { "INSERT INTO t VALUES (E'it\\'s sysdate', /* GETDATE() */ 1)" },
+                { "CREATE FUNCTION f() RETURNS INT AS $body$ SELECT GETDATE() $body$ LANGUAGE sql" },
+                // attributes outside of CREATE and ALTER statements, and qualified names
+                { "SELECT distkey, sortkey, encode FROM svv_table_info" },
+                { "SELECT t.sysdate FROM t" },
+                // not the Redshift construct
+                { "CREATE TABLE t (a VARCHAR(10), b INT DEFAULT identity(1))" },
+        };
+    }
+
+    @Test(dataProvider = "unchangedStatements")
+    public void keepsOtherStatements(final String sql) {
+        assertThat(this.translator.translate(sql), is(sql));
+    }
+
+    @Test
+    public void cachesTranslations() {
+        final String sql = "CREATE TABLE t (id VARCHAR(MAX))";
+        final String translated = this.translator.translate(sql);
+
+        assertThat(this.translator.translate(new String(sql)), is(sameInstance(translated)));
+    }
+
+    @Test
+    public void translatesLongScriptsInOnePass() {
+        final StringBuilder script = new StringBuilder();
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            script.append("CREATE TABLE t").append(i).append(" (a VARCHAR(MAX) ENCODE zstd) DISTSTYLE EVEN;\n");
+            expected.append("CREATE TABLE t").append(i).append(" (a VARCHAR(256) ) ;\n");
+        }
+
+        assertThat(this.translator.translate(script.toString()), is(expected.toString()));
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link SqlStatementKind}.
+ */
+public class SqlStatementKindTest {
+
+    @DataProvider
+    Object[][] statements() {
+        return new Object[][] {
+                { "UNLOAD ('select 1') TO 's3://a/b'", SqlStatementKind.UNLOAD },
+                { "  copy table FROM 's3://a/b' format as json 'auto'", SqlStatementKind.COPY },
+                { "-- load\n/* test data */ COPY table FROM 's3://a/b'", SqlStatementKind.COPY },
+                { "CREATE TABLE t (id VARCHAR(MAX))", SqlStatementKind.DDL },
+                { "\talter table t add column c int", SqlStatementKind.DDL },
+                { "set query_group to abc", SqlStatementKind.CONFIG },
+                { "RESET query_group", SqlStatementKind.CONFIG },
+                { "settings", SqlStatementKind.OTHER },
+                { "select * from copy_history", SqlStatementKind.OTHER },
+                { "copying", SqlStatementKind.OTHER },
+                { "/* unterminated comment", SqlStatementKind.OTHER },
+                { "", SqlStatementKind.OTHER },
+        };
+    }
+
+    @Test(dataProvider = "statements")
+    void verifyClassify(final String sql, final SqlStatementKind expected) {
+        assertThat(SqlStatementKind.classify(sql), is(expected));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link SqlTransformer}.
+ */
+public class SqlTransformerTest {
+
+    @Test
+    public void extractsColumnsByIndex() throws SQLException {
+        final ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getInt(1)).thenReturn(42);
+        Mockito.when(resultSet.getTimestamp(2)).thenReturn(new Timestamp(1000L));
+        Mockito.when(resultSet.getBytes(3)).thenReturn(new byte[] { 1 });
+        Mockito.when(resultSet.getString(4)).thenReturn("text");
+
+        assertThat(SqlTransformer.extractor(Types.INTEGER).extract(resultSet, 1), is(42));
+        assertThat(SqlTransformer.extractor(Types.TIMESTAMP).extract(resultSet, 2), is(1000L));
+        assertThat(SqlTransformer.extractor(Types.VARBINARY).extract(resultSet, 3),
+                is(ByteBuffer.wrap(new byte[] { 1 })));
+        assertThat(SqlTransformer.extractor(Types.VARCHAR).extract(resultSet, 4), is("text"));
+        Mockito.verify(resultSet, Mockito.never()).getString(Mockito.anyString());
+    }
+
+    @Test
+    public void extractsNullValues() throws SQLException {
+        final ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.wasNull()).thenReturn(true);
+
+        assertThat(SqlTransformer.extractor(Types.BIGINT).extract(resultSet, 1), is(nullValue()));
+        assertThat(SqlTransformer.extractor(Types.BOOLEAN).extract(resultSet, 1), is(nullValue()));
+        assertThat(SqlTransformer.extractor(Types.DATE).extract(resultSet, 1), is(nullValue()));
+        assertThat(SqlTransformer.extractor(Types.BLOB).extract(resultSet, 1), is(nullValue()));
+    }
+
+    @Test
+    public void extractsJsonValues() throws SQLException {
+        final ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getLong(1)).thenReturn(42L);
+        Mockito.when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("1.50"));
+        Mockito.when(resultSet.getString(3)).thenReturn("2022-01-01");
+
+        assertThat(SqlTransformer.jsonExtractor(Types.INTEGER).extract(resultSet, 1), is(42L));
+        assertThat(SqlTransformer.jsonExtractor(Types.NUMERIC).extract(resultSet, 2), is(new BigDecimal("1.50")));
+        assertThat(SqlTransformer.jsonExtractor(Types.DATE).extract(resultSet, 3), is("2022-01-01"));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link StatementMetricsRecorder}.
+ */
+public class StatementMetricsRecorderTest {
+
+    @Test
+    public void isDisabledWithoutListeners() {
+        final StatementMetricsRecorder recorder = StatementMetricsRecorder.of(context(new Properties()));
+
+        assertThat(recorder, is(sameInstance(StatementMetricsRecorder.DISABLED)));
+        assertThat(recorder.nanoTime(), is(0L));
+    }
+
+    @Test
+    public void reportsToConfiguredListeners() {
+        RecordingListener.METRICS.clear();
+        final Properties info = new Properties();
+        info.setProperty(TestRedshiftDriver.METRICS_LISTENER_CLASS, " " + RecordingListener.class.getName() + " ,");
+        info.setProperty(TestRedshiftDriver.SLOW_STATEMENT_THRESHOLD_MILLIS, "1000");
+        final StatementMetricsRecorder recorder = StatementMetricsRecorder.of(context(info));
+
+        recorder.record(null, "select 1", 1, 100L, 150L, false);
+
+        assertThat(recorder.isEnabled(), is(true));
+        assertThat(RecordingListener.METRICS.size(), is(1));
+        final StatementMetrics metrics = RecordingListener.METRICS.get(0);
+        assertThat(metrics.getCommandType(), is(CommandType.PASSTHROUGH));
+        assertThat(metrics.getSql(), is("select 1"));
+        assertThat(metrics.getParseNanos(), is(50L));
+        assertThat(metrics.getExecutionNanos(), is(greaterThan(0L)));
+        assertThat(metrics.isFailed(), is(false));
+    }
+
+    @Test
+    public void reportsTransfersOfCommands() {
+        final List<StatementMetrics> recorded = new CopyOnWriteArrayList<>();
+        final StatementMetricsRecorder recorder = new StatementMetricsRecorder(List.of(recorded::add));
+        final TransferCounters counters = new TransferCounters();
+        counters.addRowsRead(3);
+        counters.addRowsWritten(3);
+        counters.addS3BytesRead(1024);
+        final ExecutionCommand<?> command = Mockito.mock(ExecutionCommand.class);
+        Mockito.when(command.getCommandType()).thenReturn(CommandType.COPY);
+        Mockito.doAnswer(invocation -> counters.copyTo(invocation.getArgument(0)))
+                .when(command).recordTransfers(ArgumentMatchers.any());
+
+        final long start = recorder.nanoTime();
+        recorder.record(command, "copy t from 's3://b/k'", 1, start, start, true);
+
+        assertThat(recorded.size(), is(1));
+        assertThat(recorded.get(0).getCommandType(), is(CommandType.COPY));
+        assertThat(recorded.get(0).getRowsRead(), is(3L));
+        assertThat(recorded.get(0).getRowsWritten(), is(3L));
+        assertThat(recorded.get(0).getS3BytesRead(), is(1024L));
+        assertThat(recorded.get(0).getS3BytesWritten(), is(0L));
+        assertThat(recorded.get(0).isFailed(), is(true));
+    }
+
+    @Test
+    public void ignoresFailingListeners() {
+        final List<StatementMetrics> recorded = new CopyOnWriteArrayList<>();
+        final StatementMetricsRecorder recorder = new StatementMetricsRecorder(List.of(
+                metrics -> {
+                    throw new IllegalStateException("listener failure");
+                },
+                recorded::add));
+
+        recorder.record(null, "select 1", 1, 0L, 0L, false);
+
+        assertThat(recorded.size(), is(1));
+    }
+
+    private static ExecutionCommandParser.ExecutionCommandContext context(final Properties info) {
+        return ExecutionCommandParser.ExecutionCommandContext.builder()
+                .info(info)
+                .build();
+    }
+
+    /**
+     * Listener configured by class name.
+     */
+    public static class RecordingListener implements StatementMetricsListener {
+
+        static final List<StatementMetrics> METRICS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void statementExecuted(final StatementMetrics metrics) {
+            METRICS.add(metrics);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link StreamingQuery}.
+ */
+public class StreamingQueryTest {
+
+    private Connection connection;
+    private Statement statement;
+    private ResultSet resultSet;
+
+    @BeforeMethod
+    public void setUp() throws SQLException {
+        this.connection = Mockito.mock(Connection.class);
+        this.statement = Mockito.mock(Statement.class);
+        this.resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(this.statement.getConnection()).thenReturn(this.connection);
+        Mockito.when(this.statement.getFetchSize()).thenReturn(0);
+        Mockito.when(this.statement.executeQuery("select 1")).thenReturn(this.resultSet);
+        Mockito.when(this.connection.getAutoCommit()).thenReturn(true);
+    }
+
+    @Test
+    public void fetchesWithCursorInTransaction() throws Exception {
+        final String result = StreamingQuery.execute(this.statement, 100,
+                () -> this.statement.executeQuery("select 1"), rs -> "done");
+
+        assertThat(result, is("done"));
+        final InOrder inOrder = Mockito.inOrder(this.connection, this.statement, this.resultSet);
+        inOrder.verify(this.statement).setFetchSize(100);
+        inOrder.verify(this.connection).setAutoCommit(false);
+        inOrder.verify(this.statement).executeQuery("select 1");
+        inOrder.verify(this.resultSet).close();
+        inOrder.verify(this.connection).commit();
+        inOrder.verify(this.connection).setAutoCommit(true);
+        inOrder.verify(this.statement).setFetchSize(0);
+    }
+
+    @Test
+    public void rollsBackOnFailure() throws SQLException {
+        final Exception failure = Assert.expectThrows(IllegalStateException.class,
+                () -> StreamingQuery.execute(this.statement, 100, () -> this.statement.executeQuery("select 1"), rs -> {
+                    throw new IllegalStateException("failed");
+                }));
+        assertThat(failure.getMessage(), is("failed"));
+        Mockito.verify(this.connection).rollback();
+        Mockito.verify(this.connection, Mockito.never()).commit();
+        Mockito.verify(this.connection).setAutoCommit(true);
+    }
+
+    @Test
+    public void keepsCallerTransaction() throws Exception {
+        Mockito.when(this.connection.getAutoCommit()).thenReturn(false);
+        StreamingQuery.execute(this.statement, 100, () -> this.statement.executeQuery("select 1"), rs -> "done");
+
+        Mockito.verify(this.statement).setFetchSize(100);
+        Mockito.verify(this.connection, Mockito.never()).setAutoCommit(Mockito.anyBoolean());
+        Mockito.verify(this.connection, Mockito.never()).commit();
+    }
+
+    @Test
+    public void readsWholeResultWithoutFetchSize() throws Exception {
+        StreamingQuery.execute(this.statement, 0, () -> this.statement.executeQuery("select 1"), rs -> "done");
+
+        Mockito.verify(this.statement, Mockito.never()).setFetchSize(Mockito.anyInt());
+        Mockito.verify(this.connection, Mockito.never()).setAutoCommit(Mockito.anyBoolean());
+        Mockito.verify(this.resultSet).close();
+    }
+}
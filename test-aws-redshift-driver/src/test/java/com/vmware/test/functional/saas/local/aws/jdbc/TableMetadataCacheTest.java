@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link TableMetadataCache}.
+ */
+public class TableMetadataCacheTest {
+
+    @Test
+    public void loadsTableOnce() throws SQLException {
+        final Connection connection = mockTable("tbl");
+        final TableMetadataCache cache = new TableMetadataCache();
+
+        final TableMetadata table = cache.getTable(connection, "tbl");
+        assertThat(table.getColumnNames(), is(List.of("id", "num")));
+        assertThat(table.indexOf("num"), is(1));
+        assertThat(table.indexOf("unknown"), is(-1));
+        assertThat(cache.getTable(connection, "tbl"), is(sameInstance(table)));
+        Mockito.verify(connection, Mockito.times(1)).getMetaData();
+
+        cache.invalidateIfDdl("select 1");
+        assertThat(cache.getTable(connection, "tbl"), is(sameInstance(table)));
+
+        cache.invalidateIfDdl(" ALTER TABLE tbl ADD COLUMN other INT");
+        assertThat(cache.getTable(connection, "tbl"), is(not(sameInstance(table))));
+    }
+
+    @Test
+    public void detectsDdlStatements() {
+        assertThat(TableMetadataCache.isDdl("create table t (id int)"), is(true));
+        assertThat(TableMetadataCache.isDdl("\n  DROP TABLE t"), is(true));
+        assertThat(TableMetadataCache.isDdl("insert into created values (1)"), is(false));
+        assertThat(TableMetadataCache.isDdl(""), is(false));
+    }
+
+    private static Connection mockTable(final String tableName) throws SQLException {
+        final Connection connection = Mockito.mock(Connection.class);
+        final DatabaseMetaData metaData = Mockito.mock(DatabaseMetaData.class);
+        Mockito.when(connection.getMetaData()).thenReturn(metaData);
+        Mockito.when(metaData.getColumns(null, null, tableName, "%")).thenAnswer(invocation -> {
+            final ResultSet rs = Mockito.mock(ResultSet.class);
+            Mockito.when(rs.next()).thenReturn(true, true, false);
+            Mockito.when(rs.getString("COLUMN_NAME")).thenReturn("id", "num");
+            Mockito.when(rs.getInt("DATA_TYPE")).thenReturn(Types.VARCHAR, Types.INTEGER);
+            return rs;
+        });
+        return connection;
+    }
+}
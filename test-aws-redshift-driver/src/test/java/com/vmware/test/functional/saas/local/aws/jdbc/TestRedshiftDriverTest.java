@@ -5,11 +5,20 @@
 
 package com.vmware.test.functional.saas.local.aws.jdbc;
 
+import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Properties;
 
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
 import org.testng.annotations.Test;
 
 import static org.hamcrest.MatcherAssert.*;
@@ -37,4 +46,91 @@ public class TestRedshiftDriverTest {
                 registeredRedshiftDriversCount, is(1));
     }
 
+    @Test
+    public void delegatesPassThroughStatements() throws SQLException {
+        final Connection connection = Mockito.mock(Connection.class);
+        final Statement statement = Mockito.mock(Statement.class);
+        final PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+        Mockito.when(connection.prepareStatement("update t set a = ?")).thenReturn(preparedStatement);
+        Mockito.when(statement.executeUpdate("delete from t")).thenReturn(3);
+        Mockito.when(preparedStatement.executeUpdate()).thenReturn(2);
+        Mockito.when(connection.unwrap(Statement.class)).thenReturn(statement);
+        final Connection redshiftConnection = new TestRedshiftDriver.RedshiftConnection(connection, new Properties(),
+                new S3ClientRegistry(), new TableMetadataCache());
+
+        assertThat(redshiftConnection.createStatement().executeUpdate("delete from t"), is(3));
+        final PreparedStatement redshiftPreparedStatement = redshiftConnection.prepareStatement("update t set a = ?");
+        redshiftPreparedStatement.setInt(1, 1);
+        assertThat(redshiftPreparedStatement.executeUpdate(), is(2));
+        Mockito.verify(preparedStatement).setInt(1, 1);
+        assertThat(redshiftConnection.unwrap(Connection.class), is(sameInstance(redshiftConnection)));
+        assertThat(redshiftConnection.unwrap(Statement.class), is(sameInstance(statement)));
+    }
+
+    @Test
+    public void rollbackInvalidatesTableMetadata() throws SQLException {
+        final Connection connection = Mockito.mock(Connection.class);
+        final TableMetadataCache tableMetadataCache = Mockito.mock(TableMetadataCache.class);
+        final Connection redshiftConnection = new TestRedshiftDriver.RedshiftConnection(connection, new Properties(),
+                new S3ClientRegistry(), tableMetadataCache);
+
+        redshiftConnection.rollback();
+
+        Mockito.verify(tableMetadataCache).invalidate();
+        Mockito.verify(connection).rollback();
+    }
+
+    @Test
+    public void executesBatchesOfPassThroughStatements() throws SQLException {
+        final Connection connection = Mockito.mock(Connection.class);
+        final Statement statement = Mockito.mock(Statement.class);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+        Mockito.when(statement.executeBatch()).thenReturn(new int[] { 1, 0 }, new int[] { 1 });
+        final Connection redshiftConnection = new TestRedshiftDriver.RedshiftConnection(connection, new Properties(),
+                new S3ClientRegistry(), new TableMetadataCache());
+
+        final Statement redshiftStatement = redshiftConnection.createStatement();
+        redshiftStatement.addBatch("insert into t values (1)");
+        redshiftStatement.addBatch("create table t2 (a varchar(max))");
+        redshiftStatement.addBatch("set query_group to abc");
+        redshiftStatement.addBatch("insert into t values (2)");
+
+        assertThat(redshiftStatement.executeBatch(), is(new int[] { 1, 0, 0, 1 }));
+        final InOrder inOrder = Mockito.inOrder(statement);
+        inOrder.verify(statement).addBatch("insert into t values (1)");
+        // rewritten statements are batched with the pass-through statements
+        inOrder.verify(statement).addBatch(ArgumentMatchers.argThat(sql -> sql.contains("VARCHAR(256)")));
+        inOrder.verify(statement).executeBatch();
+        inOrder.verify(statement).executeUpdate("set query_group to abc");
+        inOrder.verify(statement).addBatch("insert into t values (2)");
+        inOrder.verify(statement).executeBatch();
+        Mockito.verify(connection, Mockito.never()).setAutoCommit(ArgumentMatchers.anyBoolean());
+    }
+
+    @Test
+    public void cachesTranslationsOfPreparedStatements() throws SQLException {
+        final String sql = "create table t (a varchar(max))";
+        final Connection connection = Mockito.mock(Connection.class);
+        try (MockedStatic<ExecutionCommandParser> parser = Mockito.mockStatic(ExecutionCommandParser.class,
+                Mockito.CALLS_REAL_METHODS)) {
+            final Connection redshiftConnection = new TestRedshiftDriver.RedshiftConnection(connection,
+                    new Properties(), new S3ClientRegistry(), new TableMetadataCache());
+            final Properties uncachedInfo = new Properties();
+            uncachedInfo.setProperty(TestRedshiftDriver.PREPARED_STATEMENT_CACHE_SIZE, "0");
+            final Connection uncachedConnection = new TestRedshiftDriver.RedshiftConnection(connection,
+                    uncachedInfo, new S3ClientRegistry(), new TableMetadataCache());
+
+            redshiftConnection.prepareStatement(sql);
+            redshiftConnection.prepareStatement(sql);
+            parser.verify(() -> ExecutionCommandParser.parse(ArgumentMatchers.eq(sql), ArgumentMatchers.any(
+                    ExecutionCommandParser.ExecutionCommandContext.class)), Mockito.times(1));
+            uncachedConnection.prepareStatement(sql);
+            uncachedConnection.prepareStatement(sql);
+            parser.verify(() -> ExecutionCommandParser.parse(ArgumentMatchers.eq(sql), ArgumentMatchers.any(
+                    ExecutionCommandParser.ExecutionCommandContext.class)), Mockito.times(3));
+        }
+        // the same translated statement is prepared, so that the server side prepared statement is reused
+        Mockito.verify(connection, Mockito.times(4)).prepareStatement("create table t (a VARCHAR(256))");
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link TextUnloadFileWriter}.
+ */
+public class TextUnloadFileWriterTest {
+
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    @Test
+    public void writesGzipFile() throws IOException {
+        final byte[] content = write(UnloadCompression.GZIP);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), is("id\n1\n"));
+        }
+    }
+
+    @Test
+    public void writesZstdFile() throws IOException {
+        final byte[] content = write(UnloadCompression.ZSTD);
+        try (InputStream in = new ZstdInputStream(new ByteArrayInputStream(content))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), is("id\n1\n"));
+        }
+    }
+
+    @Test
+    public void abortDiscardsFile() throws IOException {
+        final S3Client client = Mockito.mock(S3Client.class);
+        final TextUnloadFileWriter writer = new TextUnloadFileWriter(
+                new S3MultipartOutputStream(client, "bucket", "key", 1024, 1, DIRECT_EXECUTOR),
+                UnloadCompression.NONE, new DelimitedRowEncoder(false, "|", "", false), null);
+        writer.write(new Object[] { 1 });
+        writer.abort();
+        Mockito.verifyNoInteractions(client);
+    }
+
+    private static byte[] write(final UnloadCompression compression) throws IOException {
+        final S3Client client = Mockito.mock(S3Client.class);
+        try (TextUnloadFileWriter writer = new TextUnloadFileWriter(
+                new S3MultipartOutputStream(client, "bucket", "key" + compression.getExtension(), 1024, 1,
+                        DIRECT_EXECUTOR),
+                compression, new DelimitedRowEncoder(false, "|", "", false), new String[] { "id" })) {
+            writer.write(new Object[] { 1 });
+        }
+        final ArgumentCaptor<RequestBody> body = ArgumentCaptor.forClass(RequestBody.class);
+        Mockito.verify(client).putObject(ArgumentMatchers.any(PutObjectRequest.class), body.capture());
+        try (InputStream in = body.getValue().contentStreamProvider().newStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
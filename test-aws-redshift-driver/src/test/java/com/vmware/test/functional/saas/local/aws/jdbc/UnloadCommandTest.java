@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link UnloadCommand}.
+ */
+public class UnloadCommandTest {
+
+    @Test
+    public void parsesOptions() {
+        final UnloadCommand command = parse("UNLOAD ('select 1') TO 's3://a/b' format as csv delimiter as ';' null as 'NULL' "
+                + "gzip header addquotes manifest parallel off");
+
+        assertThat(command.getFormat(), is(UnloadFormat.CSV));
+        assertThat(command.getCompression(), is(UnloadCompression.GZIP));
+        assertThat(command.getDelimiter(), is(";"));
+        assertThat(command.getNullAs(), is("NULL"));
+        assertThat(command.isHeader(), is(true));
+        assertThat(command.isAddQuotes(), is(true));
+        assertThat(command.isManifestRequired(), is(true));
+        assertThat(command.isParallel(), is(false));
+    }
+
+    @Test
+    public void ignoresKeywordsInLiterals() {
+        final UnloadCommand command = parse("UNLOAD ('select 1') TO 's3://a/b' "
+                + "iam_role 'arn:aws:iam::1:role/json-gzip-bzip2-header-unloader' delimiter '|'");
+
+        assertThat(command.getFormat(), is(UnloadFormat.TEXT));
+        assertThat(command.getCompression(), is(UnloadCompression.NONE));
+        assertThat(command.getDelimiter(), is("|"));
+        assertThat(command.getNullAs(), is(""));
+        assertThat(command.isHeader(), is(false));
+    }
+
+    @Test
+    public void readsLiteralsAfterOtherLiterals() {
+        final UnloadCommand command = parse("UNLOAD ('select 1') TO 's3://a/b' "
+                + "credentials 'aws_access_key_id=delimiter;aws_secret_access_key=null' null as '\\N'");
+
+        assertThat(command.getDelimiter(), is(UnloadFormat.TEXT.getDefaultDelimiter()));
+        assertThat(command.getNullAs(), is("\\N"));
+    }
+
+    private static UnloadCommand parse(final String sql) {
+        return UnloadCommand.parse(sql, null).orElseThrow();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.local.aws.jdbc;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link UnloadSliceWriters}.
+ */
+public class UnloadSliceWritersTest {
+
+    private final Map<String, CountingFileWriter> files = new ConcurrentHashMap<>();
+
+    @Test
+    public void writesSlicesInParallel() throws IOException {
+        final List<String> keys;
+        try (UnloadSliceWriters writers = new UnloadSliceWriters(1, "prefix_", "", true, 2, Long.MAX_VALUE, 300,
+                this::createFile)) {
+            for (int i = 0; i < 1000; i++) {
+                writers.nextRow()[0] = i;
+            }
+            keys = writers.finish();
+        }
+        // batches of 256 rows: slice 0 gets 512 rows, slice 1 gets 488 rows
+        assertThat(keys, contains("prefix_0000_part_00", "prefix_0000_part_01",
+                "prefix_0001_part_00", "prefix_0001_part_01"));
+        assertThat(this.files.get("prefix_0000_part_00").rows.get(), is(300));
+        assertThat(this.files.get("prefix_0000_part_01").rows.get(), is(212));
+        assertThat(this.files.get("prefix_0001_part_01").rows.get(), is(188));
+        assertThat(this.files.values().stream().allMatch(file -> file.closed), is(true));
+    }
+
+    @Test
+    public void writesSerialFilesBySize() throws IOException {
+        final List<String> keys;
+        try (UnloadSliceWriters writers = new UnloadSliceWriters(1, "prefix_", ".gz", false, 4, 100, Long.MAX_VALUE,
+                this::createFile)) {
+            for (int i = 0; i < 25; i++) {
+                writers.nextRow()[0] = i;
+            }
+            keys = writers.finish();
+        }
+        // each row takes 10 bytes
+        assertThat(keys, contains("prefix_000.gz", "prefix_001.gz", "prefix_002.gz"));
+        assertThat(this.files.get("prefix_002.gz").rows.get(), is(5));
+    }
+
+    @Test
+    public void writesEmptyFileForEmptyResult() throws IOException {
+        try (UnloadSliceWriters writers = new UnloadSliceWriters(1, "prefix_", "", true, 4, Long.MAX_VALUE,
+                Long.MAX_VALUE, this::createFile)) {
+            assertThat(writers.finish(), contains("prefix_0000_part_00"));
+        }
+        assertThat(this.files.get("prefix_0000_part_00").closed, is(true));
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "broken file")
+    public void propagatesWriteFailure() throws IOException {
+        try (UnloadSliceWriters writers = new UnloadSliceWriters(1, "prefix_", "", true, 2, Long.MAX_VALUE,
+                Long.MAX_VALUE, key -> {
+                    throw new IOException("broken file");
+                })) {
+            for (int i = 0; i < 10_000; i++) {
+                writers.nextRow()[0] = i;
+            }
+            writers.finish();
+        }
+    }
+
+    private UnloadFileWriter createFile(final String key) {
+        final CountingFileWriter file = new CountingFileWriter();
+        this.files.put(key, file);
+        return file;
+    }
+
+    /**
+     * Counts the rows of a file, each row takes 10 bytes.
+     */
+    private static final class CountingFileWriter implements UnloadFileWriter {
+        private final AtomicInteger rows = new AtomicInteger();
+        private volatile boolean closed;
+
+        @Override
+        public void write(final Object[] row) {
+            this.rows.incrementAndGet();
+        }
+
+        @Override
+        public long getDataSize() {
+            return this.rows.get() * 10L;
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+        @Override
+        public void abort() {
+            this.closed = true;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+package com.vmware.test.functional.saas.aws.kinesis;
+
+import software.amazon.kinesis.retrieval.KinesisClientRecord;
+
+/**
+ * {@link FilteringKinesisStreamReader} which reads the stream continuously in the background, so that no record is read late
+ * because it arrived between two reads. The records read in the background are kept until they are returned by, or filtered out in,
+ * a call to one of the read methods, and the polling methods return as soon as the arriving records satisfy the return condition.
+ * <p>
+ * The reader should be closed at the end of the test, to stop reading the stream.
+ *
+ * @param <D> The type of the data stored in the {@link KinesisClientRecord}'s data field.
+ */
+public interface ContinuousKinesisStreamReader<D> extends FilteringKinesisStreamReader<D>, AutoCloseable {
+
+    /**
+     * Returns the number of records which were dropped because the buffer of the reader was full.
+     *
+     * @return Number of dropped records.
+     */
+    long getDroppedRecordCount();
+
+    /**
+     * Stops reading the stream. The records which were already read can still be returned.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+package com.vmware.test.functional.saas.aws.kinesis;
+
+import software.amazon.awssdk.services.kinesis.KinesisAsyncClient;
+import software.amazon.awssdk.services.kinesis.KinesisClient;
+import software.amazon.kinesis.retrieval.KinesisClientRecord;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.awaitility.core.ConditionTimeoutException;
+
+import com.google.common.base.Preconditions;
+import com.vmware.test.functional.saas.common.DataWrapper;
+import com.vmware.test.functional.saas.common.ThrowingFunction;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of {@link ContinuousKinesisStreamReader}.
+ *
+ * A daemon thread reads the stream from the moment the reader is created, and appends the records to a bounded buffer. When the buffer
+ * is full the oldest records are dropped, see {@link #getDroppedRecordCount()}. The polling methods wait on the buffer and test the
+ * return condition whenever new records pass the filter, instead of reading the stream every {@code pollInterval}.
+ * The {@link #getCheckpoint() checkpoint} of the reader includes the records in the buffer.
+ * The class is final because the constructor starts the thread, which must not see a partly constructed subclass.
+ */
+@Slf4j
+public final class ContinuousKinesisStreamReaderImpl<T> extends FilteringKinesisStreamReaderImpl<T> implements ContinuousKinesisStreamReader<T> {
+
+    public static final int DEFAULT_BUFFER_CAPACITY = 10_000;
+
+    // GetRecords is limited to 5 calls per second per shard
+    private static final Duration IDLE_INTERVAL = Duration.ofMillis(200);
+
+    private final int bufferCapacity;
+    private final Deque<KinesisClientRecord> buffer = new ArrayDeque<>();
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    private final Condition recordsArrived = this.bufferLock.newCondition();
+    private final Thread consumer;
+    private long droppedRecordCount;
+    private volatile boolean running = true;
+    private volatile RuntimeException lastReadFailure;
+
+    /**
+     * Creates a reader which reads the stream from now on with the default buffer capacity, and starts reading the stream.
+     *
+     * @param kinesisClient {@link KinesisClient}.
+     * @param streamName The Kinesis stream name.
+     * @param dataTransformer Transforms the data of the records for the filtering functions. It gets a duplicate of the data, so
+     *         reading it does not move the position of the data of the record, and {@link ByteBuffer#array()} can be used.
+     */
+    public ContinuousKinesisStreamReaderImpl(final KinesisClient kinesisClient,
+            final String streamName,
+            final ThrowingFunction<ByteBuffer, T> dataTransformer) {
+        this(kinesisClient, null, streamName, KinesisStreamPosition.latest(), dataTransformer, DEFAULT_BUFFER_CAPACITY);
+    }
+
+    /**
+     * Creates a reader and starts reading the stream.
+     *
+     * @param kinesisClient {@link KinesisClient} used to find the shards of the stream.
+     * @param kinesisAsyncClient {@link KinesisAsyncClient} used to read the shards concurrently, or {@code null} to read them one by one.
+     * @param streamName The Kinesis stream name.
+     * @param position {@link KinesisStreamPosition} of the first records to read.
+     * @param dataTransformer Transforms the data of the records for the filtering functions. It gets a duplicate of the data, so
+     *         reading it does not move the position of the data of the record, and {@link ByteBuffer#array()} can be used.
+     * @param bufferCapacity Maximum number of records kept by the reader.
+     */
+    public ContinuousKinesisStreamReaderImpl(final KinesisClient kinesisClient,
+            final KinesisAsyncClient kinesisAsyncClient,
+            final String streamName,
+            final KinesisStreamPosition position,
+            final ThrowingFunction<ByteBuffer, T> dataTransformer,
+            final int bufferCapacity) {
+        this(kinesisClient, kinesisAsyncClient, streamName, position, false, dataTransformer, bufferCapacity);
+    }
+
+    /**
+     * Creates a reader which can return the data of the records without copying them, and starts reading the stream.
+     *
+     * @param kinesisClient {@link KinesisClient} used to find the shards of the stream.
+     * @param kinesisAsyncClient {@link KinesisAsyncClient} used to read the shards concurrently, or {@code null} to read them one by one.
+     * @param streamName The Kinesis stream name.
+     * @param position {@link KinesisStreamPosition} of the first records to read.
+     * @param readOnlyData {@code true} to keep read-only views of the GetRecords responses as the data of the records instead of
+     *         copies, see {@link KinesisStreamReaderImpl}.
+     * @param dataTransformer Transforms the data of the records for the filtering functions. It gets a duplicate of the data, which
+     *         is read-only when {@code readOnlyData} is {@code true}, so {@link ByteBuffer#array()} cannot be used then.
+     * @param bufferCapacity Maximum number of records kept by the reader.
+     */
+    public ContinuousKinesisStreamReaderImpl(final KinesisClient kinesisClient,
+            final KinesisAsyncClient kinesisAsyncClient,
+            final String streamName,
+            final KinesisStreamPosition position,
+            final boolean readOnlyData,
+            final ThrowingFunction<ByteBuffer, T> dataTransformer,
+            final int bufferCapacity) {
+        super(kinesisClient, kinesisAsyncClient, streamName, position, readOnlyData, dataTransformer);
+        Preconditions.checkArgument(bufferCapacity > 0, "Buffer capacity should be positive");
+        this.bufferCapacity = bufferCapacity;
+        this.consumer = new Thread(this::consume, "kinesis-consumer-" + streamName);
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * Returns the records read since the previous call.
+     */
+    @Override
+    public List<KinesisClientRecord> getRecords() {
+        this.bufferLock.lock();
+        try {
+            final List<KinesisClientRecord> records = new ArrayList<>(this.buffer);
+            this.buffer.clear();
+            return records;
+        } finally {
+            this.bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the records which pass the filter satisfy the return condition. The {@code pollInterval} is not used, the return
+     * condition is tested as soon as new records pass the filter.
+     */
+    @Override
+    public List<KinesisClientRecord> pollForRecordsUntil(final Duration pollInterval,
+            final Duration pollTimeout,
+            final Predicate<DataWrapper<KinesisClientRecord, T>> filterCondition,
+            final Predicate<List<DataWrapper<KinesisClientRecord, T>>> returnCondition) {
+        final long deadline = System.nanoTime() + pollTimeout.toNanos();
+        final List<DataWrapper<KinesisClientRecord, T>> result = new ArrayList<>();
+        boolean matched = true;
+        boolean timedOut = false;
+        while (!(matched && returnCondition.test(result))) {
+            if (timedOut) {
+                throw new ConditionTimeoutException(String.format("Condition with alias 'Polling for records from stream [%s]' didn't complete "
+                        + "within %d milliseconds", this.getStreamName(), pollTimeout.toMillis()), this.lastReadFailure);
+            }
+            final List<KinesisClientRecord> records = awaitRecords(deadline);
+            final int matchedBefore = result.size();
+            records.stream()
+                    .map(this::wrap)
+                    .filter(filterCondition)
+                    .forEach(result::add);
+            matched = result.size() > matchedBefore;
+            // the records read until the deadline are tested once more
+            timedOut = System.nanoTime() - deadline >= 0;
+        }
+        return result.stream().map(DataWrapper::getData).collect(Collectors.toList());
+    }
+
+    @Override
+    public long getDroppedRecordCount() {
+        this.bufferLock.lock();
+        try {
+            return this.droppedRecordCount;
+        } finally {
+            this.bufferLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.running = false;
+        this.consumer.interrupt();
+        try {
+            this.consumer.join(IDLE_INTERVAL.toMillis());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for records to arrive.
+     *
+     * @return The records read since the previous call, or an empty list if none arrived before the deadline.
+     */
+    private List<KinesisClientRecord> awaitRecords(final long deadline) {
+        this.bufferLock.lock();
+        try {
+            long remaining = deadline - System.nanoTime();
+            while (this.buffer.isEmpty() && remaining > 0) {
+                remaining = this.recordsArrived.awaitNanos(remaining);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("Interrupted while polling for records from stream [%s]", this.getStreamName()), e);
+        } finally {
+            this.bufferLock.unlock();
+        }
+        return getRecords();
+    }
+
+    private void consume() {
+        while (this.running) {
+            List<KinesisClientRecord> records;
+            try {
+                records = super.getRecords();
+                this.lastReadFailure = null;
+            } catch (final RuntimeException e) {
+                if (!this.running) {
+                    return;
+                }
+                log.warn("Failed to read records from stream [{}]", this.getStreamName(), e);
+                this.lastReadFailure = e;
+                records = List.of();
+            }
+            if (records.isEmpty()) {
+                if (!pause()) {
+                    return;
+                }
+            } else {
+                append(records);
+            }
+        }
+    }
+
+    private void append(final List<KinesisClientRecord> records) {
+        int dropped = 0;
+        this.bufferLock.lock();
+        try {
+            for (KinesisClientRecord record : records) {
+                if (this.buffer.size() == this.bufferCapacity) {
+                    this.buffer.removeFirst();
+                    dropped++;
+                }
+                this.buffer.addLast(record);
+            }
+            this.droppedRecordCount += dropped;
+            this.recordsArrived.signalAll();
+        } finally {
+            this.bufferLock.unlock();
+        }
+        if (dropped > 0) {
+            log.warn("Dropped [{}] records of stream [{}], the buffer is full", dropped, this.getStreamName());
+        }
+    }
+
+    /**
+     * @return {@code false} if the reader was closed.
+     */
+    private boolean pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(IDLE_INTERVAL.toMillis());
+            return this.running;
+        } catch (final InterruptedException e) {
+            return false;
+        }
+    }
+}
@@ -4,6 +4,7 @@
  */
 package com.vmware.test.functional.saas.aws.kinesis;
 
+import software.amazon.awssdk.services.kinesis.KinesisAsyncClient;
 import software.amazon.awssdk.services.kinesis.KinesisClient;
 import software.amazon.kinesis.retrieval.KinesisClientRecord;
 
@@ -33,10 +34,64 @@ public class FilteringKinesisStreamReaderImpl<T> extends KinesisStreamReaderImpl
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(3);
 
     private final ThrowingFunction<ByteBuffer, T> dataTransformer;
+
+    /**
+     * Creates a reader which reads the shards one by one.
+     *
+     * @param kinesisClient {@link KinesisClient}.
+     * @param streamName The Kinesis stream name.
+     * @param dataTransformer Transforms the data of the records for the filtering functions. It gets a duplicate of the data, so
+     *         reading it does not move the position of the data of the record, and {@link ByteBuffer#array()} can be used.
+     */
+    public FilteringKinesisStreamReaderImpl(final KinesisClient kinesisClient,
+            final String streamName,
+            final ThrowingFunction<ByteBuffer, T> dataTransformer) {
+        this(kinesisClient, null, streamName, dataTransformer);
+    }
+
+    /**
+     * Creates a reader which polls all shards of the stream concurrently, see
+     * {@link KinesisStreamReaderImpl#KinesisStreamReaderImpl(KinesisClient, KinesisAsyncClient, String)}.
+     *
+     * @param dataTransformer Transforms the data of the records for the filtering functions. It gets a duplicate of the data, so
+     *         reading it does not move the position of the data of the record, and {@link ByteBuffer#array()} can be used.
+     */
+    public FilteringKinesisStreamReaderImpl(final KinesisClient kinesisClient,
+            final KinesisAsyncClient kinesisAsyncClient,
+            final String streamName,
+            final ThrowingFunction<ByteBuffer, T> dataTransformer) {
+        this(kinesisClient, kinesisAsyncClient, streamName, KinesisStreamPosition.latest(), dataTransformer);
+    }
+
+    /**
+     * Creates a reader which starts reading at the given position, see
+     * {@link KinesisStreamReaderImpl#KinesisStreamReaderImpl(KinesisClient, KinesisAsyncClient, String, KinesisStreamPosition)}.
+     *
+     * @param dataTransformer Transforms the data of the records for the filtering functions. It gets a duplicate of the data, so
+     *         reading it does not move the position of the data of the record, and {@link ByteBuffer#array()} can be used.
+     */
     public FilteringKinesisStreamReaderImpl(final KinesisClient kinesisClient,
+            final KinesisAsyncClient kinesisAsyncClient,
             final String streamName,
+            final KinesisStreamPosition position,
             final ThrowingFunction<ByteBuffer, T> dataTransformer) {
-        super(kinesisClient, streamName);
+        this(kinesisClient, kinesisAsyncClient, streamName, position, false, dataTransformer);
+    }
+
+    /**
+     * Creates a reader which starts reading at the given position, and can return the data of the records without copying them, see
+     * {@link KinesisStreamReaderImpl#KinesisStreamReaderImpl(KinesisClient, KinesisAsyncClient, String, KinesisStreamPosition, boolean)}.
+     *
+     * @param dataTransformer Transforms the data of the records for the filtering functions. It gets a duplicate of the data, which
+     *         is read-only when {@code readOnlyData} is {@code true}, so {@link ByteBuffer#array()} cannot be used then.
+     */
+    public FilteringKinesisStreamReaderImpl(final KinesisClient kinesisClient,
+            final KinesisAsyncClient kinesisAsyncClient,
+            final String streamName,
+            final KinesisStreamPosition position,
+            final boolean readOnlyData,
+            final ThrowingFunction<ByteBuffer, T> dataTransformer) {
+        super(kinesisClient, kinesisAsyncClient, streamName, position, readOnlyData);
         this.dataTransformer = dataTransformer;
     }
 
@@ -71,7 +126,12 @@ public class FilteringKinesisStreamReaderImpl<T> extends KinesisStreamReaderImpl
 
     private Stream<DataWrapper<KinesisClientRecord, T>> getRecordsHelper(final Predicate<DataWrapper<KinesisClientRecord, T>> filterCondition) {
         return getRecords().stream()
-                .map(r -> new DataWrapper<>(d -> this.dataTransformer.apply(r.data()), r))
+                .map(this::wrap)
                 .filter(filterCondition);
     }
+
+    DataWrapper<KinesisClientRecord, T> wrap(final KinesisClientRecord record) {
+        // reading the data in the transformer does not move the position of the data of the record
+        return new DataWrapper<>(d -> this.dataTransformer.apply(record.data().duplicate()), record);
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+package com.vmware.test.functional.saas.aws.kinesis;
+
+import software.amazon.awssdk.services.kinesis.model.ShardIteratorType;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * Position in a Kinesis stream where a {@link KinesisStreamReaderImpl} starts reading the shards.
+ *
+ * A position can also be given per shard id, e.g. the sequence numbers of {@link #atSequenceNumbers(Map)} or a checkpoint of a previous
+ * reader, see {@link KinesisStreamReaderImpl#getCheckpoint()}. A checkpoint has the position of every shard the previous reader read,
+ * including the shards it did not get any records from. The open shards without a position of their own are read from
+ * {@link ShardIteratorType#TRIM_HORIZON}, as they were created after the checkpoint was taken, while the closed ones are skipped.
+ *
+ * The sequence number types are only supported for the position of a shard, see {@link #atSequenceNumbers(Map)}.
+ */
+@Builder
+@Value
+public class KinesisStreamPosition {
+
+    @Builder.Default
+    private ShardIteratorType shardIteratorType = ShardIteratorType.LATEST;
+    /**
+     * Timestamp of {@link ShardIteratorType#AT_TIMESTAMP}.
+     */
+    private Instant timestamp;
+    /**
+     * Sequence number of {@link ShardIteratorType#AT_SEQUENCE_NUMBER} and {@link ShardIteratorType#AFTER_SEQUENCE_NUMBER}, for the
+     * position of a single shard.
+     */
+    private String sequenceNumber;
+    /**
+     * Position by shard id, which takes precedence over the position of the stream.
+     */
+    @Singular
+    private Map<String, KinesisStreamPosition> shardPositions;
+
+    /**
+     * @return Position of the records added after the reader is created.
+     */
+    public static KinesisStreamPosition latest() {
+        return KinesisStreamPosition.builder().build();
+    }
+
+    /**
+     * @return Position of the oldest records in the stream.
+     */
+    public static KinesisStreamPosition trimHorizon() {
+        return KinesisStreamPosition.builder().shardIteratorType(ShardIteratorType.TRIM_HORIZON).build();
+    }
+
+    /**
+     * @param timestamp Approximate arrival timestamp of the first record to read.
+     * @return Position of the records added since {@code timestamp}.
+     */
+    public static KinesisStreamPosition atTimestamp(final Instant timestamp) {
+        return KinesisStreamPosition.builder().shardIteratorType(ShardIteratorType.AT_TIMESTAMP).timestamp(timestamp).build();
+    }
+
+    /**
+     * @param sequenceNumber Sequence number of the last record read from a shard.
+     * @return Position of the records of the shard after the sequence number.
+     */
+    public static KinesisStreamPosition afterSequenceNumber(final String sequenceNumber) {
+        return KinesisStreamPosition.builder().shardIteratorType(ShardIteratorType.AFTER_SEQUENCE_NUMBER).sequenceNumber(sequenceNumber).build();
+    }
+
+    /**
+     * @param sequenceNumbers Sequence number of the first record to read by shard id.
+     * @return Position of the records starting at the sequence numbers.
+     */
+    public static KinesisStreamPosition atSequenceNumbers(final Map<String, String> sequenceNumbers) {
+        return afterCheckpoint(sequenceNumbers.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> KinesisStreamPosition.builder()
+                        .shardIteratorType(ShardIteratorType.AT_SEQUENCE_NUMBER)
+                        .sequenceNumber(e.getValue())
+                        .build())));
+    }
+
+    /**
+     * @param checkpoint Position of the next record to read by shard id, see {@link KinesisStreamReaderImpl#getCheckpoint()}.
+     * @return Position of the records after the checkpoint.
+     */
+    public static KinesisStreamPosition afterCheckpoint(final Map<String, KinesisStreamPosition> checkpoint) {
+        return KinesisStreamPosition.builder().shardIteratorType(ShardIteratorType.TRIM_HORIZON).shardPositions(checkpoint).build();
+    }
+}
@@ -21,7 +21,7 @@ public interface KinesisStreamReader {
     /**
      * Reads data records from AWS Kinesis Stream sharditeratorList.
      *
-     * @return The LATEST records in the stream, if any.
+     * @return The records added to the stream since the previous call, if any.
      */
     List<KinesisClientRecord> getRecords();
 }
@@ -5,22 +5,31 @@
 
 package com.vmware.test.functional.saas.aws.kinesis;
 
+import software.amazon.awssdk.services.kinesis.KinesisAsyncClient;
 import software.amazon.awssdk.services.kinesis.KinesisClient;
+import software.amazon.awssdk.services.kinesis.model.ChildShard;
 import software.amazon.awssdk.services.kinesis.model.DescribeStreamRequest;
-import software.amazon.awssdk.services.kinesis.model.DescribeStreamResponse;
 import software.amazon.awssdk.services.kinesis.model.GetRecordsRequest;
 import software.amazon.awssdk.services.kinesis.model.GetRecordsResponse;
 import software.amazon.awssdk.services.kinesis.model.GetShardIteratorRequest;
 import software.amazon.awssdk.services.kinesis.model.GetShardIteratorResponse;
+import software.amazon.awssdk.services.kinesis.model.Record;
 import software.amazon.awssdk.services.kinesis.model.Shard;
 import software.amazon.awssdk.services.kinesis.model.ShardIteratorType;
 import software.amazon.kinesis.retrieval.AggregatorUtil;
 import software.amazon.kinesis.retrieval.KinesisClientRecord;
 
 import java.nio.ByteBuffer;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -29,102 +38,247 @@ import org.springframework.util.CollectionUtils;
 import com.google.common.base.Preconditions;
 
 import lombok.Getter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Implementation of {@link KinesisStreamReader}.
  *
- * When instantiating {@link KinesisStreamReaderImpl}, shardIteratorList initializes our reading position in the stream.
- * Current implementation gets shardIteratorList of type LATEST which allows to read records right after this.
+ * When instantiating {@link KinesisStreamReaderImpl}, the shard iterators initialize our reading position in the stream, see
+ * {@link KinesisStreamPosition}. By default the shard iterators are of type LATEST, which allows to read the records added right after this.
  *
  * Call to getRecords() should be made as many times as necessary to get the expected result or or until we are not seeing any more records
  *
- * <p>Note: This {@link KinesisStreamReader} implementation will not return correct records list if split shard, merge shard or update shard operation
- * is done during the test (using this) lifecycle. Assuming this is used only for testing purposes, such use case is not valid at this point.</p>
+ * <p>When created with a {@link KinesisAsyncClient}, getRecords() issues the GetRecords requests of all shards at once and waits for all
+ * of them, so a poll of a stream with many shards takes a single round trip instead of one round trip per shard.</p>
+ *
+ * <p>Shards which are closed by a split or a merge are read to their end, and then their child shards are read from their start. The shards
+ * whose parents are still in the stream are only read once a parent was read, so that the records of a partition key are returned in order
+ * when reading from the start of the stream.</p>
+ *
+ * <p>The data of the returned records are copies of the GetRecords response, whose {@link ByteBuffer#array()} can be used. A reader
+ * created with {@code readOnlyData} returns read-only {@link ByteBuffer}s instead, which share the content of the response.</p>
+ *
+ * <p>The position after the last record read from each shard is kept as a checkpoint, see {@link #getCheckpoint()}. A reader created
+ * with {@link KinesisStreamPosition#afterCheckpoint(Map)} continues where the reader of the checkpoint stopped.</p>
  */
 @Slf4j
 public class KinesisStreamReaderImpl implements KinesisStreamReader {
 
+    private static final AggregatorUtil AGGREGATOR_UTIL = new AggregatorUtil();
+
     private final KinesisClient kinesisClient;
+    private final KinesisAsyncClient kinesisAsyncClient;
     @Getter
     private final String streamName;
-    private List<String> shardIteratorList = new ArrayList<>();
+    private final KinesisStreamPosition position;
+    private final boolean readOnlyData;
+    private final Set<String> readShardIds = new HashSet<>();
+    private final Map<String, KinesisStreamPosition> checkpoint = new ConcurrentHashMap<>();
+    private List<ShardIterator> shardIteratorList = new ArrayList<>();
 
     public KinesisStreamReaderImpl(final KinesisClient kinesisClient, final String streamName) {
+        this(kinesisClient, null, streamName);
+    }
+
+    /**
+     * Creates a reader which polls all shards of the stream concurrently.
+     *
+     * @param kinesisClient {@link KinesisClient} used to find the shards of the stream.
+     * @param kinesisAsyncClient {@link KinesisAsyncClient} used to read the records, or {@code null} to read the shards one by one
+     *         with the {@code kinesisClient}.
+     * @param streamName The Kinesis stream name.
+     */
+    public KinesisStreamReaderImpl(final KinesisClient kinesisClient, final KinesisAsyncClient kinesisAsyncClient, final String streamName) {
+        this(kinesisClient, kinesisAsyncClient, streamName, KinesisStreamPosition.latest());
+    }
+
+    /**
+     * Creates a reader which starts reading at the given position.
+     *
+     * @param kinesisClient {@link KinesisClient} used to find the shards of the stream.
+     * @param kinesisAsyncClient {@link KinesisAsyncClient} used to read the records, or {@code null} to read the shards one by one
+     *         with the {@code kinesisClient}.
+     * @param streamName The Kinesis stream name.
+     * @param position {@link KinesisStreamPosition} of the first records to read.
+     */
+    public KinesisStreamReaderImpl(final KinesisClient kinesisClient,
+            final KinesisAsyncClient kinesisAsyncClient,
+            final String streamName,
+            final KinesisStreamPosition position) {
+        this(kinesisClient, kinesisAsyncClient, streamName, position, false);
+    }
+
+    /**
+     * Creates a reader which starts reading at the given position, and can return the data of the records without copying them.
+     *
+     * @param kinesisClient {@link KinesisClient} used to find the shards of the stream.
+     * @param kinesisAsyncClient {@link KinesisAsyncClient} used to read the records, or {@code null} to read the shards one by one
+     *         with the {@code kinesisClient}.
+     * @param streamName The Kinesis stream name.
+     * @param position {@link KinesisStreamPosition} of the first records to read.
+     * @param readOnlyData {@code true} to return the data of the records as read-only views of the GetRecords response, which have no
+     *         accessible {@link ByteBuffer#array()}, instead of copies.
+     */
+    public KinesisStreamReaderImpl(final KinesisClient kinesisClient,
+            final KinesisAsyncClient kinesisAsyncClient,
+            final String streamName,
+            final KinesisStreamPosition position,
+            final boolean readOnlyData) {
         Preconditions.checkNotNull(kinesisClient, "Specified Kinesis client cannot be null");
         Preconditions.checkState(StringUtils.isNotBlank(streamName), "Stream reference cannot be null/empty");
+        Preconditions.checkNotNull(position, "Stream position cannot be null");
+        checkPosition(position, false);
+        position.getShardPositions().values().forEach(shardPosition -> checkPosition(shardPosition, true));
 
         this.kinesisClient = kinesisClient;
+        this.kinesisAsyncClient = kinesisAsyncClient;
         this.streamName = streamName;
+        this.position = position;
+        this.readOnlyData = readOnlyData;
         getShardIteratorList(streamName);
     }
 
+    private static void checkPosition(final KinesisStreamPosition position, final boolean shard) {
+        final ShardIteratorType shardIteratorType = position.getShardIteratorType();
+        final boolean sequenceNumberType = shardIteratorType == ShardIteratorType.AT_SEQUENCE_NUMBER
+                || shardIteratorType == ShardIteratorType.AFTER_SEQUENCE_NUMBER;
+        Preconditions.checkArgument(shard || !sequenceNumberType && position.getSequenceNumber() == null,
+                "Sequence numbers are only supported per shard, see KinesisStreamPosition.atSequenceNumbers");
+        Preconditions.checkArgument(!sequenceNumberType || position.getSequenceNumber() != null,
+                "Position [%s] requires a sequence number", shardIteratorType);
+        Preconditions.checkArgument(shardIteratorType != ShardIteratorType.AT_TIMESTAMP || position.getTimestamp() != null,
+                "Position [%s] requires a timestamp", shardIteratorType);
+        Preconditions.checkArgument(!shard || position.getShardPositions().isEmpty(), "The position of a shard cannot have shard positions");
+    }
+
+    /**
+     * Returns the position of the next record to read from each shard the reader has read, by shard id: after the last record read, or
+     * the position the reader started the shard at when no records were read from it. The checkpoint can be restored with
+     * {@link KinesisStreamPosition#afterCheckpoint(Map)}.
+     *
+     * @return The positions by shard id.
+     */
+    public Map<String, KinesisStreamPosition> getCheckpoint() {
+        return Map.copyOf(this.checkpoint);
+    }
+
     /**
      * Gets a list of AWS Kinesis Stream shard iterators.
      *
      * @param stream Stream name
      */
     private void getShardIteratorList(final String stream) {
-        final DescribeStreamResponse describeStreamResponse = this.kinesisClient.describeStream(
-                DescribeStreamRequest
-                        .builder()
-                        .streamName(stream)
-                        .build());
-
-        final List<Shard> shardsList = describeStreamResponse.streamDescription().shards();
+        final List<Shard> shardsList = describeShards(stream);
 
         if (CollectionUtils.isEmpty(shardsList)) {
             log.debug("Shard list for stream [{}] is empty.", stream);
             return;
         }
 
+        final Set<String> shardIds = shardsList.stream().map(Shard::shardId).collect(Collectors.toSet());
+        final Map<String, KinesisStreamPosition> shardPositions = this.position.getShardPositions();
         for (Shard shard : shardsList) {
-            final GetShardIteratorResponse shardIteratorResponse = this.kinesisClient.getShardIterator(GetShardIteratorRequest.builder()
-                    .shardId(shard.shardId())
-                    .streamName(stream)
-                    .shardIteratorType(ShardIteratorType.LATEST)
-                    .build());
-            if (shardIteratorResponse.shardIterator() != null) {
-                this.shardIteratorList.add(shardIteratorResponse.shardIterator());
+            final boolean closed = shard.sequenceNumberRange().endingSequenceNumber() != null;
+            final boolean child = shardIds.contains(shard.parentShardId()) || shardIds.contains(shard.adjacentParentShardId());
+            final boolean read;
+            if (!shardPositions.isEmpty()) {
+                // the closed shards without a position were not read, or ended, before the positions were taken
+                read = shardPositions.containsKey(shard.shardId()) || !child && !closed;
+            } else if (this.position.getShardIteratorType() == ShardIteratorType.LATEST) {
+                // only the open shards get new records
+                read = !closed;
+            } else {
+                // the children are read once a parent is read to its end
+                read = !child;
+            }
+            if (read) {
+                this.readShardIds.add(shard.shardId());
+                addShardIterator(shard.shardId(), false);
             }
         }
     }
 
+    private List<Shard> describeShards(final String stream) {
+        return this.kinesisClient.describeStream(
+                DescribeStreamRequest
+                        .builder()
+                        .streamName(stream)
+                        .build())
+                .streamDescription()
+                .shards();
+    }
+
+    private void addShardIterator(final String shardId, final boolean child) {
+        final GetShardIteratorRequest.Builder request = GetShardIteratorRequest.builder()
+                .shardId(shardId)
+                .streamName(this.streamName);
+        final KinesisStreamPosition shardPosition = getShardPosition(shardId, child);
+        request.shardIteratorType(shardPosition.getShardIteratorType())
+                .startingSequenceNumber(shardPosition.getSequenceNumber())
+                .timestamp(shardPosition.getTimestamp());
+        final Instant requestTimestamp = Instant.now();
+        final GetShardIteratorResponse shardIteratorResponse = this.kinesisClient.getShardIterator(request.build());
+        if (shardIteratorResponse.shardIterator() != null) {
+            this.shardIteratorList.add(new ShardIterator(shardId, shardIteratorResponse.shardIterator()));
+            // until records are read the checkpoint restores the start of the shard, LATEST as the time it was taken
+            this.checkpoint.put(shardId, shardPosition.getShardIteratorType() == ShardIteratorType.LATEST
+                    ? KinesisStreamPosition.atTimestamp(requestTimestamp)
+                    : shardPosition);
+        }
+    }
+
+    private KinesisStreamPosition getShardPosition(final String shardId, final boolean child) {
+        final KinesisStreamPosition shardPosition = this.position.getShardPositions().get(shardId);
+        if (shardPosition != null) {
+            return shardPosition;
+        }
+        final ShardIteratorType shardIteratorType = this.position.getShardIteratorType();
+        // the shards without a position of their own were created after the positions were taken, and all records of a child shard
+        // were added after the parent was read to its end
+        if (!this.position.getShardPositions().isEmpty()
+                || shardIteratorType == ShardIteratorType.AT_SEQUENCE_NUMBER
+                || shardIteratorType == ShardIteratorType.AFTER_SEQUENCE_NUMBER
+                || shardIteratorType == ShardIteratorType.LATEST && child) {
+            return KinesisStreamPosition.trimHorizon();
+        }
+        return KinesisStreamPosition.builder().shardIteratorType(shardIteratorType).timestamp(this.position.getTimestamp()).build();
+    }
+
     /**
      * Reads data records from AWS Kinesis Stream sharditeratorList.
-     * Gets records AWS operation is called with shardIteratorType=LATEST which
-     * read from the latest messages - current message that just came into the stream
-     * and all the incoming messages from that time onwards.
+     * Gets records AWS operation is called with the shard iterators of the previous call, or the ones of the
+     * {@link KinesisStreamPosition} on the first call.
      * Method deaggregates the retrieved Kinesis records list into a
      * list of KPL user records.
      */
     @Override
     public List<KinesisClientRecord> getRecords() {
+        final List<GetRecordsResponse> getRecordsResponses = this.kinesisAsyncClient == null
+                ? getRecordsSequentially()
+                : getRecordsConcurrently();
+
         final List<KinesisClientRecord> recordList = new ArrayList<>();
-        final List<String> nextShardIteratorList = new ArrayList<>();
+        final List<ShardIterator> currentShardIteratorList = this.shardIteratorList;
+        this.shardIteratorList = new ArrayList<>();
+        for (int i = 0; i < getRecordsResponses.size(); i++) {
+            final ShardIterator shardIterator = currentShardIteratorList.get(i);
+            final GetRecordsResponse getRecordsResponse = getRecordsResponses.get(i);
+            log.debug("Found [{}] records using shard iterator [{}]", getRecordsResponse.records().size(), shardIterator.getIterator());
 
-        for (String s : this.shardIteratorList) {
-            final GetRecordsResponse getRecordsResponse = this.kinesisClient.getRecords(GetRecordsRequest.builder()
-                    .shardIterator(s)
-                    .build());
-            log.debug("Found [{}] records using shard iterator [{}]", getRecordsResponse.records().size(), s);
-
-            final List<KinesisClientRecord> kinesisClientRecords = getRecordsResponse.records().stream()
-                    .map(record ->
-                            KinesisClientRecord.builder()
-                                .sequenceNumber(record.sequenceNumber())
-                                .approximateArrivalTimestamp(record.approximateArrivalTimestamp())
-                                .data(ByteBuffer.wrap(record.data().asByteArray()))
-                                .partitionKey(record.partitionKey())
-                                .encryptionType(record.encryptionType())
-                                .build())
-                    .collect(Collectors.toList());
-            log.debug("Converted [{}] Records to [{}] Kinesis client records.", getRecordsResponse.records().size(), kinesisClientRecords.size());
-
-            recordList.addAll(new AggregatorUtil().deaggregate(kinesisClientRecords));
-            nextShardIteratorList.add(getRecordsResponse.nextShardIterator());
+            recordList.addAll(toKinesisClientRecords(getRecordsResponse));
+            if (!getRecordsResponse.records().isEmpty()) {
+                final List<Record> records = getRecordsResponse.records();
+                this.checkpoint.put(shardIterator.getShardId(),
+                        KinesisStreamPosition.afterSequenceNumber(records.get(records.size() - 1).sequenceNumber()));
+            }
+            if (getRecordsResponse.nextShardIterator() == null) {
+                log.debug("Shard [{}] of stream [{}] is closed", shardIterator.getShardId(), this.streamName);
+                addChildShardIterators(shardIterator.getShardId(), getRecordsResponse);
+            } else {
+                this.shardIteratorList.add(new ShardIterator(shardIterator.getShardId(), getRecordsResponse.nextShardIterator()));
+            }
         }
-        this.shardIteratorList = nextShardIteratorList;
 
         if (recordList.isEmpty()) {
             log.debug("Found 0 records in [{}] stream", this.streamName);
@@ -132,4 +286,105 @@ public class KinesisStreamReaderImpl implements KinesisStreamReader {
         }
         return recordList;
     }
+
+    private List<GetRecordsResponse> getRecordsSequentially() {
+        return this.shardIteratorList.stream()
+                .map(s -> this.kinesisClient.getRecords(GetRecordsRequest.builder()
+                        .shardIterator(s.getIterator())
+                        .build()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Sends the GetRecords requests of all shards before waiting for any response. The responses are returned in the order of the
+     * shard iterators.
+     */
+    private List<GetRecordsResponse> getRecordsConcurrently() {
+        final List<CompletableFuture<GetRecordsResponse>> futures = this.shardIteratorList.stream()
+                .map(s -> this.kinesisAsyncClient.getRecords(GetRecordsRequest.builder()
+                        .shardIterator(s.getIterator())
+                        .build()))
+                .collect(Collectors.toList());
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (final CompletionException e) {
+            // fail the same way as the synchronous client
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw e;
+        }
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Starts reading the children of a closed shard. The children are taken from the response, or from the stream description when
+     * the Kinesis service does not return them.
+     */
+    private void addChildShardIterators(final String shardId, final GetRecordsResponse getRecordsResponse) {
+        final List<String> childShardIds = !getRecordsResponse.childShards().isEmpty()
+                ? getRecordsResponse.childShards().stream()
+                        .map(ChildShard::shardId)
+                        .collect(Collectors.toList())
+                : describeShards(this.streamName).stream()
+                        .filter(shard -> shardId.equals(shard.parentShardId()) || shardId.equals(shard.adjacentParentShardId()))
+                        .map(Shard::shardId)
+                        .collect(Collectors.toList());
+        for (String childShardId : childShardIds) {
+            // the child of a merge has two parents
+            if (this.readShardIds.add(childShardId)) {
+                log.debug("Reading child shard [{}] of shard [{}] of stream [{}]", childShardId, shardId, this.streamName);
+                addShardIterator(childShardId, true);
+            }
+        }
+    }
+
+    /**
+     * Converts the records, with read-only views of the data of the response when created with {@code readOnlyData} and copies of it
+     * otherwise. Only the responses with KPL aggregated records are deaggregated.
+     */
+    private List<KinesisClientRecord> toKinesisClientRecords(final GetRecordsResponse getRecordsResponse) {
+        final List<Record> records = getRecordsResponse.records();
+        final List<KinesisClientRecord> kinesisClientRecords = new ArrayList<>(records.size());
+        boolean aggregated = false;
+        for (Record record : records) {
+            final ByteBuffer data = this.readOnlyData ? record.data().asByteBuffer() : ByteBuffer.wrap(record.data().asByteArray());
+            aggregated |= isAggregated(data);
+            kinesisClientRecords.add(KinesisClientRecord.builder()
+                    .sequenceNumber(record.sequenceNumber())
+                    .approximateArrivalTimestamp(record.approximateArrivalTimestamp())
+                    .data(data)
+                    .partitionKey(record.partitionKey())
+                    .encryptionType(record.encryptionType())
+                    .build());
+        }
+        log.debug("Converted [{}] Records to [{}] Kinesis client records.", records.size(), kinesisClientRecords.size());
+
+        return aggregated ? AGGREGATOR_UTIL.deaggregate(kinesisClientRecords) : kinesisClientRecords;
+    }
+
+    private static boolean isAggregated(final ByteBuffer data) {
+        final byte[] magic = AggregatorUtil.AGGREGATED_RECORD_MAGIC;
+        if (data.remaining() < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (data.get(data.position() + i) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Iterator of a shard which is being read.
+     */
+    @Value
+    private static class ShardIterator {
+
+        String shardId;
+        String iterator;
+    }
 }
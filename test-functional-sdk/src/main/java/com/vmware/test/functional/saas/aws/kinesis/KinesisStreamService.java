@@ -15,13 +15,34 @@ import java.util.List;
 public interface KinesisStreamService {
 
     /**
-     * Puts multiple data records into a Kinesis stream in a single call.
+     * Puts multiple data records into a Kinesis stream. The records are sent in as many PutRecords calls as the limits of the call
+     * require, and the records which fail are retried.
      *
      * @param streamName   The stream name.
      * @param partitionKey Partition key. (cannot be null or empty)
      * @param recordsDataList List of records byte[] data.
-     * @return PutRecordsResponse PutRecords results.
+     * @return PutRecordsResponse PutRecords results, in the order of the records.
      */
     PutRecordsResponse addRecords(String streamName, String partitionKey, List<byte[]> recordsDataList);
 
+    /**
+     * Puts multiple data records into a Kinesis stream, spreading them over the shards of the stream with a different partition key
+     * per record.
+     *
+     * @param streamName   The stream name.
+     * @param recordsDataList List of records byte[] data.
+     * @return PutRecordsResponse PutRecords results, in the order of the records.
+     */
+    PutRecordsResponse addRecords(String streamName, List<byte[]> recordsDataList);
+
+    /**
+     * Puts multiple data records into a Kinesis stream as KPL aggregated records, which pack many records into each Kinesis record.
+     * The records are deaggregated by the {@link KinesisStreamReader}s. The aggregated records are spread over the shards of the stream.
+     *
+     * @param streamName   The stream name.
+     * @param recordsDataList List of records byte[] data.
+     * @return PutRecordsResponse PutRecords results, in the order of the aggregated records.
+     */
+    PutRecordsResponse addAggregatedRecords(String streamName, List<byte[]> recordsDataList);
+
 }
@@ -6,41 +6,204 @@
 package com.vmware.test.functional.saas.aws.kinesis;
 
 import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.kinesis.KinesisAsyncClient;
 import software.amazon.awssdk.services.kinesis.KinesisClient;
 import software.amazon.awssdk.services.kinesis.model.PutRecordsRequest;
 import software.amazon.awssdk.services.kinesis.model.PutRecordsRequestEntry;
 import software.amazon.awssdk.services.kinesis.model.PutRecordsResponse;
+import software.amazon.awssdk.services.kinesis.model.PutRecordsResultEntry;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.google.common.base.Preconditions;
 
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * Implementation of {@link KinesisStreamService}.
+ *
+ * The records are split into PutRecords calls of at most {@value #MAX_RECORDS_PER_REQUEST} records and {@value #MAX_BYTES_PER_REQUEST}
+ * bytes. The records which fail, e.g. because the throughput of a shard was exceeded, are sent again with an exponential backoff, up to
+ * {@value #MAX_ATTEMPTS} times. When created with a {@link KinesisAsyncClient} up to {@code concurrency} calls are sent at the same time,
+ * otherwise the calls are sent one by one.
+ *
+ * The records with a single partition key all go to the same shard, so their calls are always sent one by one, and the next call is
+ * only sent once the failed records of the previous one were put. Within a call the failed records are put after the records of the
+ * call which succeeded, so the records keep their order only as long as none of them fail.
  */
+@Slf4j
 public class KinesisStreamServiceImpl implements KinesisStreamService {
 
+    static final int MAX_RECORDS_PER_REQUEST = 500;
+    static final int MAX_BYTES_PER_REQUEST = 5 * 1024 * 1024;
+    static final int MAX_ATTEMPTS = 5;
+    private static final int DEFAULT_CONCURRENCY = 16;
+    private static final Duration INITIAL_BACKOFF = Duration.ofMillis(100);
+
     private final KinesisClient kinesisClient;
+    private final KinesisAsyncClient kinesisAsyncClient;
+    private final int concurrency;
 
     public KinesisStreamServiceImpl(final KinesisClient kinesisClient) {
+        this(kinesisClient, null, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Creates a service which sends the PutRecords calls concurrently.
+     *
+     * @param kinesisClient {@link KinesisClient}.
+     * @param kinesisAsyncClient {@link KinesisAsyncClient} used to put the records, or {@code null} to put them with the
+     *         {@code kinesisClient} one call at a time.
+     * @param concurrency Maximum number of concurrent PutRecords calls.
+     */
+    public KinesisStreamServiceImpl(final KinesisClient kinesisClient, final KinesisAsyncClient kinesisAsyncClient, final int concurrency) {
         Preconditions.checkNotNull(kinesisClient, "Specified Kinesis client cannot be null");
+        Preconditions.checkArgument(concurrency > 0, "Concurrency should be positive");
         this.kinesisClient = kinesisClient;
+        this.kinesisAsyncClient = kinesisAsyncClient;
+        this.concurrency = concurrency;
     }
 
     @Override
     public PutRecordsResponse addRecords(final String streamName, final String partitionKey, final List<byte[]> recordsDataList) {
-        final List<PutRecordsRequestEntry> recordsRequestEntries = recordsDataList.stream().map(record -> PutRecordsRequestEntry
-                .builder()
-                .data(SdkBytes.fromByteArray(record))
-                .partitionKey(partitionKey)
-                .build())
+        // the records go to one shard, which concurrent calls would only reorder
+        return putRecords(streamName, recordsDataList, i -> partitionKey, 1);
+    }
+
+    @Override
+    public PutRecordsResponse addRecords(final String streamName, final List<byte[]> recordsDataList) {
+        return putRecords(streamName, recordsDataList, Integer::toString, this.concurrency);
+    }
+
+    @Override
+    public PutRecordsResponse addAggregatedRecords(final String streamName, final List<byte[]> recordsDataList) {
+        return putRecords(streamName, KplAggregator.aggregate(recordsDataList, Integer::toString), Integer::toString, this.concurrency);
+    }
+
+    private PutRecordsResponse putRecords(final String streamName,
+            final List<byte[]> recordsDataList,
+            final IntFunction<String> partitionKeys,
+            final int concurrency) {
+        final List<PutRecordsRequestEntry> recordsRequestEntries = IntStream.range(0, recordsDataList.size())
+                .mapToObj(i -> PutRecordsRequestEntry
+                        .builder()
+                        .data(SdkBytes.fromByteArray(recordsDataList.get(i)))
+                        .partitionKey(partitionKeys.apply(i))
+                        .build())
                 .collect(Collectors.toList());
-        final PutRecordsResponse putRecordResponse = this.kinesisClient.putRecords(PutRecordsRequest.builder()
+        final List<List<Integer>> requests = splitIntoRequests(recordsRequestEntries);
+
+        // each lane sends its requests one after the other
+        final PutRecordsResultEntry[] results = new PutRecordsResultEntry[recordsRequestEntries.size()];
+        final int lanes = Math.min(this.kinesisAsyncClient == null ? 1 : concurrency, requests.size());
+        final List<CompletableFuture<Void>> laneFutures = new ArrayList<>();
+        for (int lane = 0; lane < lanes; lane++) {
+            CompletableFuture<Void> laneFuture = CompletableFuture.completedFuture(null);
+            for (int request = lane; request < requests.size(); request += lanes) {
+                final List<Integer> entryIndexes = requests.get(request);
+                laneFuture = laneFuture.thenCompose(v -> putEntries(streamName, recordsRequestEntries, entryIndexes, results, 1));
+            }
+            laneFutures.add(laneFuture);
+        }
+        try {
+            CompletableFuture.allOf(laneFutures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (final CompletionException e) {
+            // fail the same way as the synchronous client
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw e;
+        }
+
+        final int failedRecordCount = (int)Arrays.stream(results).filter(result -> result.errorCode() != null).count();
+        if (failedRecordCount > 0) {
+            log.warn("Failed to put [{}] of [{}] records to stream [{}]", failedRecordCount, results.length, streamName);
+        }
+        return PutRecordsResponse.builder()
+                .records(results)
+                .failedRecordCount(failedRecordCount)
+                .build();
+    }
+
+    /**
+     * Puts the entries, and then puts the entries which failed again after a backoff.
+     *
+     * @param entryIndexes Indexes of the entries to put.
+     * @param results Results of the entries, by index.
+     * @param attempt Number of the attempt, starting with 1.
+     */
+    private CompletableFuture<Void> putEntries(final String streamName,
+            final List<PutRecordsRequestEntry> entries,
+            final List<Integer> entryIndexes,
+            final PutRecordsResultEntry[] results,
+            final int attempt) {
+        final PutRecordsRequest request = PutRecordsRequest.builder()
                 .streamName(streamName)
-                .records(recordsRequestEntries)
-                .build());
+                .records(entryIndexes.stream().map(entries::get).collect(Collectors.toList()))
+                .build();
+        return send(request).thenCompose(response -> {
+            final List<Integer> failedEntryIndexes = new ArrayList<>();
+            for (int i = 0; i < entryIndexes.size(); i++) {
+                final PutRecordsResultEntry result = response.records().get(i);
+                results[entryIndexes.get(i)] = result;
+                if (result.errorCode() != null) {
+                    failedEntryIndexes.add(entryIndexes.get(i));
+                }
+            }
+            if (failedEntryIndexes.isEmpty() || attempt == MAX_ATTEMPTS) {
+                return CompletableFuture.completedFuture(null);
+            }
+            final long backoffMillis = INITIAL_BACKOFF.toMillis() << (attempt - 1);
+            log.debug("Retrying [{}] failed records of stream [{}] in [{}] ms", failedEntryIndexes.size(), streamName, backoffMillis);
+            return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(backoffMillis, TimeUnit.MILLISECONDS))
+                    .thenCompose(v -> putEntries(streamName, entries, failedEntryIndexes, results, attempt + 1));
+        });
+    }
+
+    private CompletableFuture<PutRecordsResponse> send(final PutRecordsRequest request) {
+        if (this.kinesisAsyncClient != null) {
+            return this.kinesisAsyncClient.putRecords(request);
+        }
+        try {
+            return CompletableFuture.completedFuture(this.kinesisClient.putRecords(request));
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-        return putRecordResponse;
+    /**
+     * Splits the entries into requests within the limits of the PutRecords call.
+     *
+     * @return Indexes of the entries of each request.
+     */
+    private static List<List<Integer>> splitIntoRequests(final List<PutRecordsRequestEntry> entries) {
+        final List<List<Integer>> requests = new ArrayList<>();
+        List<Integer> request = new ArrayList<>();
+        long requestBytes = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            final PutRecordsRequestEntry entry = entries.get(i);
+            final long entryBytes = entry.data().asByteBuffer().remaining() + entry.partitionKey().getBytes(StandardCharsets.UTF_8).length;
+            if (!request.isEmpty() && (request.size() == MAX_RECORDS_PER_REQUEST || requestBytes + entryBytes > MAX_BYTES_PER_REQUEST)) {
+                requests.add(request);
+                request = new ArrayList<>();
+                requestBytes = 0;
+            }
+            request.add(i);
+            requestBytes += entryBytes;
+        }
+        if (!request.isEmpty()) {
+            requests.add(request);
+        }
+        return requests;
     }
 }
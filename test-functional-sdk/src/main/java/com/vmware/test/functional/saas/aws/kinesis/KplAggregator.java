@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+package com.vmware.test.functional.saas.aws.kinesis;
+
+import software.amazon.kinesis.retrieval.AggregatorUtil;
+import software.amazon.kinesis.retrieval.kpl.Messages;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * Packs records in the KPL aggregated record format, the inverse of {@link AggregatorUtil#deaggregate(List)}: the magic bytes, an
+ * {@link Messages.AggregatedRecord} and the MD5 digest of the aggregated record.
+ */
+final class KplAggregator {
+
+    /**
+     * Maximum size of the records in an aggregated record, which leaves room for the format in the 1 MB limit of a Kinesis record.
+     */
+    static final int MAX_AGGREGATED_BYTES = 1000 * 1000;
+
+    // partition key index and data field tags, and lengths
+    private static final int RECORD_OVERHEAD = 16;
+    private static final String DIGEST_ALGORITHM = "MD5";
+
+    private KplAggregator() {
+    }
+
+    /**
+     * Aggregates the records into as few aggregated records as the size limit allows.
+     *
+     * @param records Data of the records.
+     * @param partitionKeys Partition key of the aggregated record by its index, the records of an aggregated record have the same
+     *         partition key as the aggregated record.
+     * @return Data of the aggregated records.
+     */
+    static List<byte[]> aggregate(final List<byte[]> records, final IntFunction<String> partitionKeys) {
+        final List<byte[]> aggregatedRecords = new ArrayList<>();
+        Messages.AggregatedRecord.Builder builder = null;
+        int size = 0;
+        for (byte[] record : records) {
+            final int recordSize = record.length + RECORD_OVERHEAD;
+            if (builder != null && size + recordSize > MAX_AGGREGATED_BYTES) {
+                aggregatedRecords.add(toBytes(builder.build()));
+                builder = null;
+            }
+            if (builder == null) {
+                final String partitionKey = partitionKeys.apply(aggregatedRecords.size());
+                builder = Messages.AggregatedRecord.newBuilder().addPartitionKeyTable(partitionKey);
+                size = partitionKey.length();
+            }
+            builder.addRecords(Messages.Record.newBuilder()
+                    .setPartitionKeyIndex(0)
+                    .setData(ByteString.copyFrom(record)));
+            size += recordSize;
+        }
+        if (builder != null) {
+            aggregatedRecords.add(toBytes(builder.build()));
+        }
+        return aggregatedRecords;
+    }
+
+    private static byte[] toBytes(final Messages.AggregatedRecord aggregatedRecord) {
+        final byte[] message = aggregatedRecord.toByteArray();
+        final byte[] digest = md5().digest(message);
+        final byte[] magic = AggregatorUtil.AGGREGATED_RECORD_MAGIC;
+        final byte[] bytes = new byte[magic.length + message.length + digest.length];
+        System.arraycopy(magic, 0, bytes, 0, magic.length);
+        System.arraycopy(message, 0, bytes, magic.length, message.length);
+        System.arraycopy(digest, 0, bytes, magic.length + message.length, digest.length);
+        return bytes;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported", e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.aws.kinesis;
+
+import software.amazon.awssdk.services.kinesis.model.PutRecordsRequest;
+import software.amazon.kinesis.retrieval.KinesisClientRecord;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.vmware.test.functional.saas.aws.kinesis.test.KinesisStreamTestData;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for {@link ContinuousKinesisStreamReaderImpl}.
+ */
+public class ContinuousKinesisStreamReaderTest extends KinesisStreamBaseTest {
+
+    private static final String POLL_TIMEOUT_EXCEPTION_REGEX = "^Condition with alias 'Polling for records from stream \\[.*]' didn't complete within.*";
+
+    private ContinuousKinesisStreamReader<byte[]> kinesisStreamReader;
+
+    @BeforeClass(alwaysRun = true)
+    public void setUp() {
+        createStream(KinesisStreamTestData.STREAM_NAME, 1);
+    }
+
+    @BeforeMethod(alwaysRun = true)
+    public void createReader() {
+        this.kinesisStreamReader = new ContinuousKinesisStreamReaderImpl<>(
+                this.kinesisClient,
+                KinesisStreamTestData.STREAM_NAME,
+                ByteBuffer::array);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void closeReader() {
+        this.kinesisStreamReader.close();
+    }
+
+    @AfterClass(alwaysRun = true)
+    private void deleteStream() {
+        deleteStream(KinesisStreamTestData.STREAM_NAME);
+    }
+
+    @Test
+    public void pollForRecordsReturnsRecordsReadBeforePoll() {
+        this.kinesisClient.putRecords(PutRecordsRequest.builder()
+                .streamName(KinesisStreamTestData.STREAM_NAME)
+                .records(KinesisStreamTestData.RECORD_1, KinesisStreamTestData.RECORD_2)
+                .build());
+
+        // the records are read in the background, and the poll returns as soon as they arrive
+        final List<KinesisClientRecord> recordList = this.kinesisStreamReader.pollForRecordsUntil(
+                Duration.ofMillis(100),
+                Duration.ofSeconds(10),
+                recordWrapper -> Arrays.equals(KinesisStreamTestData.RECORD_DATA_1, recordWrapper.getTransformedData()),
+                rws -> rws.size() == 1);
+        assertThat(recordList, hasSize(1));
+        assertThat(recordList.get(0).data(), equalTo(ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_1)));
+    }
+
+    @Test
+    public void pollForRecordsReturnsWhenRecordsArrive() throws Exception {
+        final CompletableFuture<List<KinesisClientRecord>> future = CompletableFuture.supplyAsync(() ->
+                this.kinesisStreamReader.pollForRecordsUntil(
+                        Duration.ofMinutes(1),
+                        Duration.ofSeconds(10),
+                        recordWrapper -> Arrays.equals(KinesisStreamTestData.RECORD_DATA_2, recordWrapper.getTransformedData()),
+                        rws -> rws.size() == 1));
+
+        this.kinesisClient.putRecords(PutRecordsRequest.builder()
+                .streamName(KinesisStreamTestData.STREAM_NAME)
+                .records(KinesisStreamTestData.RECORD_1, KinesisStreamTestData.RECORD_2)
+                .build());
+
+        // returns long before the poll interval elapses
+        final List<KinesisClientRecord> recordList = future.get(10, TimeUnit.SECONDS);
+        assertThat(recordList, hasSize(1));
+        assertThat(recordList.get(0).data(), equalTo(ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_2)));
+        // the other record was filtered out
+        assertThat(this.kinesisStreamReader.getRecords(), hasSize(0));
+    }
+
+    @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = POLL_TIMEOUT_EXCEPTION_REGEX)
+    public void pollForRecordsTimesOutWhenReturnConditionNotSatisfied() {
+        this.kinesisClient.putRecords(PutRecordsRequest.builder()
+                .streamName(KinesisStreamTestData.STREAM_NAME)
+                .records(KinesisStreamTestData.RECORD_1)
+                .build());
+
+        this.kinesisStreamReader.pollForRecordsUntil(
+                Duration.ofMillis(25),
+                Duration.ofMillis(500),
+                rw -> true,
+                rws -> rws.size() == 2);
+    }
+
+    @Test
+    public void dropsOldestRecordsWhenBufferIsFull() {
+        try (ContinuousKinesisStreamReader<byte[]> reader = new ContinuousKinesisStreamReaderImpl<>(
+                this.kinesisClient,
+                null,
+                KinesisStreamTestData.STREAM_NAME,
+                KinesisStreamPosition.latest(),
+                ByteBuffer::array,
+                1)) {
+            this.kinesisClient.putRecords(PutRecordsRequest.builder()
+                    .streamName(KinesisStreamTestData.STREAM_NAME)
+                    .records(KinesisStreamTestData.RECORD_1, KinesisStreamTestData.RECORD_2)
+                    .build());
+            Awaitility.await().until(() -> reader.getDroppedRecordCount() == 1);
+
+            final List<KinesisClientRecord> recordList = reader.getRecords();
+            assertThat(recordList, hasSize(1));
+            assertThat(recordList.get(0).data(), equalTo(ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_2)));
+        }
+    }
+}
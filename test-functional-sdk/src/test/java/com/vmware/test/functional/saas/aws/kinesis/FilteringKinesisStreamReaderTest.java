@@ -84,6 +84,33 @@ public class FilteringKinesisStreamReaderTest extends KinesisStreamBaseTest {
                                 record -> ByteBuffer.wrap(KinesisStreamTestData.RECORD_1.data().asByteArray()).equals(record.data())));
     }
 
+    @Test
+    public void getRecordsWithReadOnlyDataWhichTheTransformerReads() {
+        final FilteringKinesisStreamReader<byte[]> readOnlyDataReader = new FilteringKinesisStreamReaderImpl<>(
+                this.kinesisClient,
+                null,
+                KinesisStreamTestData.STREAM_NAME,
+                KinesisStreamPosition.latest(),
+                true,
+                data -> {
+                    final byte[] bytes = new byte[data.remaining()];
+                    data.get(bytes);
+                    return bytes;
+                });
+        this.kinesisClient.putRecords(PutRecordsRequest.builder()
+                .streamName(KinesisStreamTestData.STREAM_NAME)
+                .records(KinesisStreamTestData.RECORD_1)
+                .build());
+
+        final List<KinesisClientRecord> records = readOnlyDataReader.getRecords(
+                recordWrapper -> Arrays.equals(KinesisStreamTestData.RECORD_DATA_1, recordWrapper.getTransformedData()));
+        assertThat(records, hasSize(1));
+        // the transformer did not move the position of the data of the record
+        assertThat(records.get(0).data(), equalTo(ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_1)));
+        // drop the record from the reader of the other tests
+        assertThat(this.kinesisStreamReader.getRecords(rw -> true), hasSize(1));
+    }
+
     @Test
     public void getRecordsWithFilterReturnsEmptyWhenNoRecordsInStream() {
         final List<KinesisClientRecord> recordList = this.kinesisStreamReader.getRecords(rw -> true);
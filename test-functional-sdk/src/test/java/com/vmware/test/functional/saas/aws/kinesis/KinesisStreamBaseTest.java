@@ -10,7 +10,9 @@ import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.SdkSystemSetting;
 import software.amazon.awssdk.http.SdkHttpConfigurationOption;
 import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.kinesis.KinesisAsyncClient;
 import software.amazon.awssdk.services.kinesis.KinesisClient;
 import software.amazon.awssdk.services.kinesis.model.CreateStreamRequest;
 import software.amazon.awssdk.services.kinesis.model.DeleteStreamRequest;
@@ -36,11 +38,12 @@ import static com.vmware.test.functional.saas.aws.LocalTestConstants.TEST_SECRET
 
 /**
  * Class used for starting kinesalite docker container and configuring
- * {@link KinesisClient} used in kinesis streams tests.
+ * {@link KinesisClient} and {@link KinesisAsyncClient} used in kinesis streams tests.
  */
 public class KinesisStreamBaseTest {
 
     KinesisClient kinesisClient;
+    KinesisAsyncClient kinesisAsyncClient;
     private GenericContainer<?> kinesaliteContainer;
 
     @BeforeClass(alwaysRun = true)
@@ -67,10 +70,22 @@ public class KinesisStreamBaseTest {
                                 .put(SdkHttpConfigurationOption.TRUST_ALL_CERTIFICATES, true)
                                 .build()))
                 .build();
+
+        this.kinesisAsyncClient = KinesisAsyncClient.builder()
+                .endpointOverride(URI.create(getKinesaliteEndpoint()))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials
+                        .create(TEST_ACCESS_KEY_ID, TEST_SECRET_KEY_ID)))
+                .region(Region.US_WEST_1)
+                .httpClient(NettyNioAsyncHttpClient.builder()
+                        .buildWithDefaults(AttributeMap.builder()
+                                .put(SdkHttpConfigurationOption.TRUST_ALL_CERTIFICATES, true)
+                                .build()))
+                .build();
     }
 
     @AfterClass(alwaysRun = true)
     public void stopKinesalite() {
+        this.kinesisAsyncClient.close();
         this.kinesaliteContainer.stop();
     }
 
@@ -55,6 +55,25 @@ public class KinesisStreamReaderImplTest extends KinesisStreamBaseTest {
                                 record -> Objects.equals(ByteBuffer.wrap(KinesisStreamTestData.RECORD_1.data().asByteArray()), record.data())));
     }
 
+    @Test
+    public void getRecordsWithReadOnlyData() {
+        final KinesisStreamReader readOnlyDataReader = new KinesisStreamReaderImpl(this.kinesisClient, null, KinesisStreamTestData.STREAM_NAME,
+                KinesisStreamPosition.latest(), true);
+        this.kinesisClient.putRecords(PutRecordsRequest.builder()
+                .streamName(KinesisStreamTestData.STREAM_NAME)
+                .records(KinesisStreamTestData.RECORD_1)
+                .build());
+
+        final List<KinesisClientRecord> readOnlyRecords = readOnlyDataReader.getRecords();
+        assertThat(readOnlyRecords, hasSize(1));
+        assertThat(readOnlyRecords.get(0).data().isReadOnly(), is(true));
+        assertThat(KinesisStreamTestData.toByteArray(readOnlyRecords.get(0).data()), equalTo(KinesisStreamTestData.RECORD_DATA_1));
+        // the data of the other readers are copies
+        final List<KinesisClientRecord> records = this.kinesisStreamReader.getRecords();
+        assertThat(records, hasSize(1));
+        assertThat(records.get(0).data().array(), equalTo(KinesisStreamTestData.RECORD_DATA_1));
+    }
+
     @Test
     public void getRecordsFromKinesisStreamWithNoRecords() {
         final List<KinesisClientRecord> recordList = this.kinesisStreamReader.getRecords();
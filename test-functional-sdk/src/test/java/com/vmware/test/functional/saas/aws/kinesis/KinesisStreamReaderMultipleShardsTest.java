@@ -30,12 +30,15 @@ import static org.hamcrest.Matchers.*;
 public class KinesisStreamReaderMultipleShardsTest extends KinesisStreamBaseTest {
 
     private KinesisStreamReader kinesisStreamReader;
+    private KinesisStreamReader concurrentKinesisStreamReader;
 
     @BeforeClass(alwaysRun = true)
     public void setUp() {
         // create stream with two shards
         createStream(KinesisStreamTestData.STREAM_NAME_2, 2);
         this.kinesisStreamReader = new KinesisStreamReaderImpl(this.kinesisClient, KinesisStreamTestData.STREAM_NAME_2);
+        this.concurrentKinesisStreamReader = new KinesisStreamReaderImpl(this.kinesisClient, this.kinesisAsyncClient,
+                KinesisStreamTestData.STREAM_NAME_2);
     }
 
     @AfterClass(alwaysRun = true)
@@ -91,4 +94,25 @@ public class KinesisStreamReaderMultipleShardsTest extends KinesisStreamBaseTest
                                         ByteBuffer.wrap(KinesisStreamTestData.RECORD_2.data().asByteArray()))
                                 .contains(record.data())));
     }
+
+    @Test
+    public void getRecordsFromAllShardsConcurrently() {
+        // drop the records of the other tests
+        this.concurrentKinesisStreamReader.getRecords();
+        this.kinesisClient.putRecords(PutRecordsRequest.builder()
+                .streamName(KinesisStreamTestData.STREAM_NAME_2)
+                .records(KinesisStreamTestData.RECORD_1, KinesisStreamTestData.RECORD_2)
+                .build());
+
+        final List<KinesisClientRecord> recordList = this.concurrentKinesisStreamReader.getRecords();
+        assertThat(recordList, hasSize(2));
+        assertThat("Returned records from kinesis stream does not match expected ones.",
+                recordList.stream()
+                        .allMatch(record -> Arrays
+                                .asList(ByteBuffer.wrap(KinesisStreamTestData.RECORD_1.data().asByteArray()),
+                                        ByteBuffer.wrap(KinesisStreamTestData.RECORD_2.data().asByteArray()))
+                                .contains(record.data())));
+        // the iterators of all shards were advanced
+        assertThat(this.concurrentKinesisStreamReader.getRecords(), hasSize(0));
+    }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ */
+
+package com.vmware.test.functional.saas.aws.kinesis;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.kinesis.model.DescribeStreamRequest;
+import software.amazon.awssdk.services.kinesis.model.DescribeStreamResponse;
+import software.amazon.awssdk.services.kinesis.model.PutRecordsRequest;
+import software.amazon.awssdk.services.kinesis.model.PutRecordsRequestEntry;
+import software.amazon.awssdk.services.kinesis.model.Shard;
+import software.amazon.awssdk.services.kinesis.model.ShardIteratorType;
+import software.amazon.awssdk.services.kinesis.model.SplitShardRequest;
+import software.amazon.awssdk.services.kinesis.model.StreamStatus;
+import software.amazon.kinesis.retrieval.KinesisClientRecord;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.awaitility.Awaitility;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.vmware.test.functional.saas.aws.kinesis.test.KinesisStreamTestData;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for the {@link KinesisStreamPosition}, checkpoints and resharding of {@link KinesisStreamReaderImpl}.
+ */
+public class KinesisStreamReaderPositionTest extends KinesisStreamBaseTest {
+
+    @BeforeMethod(alwaysRun = true)
+    public void createStream() {
+        createStream(KinesisStreamTestData.STREAM_NAME, 1);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteStream() {
+        deleteStream(KinesisStreamTestData.STREAM_NAME);
+    }
+
+    @Test
+    public void readsRecordsAddedBeforeReaderFromTrimHorizon() {
+        putRecord(KinesisStreamTestData.RECORD_1);
+
+        final KinesisStreamReader reader = new KinesisStreamReaderImpl(this.kinesisClient, null, KinesisStreamTestData.STREAM_NAME,
+                KinesisStreamPosition.trimHorizon());
+
+        assertThat(data(reader.getRecords()), contains(ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_1)));
+    }
+
+    @Test
+    public void readsRecordsAddedAfterTimestamp() throws InterruptedException {
+        putRecord(KinesisStreamTestData.RECORD_1);
+        TimeUnit.SECONDS.sleep(1);
+        final Instant timestamp = Instant.now();
+        TimeUnit.SECONDS.sleep(1);
+        putRecord(KinesisStreamTestData.RECORD_2);
+
+        final KinesisStreamReader reader = new KinesisStreamReaderImpl(this.kinesisClient, null, KinesisStreamTestData.STREAM_NAME,
+                KinesisStreamPosition.atTimestamp(timestamp));
+
+        assertThat(data(reader.getRecords()), contains(ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_2)));
+    }
+
+    @Test
+    public void continuesAfterCheckpoint() {
+        final KinesisStreamReaderImpl reader = new KinesisStreamReaderImpl(this.kinesisClient, null, KinesisStreamTestData.STREAM_NAME,
+                KinesisStreamPosition.trimHorizon());
+        putRecord(KinesisStreamTestData.RECORD_1);
+        assertThat(reader.getRecords(), hasSize(1));
+        final Map<String, KinesisStreamPosition> checkpoint = reader.getCheckpoint();
+        assertThat(checkpoint.size(), is(1));
+        putRecord(KinesisStreamTestData.RECORD_2);
+
+        final KinesisStreamReader restoredReader = new KinesisStreamReaderImpl(this.kinesisClient, null, KinesisStreamTestData.STREAM_NAME,
+                KinesisStreamPosition.afterCheckpoint(checkpoint));
+
+        assertThat(data(restoredReader.getRecords()), contains(ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_2)));
+    }
+
+    @Test
+    public void continuesShardsWithoutRecordsAfterCheckpoint() throws InterruptedException {
+        createStream(KinesisStreamTestData.STREAM_NAME_2, 2);
+        try {
+            final List<String> explicitHashKeys = describeStream(KinesisStreamTestData.STREAM_NAME_2).streamDescription().shards().stream()
+                    .map(shard -> shard.hashKeyRange().startingHashKey())
+                    .collect(Collectors.toList());
+            // a record of the second shard which was added before the reader was created
+            putRecord(KinesisStreamTestData.STREAM_NAME_2, KinesisStreamTestData.RECORD_DATA_1, explicitHashKeys.get(1));
+            TimeUnit.SECONDS.sleep(1);
+
+            final KinesisStreamReaderImpl reader = new KinesisStreamReaderImpl(this.kinesisClient, KinesisStreamTestData.STREAM_NAME_2);
+            putRecord(KinesisStreamTestData.STREAM_NAME_2, KinesisStreamTestData.RECORD_DATA_2, explicitHashKeys.get(0));
+            assertThat(data(reader.getRecords()), contains(ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_2)));
+            // the second shard did not return any records, but is in the checkpoint
+            final Map<String, KinesisStreamPosition> checkpoint = reader.getCheckpoint();
+            assertThat(checkpoint.size(), is(2));
+            putRecord(KinesisStreamTestData.STREAM_NAME_2, KinesisStreamTestData.RECORD_DATA_2, explicitHashKeys.get(1));
+
+            final KinesisStreamReader restoredReader = new KinesisStreamReaderImpl(this.kinesisClient, null,
+                    KinesisStreamTestData.STREAM_NAME_2, KinesisStreamPosition.afterCheckpoint(checkpoint));
+
+            assertThat(data(restoredReader.getRecords()), contains(ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_2)));
+        } finally {
+            deleteStream(KinesisStreamTestData.STREAM_NAME_2);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Sequence numbers are only supported per shard.*")
+    public void rejectsSequenceNumberOfStream() {
+        new KinesisStreamReaderImpl(this.kinesisClient, null, KinesisStreamTestData.STREAM_NAME, KinesisStreamPosition.builder()
+                .shardIteratorType(ShardIteratorType.AFTER_SEQUENCE_NUMBER)
+                .sequenceNumber("1")
+                .build());
+    }
+
+    @Test
+    public void readsChildShardsAfterSplit() {
+        final KinesisStreamReader reader = new KinesisStreamReaderImpl(this.kinesisClient, KinesisStreamTestData.STREAM_NAME);
+        putRecord(KinesisStreamTestData.RECORD_1);
+
+        final Shard shard = describeStream(KinesisStreamTestData.STREAM_NAME).streamDescription().shards().get(0);
+        final BigInteger startingHashKey = new BigInteger(shard.hashKeyRange().startingHashKey());
+        final BigInteger endingHashKey = new BigInteger(shard.hashKeyRange().endingHashKey());
+        this.kinesisClient.splitShard(SplitShardRequest.builder()
+                .streamName(KinesisStreamTestData.STREAM_NAME)
+                .shardToSplit(shard.shardId())
+                .newStartingHashKey(startingHashKey.add(endingHashKey).shiftRight(1).toString())
+                .build());
+        Awaitility.await().until(() -> describeStream(KinesisStreamTestData.STREAM_NAME).streamDescription().streamStatus()
+                .equals(StreamStatus.ACTIVE));
+        putRecord(KinesisStreamTestData.RECORD_2);
+
+        // the parent shard is read to its end before the child shards
+        final List<KinesisClientRecord> records = new ArrayList<>();
+        Awaitility.await().until(() -> {
+            records.addAll(reader.getRecords());
+            return records.size() >= 2;
+        });
+        assertThat(data(records), contains(ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_1),
+                ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_2)));
+    }
+
+    private void putRecord(final PutRecordsRequestEntry record) {
+        this.kinesisClient.putRecords(PutRecordsRequest.builder()
+                .streamName(KinesisStreamTestData.STREAM_NAME)
+                .records(record)
+                .build());
+    }
+
+    private void putRecord(final String streamName, final byte[] data, final String explicitHashKey) {
+        this.kinesisClient.putRecords(PutRecordsRequest.builder()
+                .streamName(streamName)
+                .records(PutRecordsRequestEntry.builder()
+                        .data(SdkBytes.fromByteArray(data))
+                        .partitionKey(KinesisStreamTestData.PARTITION_KEY_1)
+                        .explicitHashKey(explicitHashKey)
+                        .build())
+                .build());
+    }
+
+    private DescribeStreamResponse describeStream(final String streamName) {
+        return this.kinesisClient.describeStream(DescribeStreamRequest.builder().streamName(streamName).build());
+    }
+
+    private static List<ByteBuffer> data(final List<KinesisClientRecord> records) {
+        return records.stream().map(KinesisClientRecord::data).collect(Collectors.toList());
+    }
+}
@@ -5,11 +5,23 @@
 
 package com.vmware.test.functional.saas.aws.kinesis;
 
+import software.amazon.awssdk.services.kinesis.KinesisClient;
+import software.amazon.awssdk.services.kinesis.model.PutRecordsRequest;
 import software.amazon.awssdk.services.kinesis.model.PutRecordsResponse;
+import software.amazon.awssdk.services.kinesis.model.PutRecordsResultEntry;
+import software.amazon.kinesis.retrieval.KinesisClientRecord;
 
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -56,4 +68,77 @@ public class KinesisStreamServiceImplTest extends KinesisStreamBaseTest {
         assertThat(putRecordsResponse.records(), hasSize(2));
         assertThat(putRecordsResponse.failedRecordCount(), equalTo(0));
     }
+
+    @Test
+    public void addRecordsInSeveralRequests() {
+        final List<byte[]> recordsDataList = IntStream.range(0, 1201)
+                .mapToObj(i -> KinesisStreamTestData.RECORD_DATA_1)
+                .collect(Collectors.toList());
+        final PutRecordsResponse putRecordsResponse = new KinesisStreamServiceImpl(this.kinesisClient, this.kinesisAsyncClient, 2)
+                .addRecords(KinesisStreamTestData.STREAM_NAME, KinesisStreamTestData.PARTITION_KEY_1, recordsDataList);
+
+        assertThat(putRecordsResponse.records(), hasSize(1201));
+        assertThat(putRecordsResponse.failedRecordCount(), equalTo(0));
+        assertThat(putRecordsResponse.records().stream().allMatch(result -> result.sequenceNumber() != null), is(true));
+        // the records of a partition key keep their order
+        final List<BigInteger> sequenceNumbers = putRecordsResponse.records().stream()
+                .map(result -> new BigInteger(result.sequenceNumber()))
+                .collect(Collectors.toList());
+        assertThat(sequenceNumbers, equalTo(sequenceNumbers.stream().sorted().collect(Collectors.toList())));
+    }
+
+    @Test
+    public void addRecordsWithDifferentPartitionKeys() {
+        final KinesisStreamReader reader = new KinesisStreamReaderImpl(this.kinesisClient, null, KinesisStreamTestData.STREAM_NAME,
+                KinesisStreamPosition.trimHorizon());
+        final PutRecordsResponse putRecordsResponse = this.kinesisStreamService
+                .addRecords(KinesisStreamTestData.STREAM_NAME,
+                        Arrays.asList(KinesisStreamTestData.RECORD_DATA_1, KinesisStreamTestData.RECORD_DATA_2));
+
+        assertThat(putRecordsResponse.failedRecordCount(), equalTo(0));
+        assertThat(reader.getRecords().stream().map(KinesisClientRecord::partitionKey).collect(Collectors.toList()), contains("0", "1"));
+    }
+
+    @Test
+    public void addAggregatedRecordsWhichAreDeaggregatedByReader() {
+        final KinesisStreamReader reader = new KinesisStreamReaderImpl(this.kinesisClient, null, KinesisStreamTestData.STREAM_NAME,
+                KinesisStreamPosition.trimHorizon());
+        final PutRecordsResponse putRecordsResponse = this.kinesisStreamService
+                .addAggregatedRecords(KinesisStreamTestData.STREAM_NAME,
+                        Arrays.asList(KinesisStreamTestData.RECORD_DATA_1, KinesisStreamTestData.RECORD_DATA_2));
+
+        // both records are in one Kinesis record
+        assertThat(putRecordsResponse.records(), hasSize(1));
+        assertThat(putRecordsResponse.failedRecordCount(), equalTo(0));
+        final List<KinesisClientRecord> records = reader.getRecords();
+        assertThat(records.stream().map(KinesisClientRecord::data).collect(Collectors.toList()),
+                contains(ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_1), ByteBuffer.wrap(KinesisStreamTestData.RECORD_DATA_2)));
+    }
+
+    @Test
+    public void retriesOnlyFailedRecords() {
+        final KinesisClient client = Mockito.mock(KinesisClient.class);
+        Mockito.when(client.putRecords(ArgumentMatchers.any(PutRecordsRequest.class)))
+                .thenReturn(PutRecordsResponse.builder()
+                        .records(PutRecordsResultEntry.builder().sequenceNumber("1").build(),
+                                PutRecordsResultEntry.builder().errorCode("ProvisionedThroughputExceededException").build())
+                        .failedRecordCount(1)
+                        .build())
+                .thenReturn(PutRecordsResponse.builder()
+                        .records(PutRecordsResultEntry.builder().sequenceNumber("2").build())
+                        .failedRecordCount(0)
+                        .build());
+
+        final PutRecordsResponse putRecordsResponse = new KinesisStreamServiceImpl(client)
+                .addRecords(KinesisStreamTestData.STREAM_NAME, KinesisStreamTestData.PARTITION_KEY_1,
+                        Arrays.asList(KinesisStreamTestData.RECORD_DATA_1, KinesisStreamTestData.RECORD_DATA_2));
+
+        assertThat(putRecordsResponse.failedRecordCount(), equalTo(0));
+        assertThat(putRecordsResponse.records().stream().map(PutRecordsResultEntry::sequenceNumber).collect(Collectors.toList()),
+                contains("1", "2"));
+        final ArgumentCaptor<PutRecordsRequest> requests = ArgumentCaptor.forClass(PutRecordsRequest.class);
+        Mockito.verify(client, Mockito.times(2)).putRecords(requests.capture());
+        assertThat(requests.getAllValues().get(1).records(), hasSize(1));
+        assertThat(requests.getAllValues().get(1).records().get(0).data().asByteArray(), equalTo(KinesisStreamTestData.RECORD_DATA_2));
+    }
 }
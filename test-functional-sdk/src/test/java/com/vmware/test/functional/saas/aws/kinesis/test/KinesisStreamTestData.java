@@ -8,6 +8,7 @@ package com.vmware.test.functional.saas.aws.kinesis.test;
 import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.services.kinesis.model.PutRecordsRequestEntry;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 /**
@@ -37,4 +38,16 @@ public final class KinesisStreamTestData {
     private KinesisStreamTestData() {
     }
 
+    /**
+     * Copies the content of a read-only record data buffer.
+     *
+     * @param data Record data.
+     * @return The bytes of the data.
+     */
+    public static byte[] toByteArray(final ByteBuffer data) {
+        final byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return bytes;
+    }
+
 }